@@ -0,0 +1,82 @@
+package com.planner.benchmark;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Task;
+import com.planner.schedule.TaskQueue;
+import com.planner.util.BinaryJBin;
+import com.planner.util.JBin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading and writing of JBin boards
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JBinBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int taskCount;
+    @Param({"0", "10"})
+    private int eventsPerWeek;
+
+    private ScheduleManager scheduleManager;
+    private String data;
+    private byte[] binaryData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduleManager = Workloads.freshScheduleManager(14);
+        Workloads.addTasks(scheduleManager, taskCount, 14, new Random(42));
+        Workloads.addEvents(scheduleManager, eventsPerWeek, 14, new Random(7));
+        scheduleManager.buildSchedule();
+        data = JBin.createJBin(scheduleManager.getCards(), scheduleManager.getSchedule());
+        binaryData = BinaryJBin.createJBin(scheduleManager.getCards(), scheduleManager.getEvents(),
+                scheduleManager.getSchedule(), null);
+    }
+
+    @Benchmark
+    public String createJBin() {
+        return JBin.createJBin(scheduleManager.getCards(), scheduleManager.getSchedule());
+    }
+
+    @Benchmark
+    public byte[] createBinaryJBin() {
+        return BinaryJBin.createJBin(scheduleManager.getCards(), scheduleManager.getEvents(),
+                scheduleManager.getSchedule(), null);
+    }
+
+    @Benchmark
+    public TaskQueue processJBin() {
+        TaskQueue tasks = new TaskQueue();
+        JBin.processJBin(data, tasks, new ArrayList<>(), 0, defaultCards(), new ArrayList<>(),
+                scheduleManager.getUserConfig().getArchiveDays());
+        return tasks;
+    }
+
+    @Benchmark
+    public TaskQueue processBinaryJBin() {
+        TaskQueue tasks = new TaskQueue();
+        BinaryJBin.processJBin(binaryData, tasks, new ArrayList<>(), 0, defaultCards(), new ArrayList<>(),
+                scheduleManager.getUserConfig().getArchiveDays());
+        return tasks;
+    }
+
+    private static List<Card> defaultCards() {
+        List<Card> cards = new ArrayList<>();
+        // the board always starts with its default Card
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        return cards;
+    }
+}
@@ -0,0 +1,65 @@
+package com.planner.benchmark;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks full, incremental and lazy schedule generation
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int taskCount;
+    @Param({"0", "10", "40"})
+    private int eventsPerWeek;
+    @Param({"14", "30"})
+    private int maxDays;
+
+    private ScheduleManager scheduleManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduleManager = Workloads.freshScheduleManager(maxDays);
+        Workloads.addTasks(scheduleManager, taskCount, maxDays, new Random(42));
+        Workloads.addEvents(scheduleManager, eventsPerWeek, maxDays, new Random(7));
+        scheduleManager.buildSchedule();
+    }
+
+    @Benchmark
+    public List<Day> buildSchedule() {
+        scheduleManager.buildSchedule();
+        return scheduleManager.getSchedule();
+    }
+
+    @Benchmark
+    public List<Day> updateAfterEdit() {
+        // a task due halfway through the schedule only affects the Days from the nearest checkpoint onwards
+        Task task = scheduleManager.addTask("Edit", 3, maxDays / 2);
+        scheduleManager.updateSchedule();
+        scheduleManager.removeTask(task);
+        scheduleManager.updateSchedule();
+        return scheduleManager.getSchedule();
+    }
+
+    @Benchmark
+    public Day todayAfterEdit() {
+        // a task due today forces a rebuild, but only the current Day is scheduled
+        Task task = scheduleManager.addTask("Edit", 1, 0);
+        scheduleManager.removeTask(task);
+        return scheduleManager.scheduleIterator().next();
+    }
+}
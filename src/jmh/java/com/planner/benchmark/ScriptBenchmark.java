@@ -0,0 +1,60 @@
+package com.planner.benchmark;
+
+import com.planner.scripter.ScriptFSM;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks execution of smpl scripts that create Tasks and build the schedule
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptBenchmark {
+
+    @Param({"100", "1000"})
+    private int scriptSize;
+
+    private Path script;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("include: __CURR_CONFIG__\n\n");
+        for (int i = 0; i < scriptSize; i++) {
+            sb.append("t").append(i).append(": task(\"T").append(i).append("\", ")
+                    .append(1 + random.nextInt(8)).append(", ").append(random.nextInt(14)).append(")\n");
+        }
+        sb.append("build()\n");
+        script = Files.createTempFile("bench", ".smpl");
+        Files.writeString(script, sb.toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBoard() {
+        // scripts add to the board, so every run starts from an empty one
+        Workloads.freshScheduleManager(14);
+    }
+
+    @Benchmark
+    public ScriptFSM executeScript() throws IOException {
+        ScriptFSM scriptFSM = new ScriptFSM();
+        scriptFSM.executeScript(script.toString());
+        return scriptFSM;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(script);
+    }
+}
@@ -0,0 +1,84 @@
+package com.planner.benchmark;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.util.Time;
+
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Seeded inputs shared by the benchmarks
+ *
+ * @author Andrew Roe
+ */
+final class Workloads {
+
+    private Workloads() {
+    }
+
+    /**
+     * Resets the ScheduleManager so that each benchmark starts from an empty board
+     *
+     * @param maxDays maximum number of Days to schedule
+     * @return empty ScheduleManager
+     */
+    static ScheduleManager freshScheduleManager(int maxDays) {
+        ScheduleManager.getScheduleManager().resetData();
+        ScheduleManager scheduleManager = ScheduleManager.getScheduleManager();
+        scheduleManager.getUserConfig().setMaxDays(maxDays);
+        return scheduleManager;
+    }
+
+    /**
+     * Adds Tasks with due dates spread over the schedule
+     *
+     * @param scheduleManager manager receiving the Tasks
+     * @param count number of Tasks
+     * @param maxDays maximum number of Days to schedule
+     * @param random seeded source of randomness
+     */
+    static void addTasks(ScheduleManager scheduleManager, int count, int maxDays, Random random) {
+        for (int i = 0; i < count; i++) {
+            scheduleManager.addTask("T" + i, 1 + random.nextInt(8), random.nextInt(maxDays));
+        }
+    }
+
+    /**
+     * Adds a week of recurring Events and the same number of individual Events each week of the schedule
+     *
+     * @param scheduleManager manager receiving the Events
+     * @param perWeek number of recurring (and individual) Events per week
+     * @param maxDays maximum number of Days to schedule
+     * @param random seeded source of randomness
+     */
+    static void addEvents(ScheduleManager scheduleManager, int perWeek, int maxDays, Random random) {
+        for (int i = 0; i < perWeek; i++) {
+            Event.DayOfWeek[] days = {Event.DayOfWeek.values()[i % 7]};
+            scheduleManager.addEvent("R" + i, Card.Colors.RED, randomTimeStamp(0, random), true, days);
+        }
+        for (int week = 0; week * 7 < maxDays; week++) {
+            for (int i = 0; i < perWeek; i++) {
+                int day = Math.min(maxDays - 1, week * 7 + random.nextInt(7));
+                scheduleManager.addEvent("I" + i, Card.Colors.BLUE, randomTimeStamp(day, random), false, null);
+            }
+        }
+    }
+
+    /**
+     * Creates a 30 to 120 minute TimeStamp starting at a quarter-hour between 8am and 6pm
+     *
+     * @param day number of days from today
+     * @param random seeded source of randomness
+     * @return TimeStamp for an Event
+     */
+    private static Time.TimeStamp randomTimeStamp(int day, Random random) {
+        Calendar start = Time.getFormattedCalendarInstance(day);
+        start.set(Calendar.HOUR_OF_DAY, 8 + random.nextInt(10));
+        start.set(Calendar.MINUTE, 15 * random.nextInt(4));
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.MINUTE, 30 + 15 * random.nextInt(7));
+        return new Time.TimeStamp(start, end);
+    }
+}
@@ -0,0 +1,188 @@
+package com.planner.io;
+
+import com.planner.io.EventRecordLog.Action;
+import com.planner.io.EventRecordLog.Entry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Offline queries over the binary event log, filtering its records by time range, action and Task and counting them
+ * (e.g. how many overflows happened this week)
+ *
+ * @author Andrew Roe
+ */
+public class EventQuery {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** Directory holding the segments of the log */
+    private final Path dir;
+    /** Earliest time in milliseconds (inclusive) */
+    private long from = Long.MIN_VALUE;
+    /** Latest time in milliseconds (exclusive) */
+    private long to = Long.MAX_VALUE;
+    /** Actions matched (every action if null) */
+    private Set<Action> actions;
+    /** ID of the Task matched (any record if negative) */
+    private int taskId = -1;
+    /** Time zone the days of the records are counted in */
+    private ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * Constructs a query over the log held in a directory
+     *
+     * @param dir directory holding the segments of the log
+     */
+    public EventQuery(Path dir) {
+        this.dir = dir;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public void setActions(Set<Action> actions) {
+        this.actions = actions == null || actions.isEmpty() ? null : EnumSet.copyOf(actions);
+    }
+
+    public void setTaskId(int taskId) {
+        this.taskId = taskId;
+    }
+
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Passes every record matching the query to a consumer, oldest first
+     *
+     * @param consumer receives the matching records
+     * @throws IOException if the log could not be read
+     */
+    public void forEach(Consumer<Entry> consumer) throws IOException {
+        EventRecordLog.scan(dir, from, to, entry -> {
+            if (actions != null && !actions.contains(entry.getAction())) return;
+            if (taskId >= 0 && entry.getTaskId() != taskId) return;
+            consumer.accept(entry);
+        });
+    }
+
+    /**
+     * Counts the records matching the query by action
+     *
+     * @return number of records of each action found
+     * @throws IOException if the log could not be read
+     */
+    public Map<Action, Integer> countByAction() throws IOException {
+        Map<Action, Integer> counts = new EnumMap<>(Action.class);
+        forEach(entry -> counts.merge(entry.getAction(), 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Counts the records matching the query by day and action
+     *
+     * @return number of records of each action found on each day, in order of day
+     * @throws IOException if the log could not be read
+     */
+    public SortedMap<LocalDate, Map<Action, Integer>> countByDay() throws IOException {
+        SortedMap<LocalDate, Map<Action, Integer>> counts = new TreeMap<>();
+        forEach(entry -> counts.computeIfAbsent(Instant.ofEpochMilli(entry.getTime()).atZone(zone).toLocalDate(),
+                day -> new EnumMap<>(Action.class)).merge(entry.getAction(), 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Queries the event log from the command line. Options are given as {@code --name=value}: dir (defaults to
+     * logs/events), from and to (days as yyyy-MM-dd, both inclusive), days (the last number of days, including
+     * today), action (comma separated), task (ID) and count (action or day). Matching records are listed unless
+     * they are counted.
+     *
+     * @param args command line options
+     * @throws IOException if the log could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get("logs", "events");
+        for (String arg : args) {
+            if (arg.startsWith("--dir=")) dir = Paths.get(arg.substring(6));
+        }
+        EventQuery query = new EventQuery(dir);
+        ZoneId zone = ZoneId.systemDefault();
+        String count = null;
+        for (String arg : args) {
+            int idx = arg.indexOf('=');
+            if (!arg.startsWith("--") || idx < 0) throw new IllegalArgumentException("Invalid option: " + arg);
+            String value = arg.substring(idx + 1);
+            switch (arg.substring(2, idx)) {
+                case "dir":
+                    break;
+                case "from":
+                    query.setFrom(startOfDay(LocalDate.parse(value), zone));
+                    break;
+                case "to":
+                    query.setTo(startOfDay(LocalDate.parse(value).plusDays(1), zone));
+                    break;
+                case "days":
+                    query.setFrom(startOfDay(LocalDate.now(zone).minusDays(Integer.parseInt(value) - 1), zone));
+                    break;
+                case "action":
+                    Set<Action> actions = EnumSet.noneOf(Action.class);
+                    for (String action : value.split(",")) {
+                        actions.add(Action.valueOf(action.trim().toUpperCase()));
+                    }
+                    query.setActions(actions);
+                    break;
+                case "task":
+                    query.setTaskId(Integer.parseInt(value));
+                    break;
+                case "count":
+                    if (!value.equals("action") && !value.equals("day")) {
+                        throw new IllegalArgumentException("Invalid count: " + value);
+                    }
+                    count = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+        }
+
+        if ("action".equals(count)) {
+            for (Map.Entry<Action, Integer> entry : query.countByAction().entrySet()) {
+                System.out.println(entry.getKey() + " " + entry.getValue());
+            }
+        } else if ("day".equals(count)) {
+            for (Map.Entry<LocalDate, Map<Action, Integer>> day : query.countByDay().entrySet()) {
+                for (Map.Entry<Action, Integer> entry : day.getValue().entrySet()) {
+                    System.out.println(day.getKey() + " " + entry.getKey() + " " + entry.getValue());
+                }
+            }
+        } else {
+            query.forEach(entry -> System.out.println(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getTime()), zone).format(TIME_FORMAT)
+                            + " " + entry.getAction() + " flag=" + entry.getFlag() + " id=" + entry.getId()
+                            + " ref=" + entry.getRef() + " value=" + entry.getValue()));
+        }
+    }
+
+    private static long startOfDay(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,343 @@
+package com.planner.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Segmented log of typed binary records, one for each action reported to the EventLog. Every record has the same
+ * size (a timestamp, the action, a flag, two IDs and a number), so a session costs a few bytes per action and the log
+ * can be queried offline without parsing text. Each session starts a new segment, a segment is closed once it is full,
+ * and only the newest segments are kept.
+ * <p>
+ * The log is written by a single thread (the EventLog writer) and is not safe for concurrent use.
+ *
+ * @author Andrew Roe
+ */
+public class EventRecordLog implements Closeable {
+
+    /** Marks the start of every segment */
+    private static final int MAGIC = 0x41455654;
+    /** Version of the segment format */
+    private static final short VERSION = 1;
+    /** Bytes in the header of a segment (magic, version, record size and creation time) */
+    static final int HEADER_SIZE = 16;
+    /** Bytes in a record */
+    static final int RECORD_SIZE = 28;
+    /** Number of records buffered before they are written */
+    private static final int BUFFER_RECORDS = 1024;
+
+    /**
+     * Actions held in the log. Records store the ordinal, so new actions are only ever added at the end.
+     */
+    public enum Action {
+        SESSION_START,
+        SESSION_END,
+        CONFIG_READ,
+        USER_CONFIG,
+        CONFIG_EDIT,
+        WEEK_EDIT,
+        TASK_ADD,
+        TASK_REMOVE,
+        TASK_EDIT,
+        TASK_ARCHIVE,
+        EVENT_ADD,
+        EVENT_REMOVE,
+        EVENT_EDIT,
+        CARD_CREATE,
+        CARD_ADD_TASK,
+        CARD_REMOVE_TASK,
+        CHECKLIST_CREATE,
+        CHECKLIST_REMOVE,
+        CHECKLIST_RESET,
+        ITEM_REMOVE,
+        ITEM_ADD,
+        ITEM_COMPLETE,
+        ITEM_INCOMPLETE,
+        ITEM_SHIFT,
+        DAY_ASSIGN,
+        DAY_OVERFLOW,
+        SCHEDULING_START,
+        SCHEDULING_FINISH,
+        DISPLAY_DAY,
+        DISPLAY_SCHEDULE,
+        ERROR,
+        TASKS_READ,
+        JBIN_READ,
+        JBIN_WRITE,
+        JBIN_CREATE,
+        JBIN_PROCESS,
+        SCRIPT_START,
+        SCRIPT_END,
+        EXCEL_RENAME,
+        EXCEL_CREATE,
+        EXCEL_EXPORT,
+        GOOGLE_AUTHORIZE,
+        GOOGLE_CLEAN,
+        GOOGLE_EXPORT,
+        GOOGLE_IMPORT,
+        MESSAGE
+    }
+
+    /** Directory holding the segments */
+    private final Path dir;
+    /** Size in bytes after which a segment is closed */
+    private final long maxSegmentSize;
+    /** Number of segments kept */
+    private final int maxSegments;
+    /** Number of the current segment */
+    private long segment;
+    /** Current segment */
+    private FileChannel channel;
+    /** Bytes written to the current segment */
+    private long segmentSize;
+    /** Records not yet written */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+
+    /**
+     * Opens the log held in a directory, starting a new segment after the ones already there
+     *
+     * @param dir directory holding the segments
+     * @param maxSegmentSize size in bytes after which a segment is closed
+     * @param maxSegments number of segments kept
+     * @throws IOException if the directory could not be created or listed
+     */
+    public EventRecordLog(Path dir, long maxSegmentSize, int maxSegments) throws IOException {
+        this.dir = dir;
+        this.maxSegmentSize = Math.max(maxSegmentSize, HEADER_SIZE + RECORD_SIZE);
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(dir);
+        for (Path file : segments(dir)) {
+            segment = Math.max(segment, parseSegment(file));
+        }
+        openSegment(System.currentTimeMillis());
+    }
+
+    /**
+     * Appends a record, which is written on the next flush (or once the buffer is full)
+     *
+     * @param time time of the action in milliseconds
+     * @param action action reported
+     * @param flag boolean attribute of the action
+     * @param id ID of the entity acted on
+     * @param ref ID of a second entity (or a count)
+     * @param value numeric attribute of the action
+     * @throws IOException if the records could not be written
+     */
+    public void append(long time, Action action, boolean flag, int id, int ref, double value) throws IOException {
+        if (!buffer.hasRemaining()) flush();
+        if (segmentSize + buffer.position() + RECORD_SIZE > maxSegmentSize) {
+            flush();
+            channel.close();
+            openSegment(time);
+        }
+        buffer.putLong(time);
+        buffer.put((byte) action.ordinal());
+        buffer.put((byte) (flag ? 1 : 0));
+        buffer.putShort((short) 0);
+        buffer.putInt(id);
+        buffer.putInt(ref);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes every buffered record to the current segment
+     *
+     * @throws IOException if the records could not be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        segmentSize += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes every buffered record and closes the current segment
+     *
+     * @throws IOException if the records could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the records of a log that fall within a time range, oldest first. A segment is skipped without being
+     * read when the next one was created before the range, and a record cut short at the end of a segment is ignored.
+     *
+     * @param dir directory holding the segments
+     * @param from earliest time in milliseconds (inclusive)
+     * @param to latest time in milliseconds (exclusive)
+     * @param consumer receives every record in the range
+     * @throws IOException if a segment could not be read
+     * @throws IllegalArgumentException if a file is not a segment of an event log
+     */
+    public static void scan(Path dir, long from, long to, Consumer<Entry> consumer) throws IOException {
+        List<Path> files = segments(dir);
+        files.sort((a, b) -> Long.compare(parseSegment(a), parseSegment(b)));
+        for (int i = 0; i < files.size(); i++) {
+            if (i + 1 < files.size() && createdAt(files.get(i + 1)) <= from) continue;
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(files.get(i)));
+            int recordSize = readHeader(data);
+            if (recordSize < RECORD_SIZE) throw new IllegalArgumentException("Invalid event log segment");
+            while (data.remaining() >= recordSize) {
+                int start = data.position();
+                long time = data.getLong();
+                int ordinal = data.get() & 0xFF;
+                boolean flag = data.get() != 0;
+                data.getShort();
+                int id = data.getInt();
+                int ref = data.getInt();
+                double value = data.getDouble();
+                data.position(start + recordSize);
+                if (time < from || time >= to || ordinal >= Action.values().length) continue;
+                consumer.accept(new Entry(time, Action.values()[ordinal], flag, id, ref, value));
+            }
+        }
+    }
+
+    private void openSegment(long time) throws IOException {
+        segment++;
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).putLong(time).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentSize = HEADER_SIZE;
+        Files.deleteIfExists(segmentPath(segment - maxSegments));
+    }
+
+    private Path segmentPath(long seg) {
+        return dir.resolve("events-" + seg + ".bin");
+    }
+
+    /**
+     * Checks the header of a segment
+     *
+     * @param data contents of the segment, positioned after the header once read
+     * @return size in bytes of each record in the segment
+     */
+    private static int readHeader(ByteBuffer data) {
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getShort() > VERSION) {
+            throw new IllegalArgumentException("Invalid event log segment");
+        }
+        int recordSize = data.getShort();
+        data.getLong();
+        return recordSize;
+    }
+
+    private static long createdAt(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // reads the whole header
+            }
+            header.flip();
+            readHeader(header);
+            return header.getLong(HEADER_SIZE - Long.BYTES);
+        }
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "events-*.bin")) {
+            for (Path file : stream) {
+                if (parseSegment(file) >= 0) files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static long parseSegment(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("events-".length(), name.length() - ".bin".length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Record read back from the log
+     */
+    public static final class Entry {
+
+        private final long time;
+        private final Action action;
+        private final boolean flag;
+        private final int id;
+        private final int ref;
+        private final double value;
+
+        Entry(long time, Action action, boolean flag, int id, int ref, double value) {
+            this.time = time;
+            this.action = action;
+            this.flag = flag;
+            this.id = id;
+            this.ref = ref;
+            this.value = value;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public boolean getFlag() {
+            return flag;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getRef() {
+            return ref;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * Gets the ID of the Task the record is about
+         *
+         * @return ID of the Task, or -1 if the record isn't about a Task
+         */
+        public int getTaskId() {
+            switch (action) {
+                case TASK_ADD:
+                case TASK_REMOVE:
+                case TASK_EDIT:
+                case TASK_ARCHIVE:
+                    return id;
+                case DAY_ASSIGN:
+                case DAY_OVERFLOW:
+                    return ref;
+                default:
+                    return -1;
+            }
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.planner.io;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 import com.planner.schedule.day.Day;
+import com.planner.util.MappedJBin;
 import com.planner.scripter.exception.InvalidGrammarException;
 
 /**
@@ -17,9 +20,6 @@ import com.planner.scripter.exception.InvalidGrammarException;
  */
 public class IOProcessing {
 
-    /** Maximum buffer size for input/output processing */
-    private static final int BUFFER_SIZE = 4096;
-
     /**
      * Outputs the current day in text format
      *
@@ -69,17 +69,40 @@ public class IOProcessing {
      * @param jBin JBin string
      */
     public static void writeJBinFile(String filename, String jBin) {
-        if(filename.length() < 5 || !".jbin".equals(filename.substring(filename.length() - 5))) {
-            throw new InvalidGrammarException("Expected .jbin file extension but was not");
-        }
+        writeJBinFile(filename, jBin.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes an encoded JBin (text or binary) to a file
+     *
+     * @param filename name of output file
+     * @param jBin encoded JBin
+     */
+    public static void writeJBinFile(String filename, byte[] jBin) {
+        checkJBinExtension(filename);
         try (OutputStream binaryWriter = new FileOutputStream(filename)) {
-            byte[] bytes = jBin.getBytes(StandardCharsets.UTF_8);
-            binaryWriter.write(bytes);
+            binaryWriter.write(jBin);
         } catch (IOException e) {
             //empty catch block
         }
     }
 
+    /**
+     * Opens a Java Binary Serialization file to be written to as the JBin is encoded
+     *
+     * @param filename name of output file
+     * @return channel to the file, or null if it could not be created
+     */
+    public static FileChannel openJBinChannel(String filename) {
+        checkJBinExtension(filename);
+        try {
+            return FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * Reads the Java Binary Serialization file
      *
@@ -87,52 +110,66 @@ public class IOProcessing {
      * @return JBin string
      */
     public static String readJBinFile(String filename) {
-        if(filename.length() < 5 || !".jbin".equals(filename.substring(filename.length() - 5))) {
-            throw new InvalidGrammarException("Expected .jbin file extension but was not");
-        }
-        StringBuilder sb = new StringBuilder();
-        try (FileInputStream binaryReader = new FileInputStream(filename)) {
-            byte[] bytes = new byte[BUFFER_SIZE];
-            int bytesRead = -1;
-            while((bytesRead = binaryReader.read(bytes)) != -1) {
-                appendBytesToString(sb, bytes, bytesRead);
-            }
+        byte[] data = readJBinData(filename);
+        return data == null ? null : new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the raw contents of a Java Binary Serialization file, which may be in the text or binary format
+     *
+     * @param filename name of saved system file
+     * @return contents of the file, or null if it could not be read
+     */
+    public static byte[] readJBinData(String filename) {
+        checkJBinExtension(filename);
+        try {
+            return Files.readAllBytes(Paths.get(filename));
         } catch (IOException e) {
             return null;
         }
-        return sb.toString();
     }
 
     /**
-     * Appends bytes to StringBuilder
+     * Opens a Java Binary Serialization file to be streamed rather than read all at once
      *
-     * @param sb StringBuilder being utilized
-     * @param bytes bytes array being processed
-     * @param bytesRead number of bytes available
+     * @param filename name of saved system file
+     * @return reader of the file, or null if it could not be opened
      */
-    private static void appendBytesToString(StringBuilder sb, byte[] bytes, int bytesRead) {
-        for(int i = 0; i < bytesRead; i++) {
-            sb.append((char) bytes[i]);
+    public static JBinReader openJBinFile(String filename) {
+        checkJBinExtension(filename);
+        try {
+            return new JBinReader(FileChannel.open(Paths.get(filename), StandardOpenOption.READ));
+        } catch (IOException e) {
+            return null;
         }
     }
 
-    public static void writeScripterLogToFile(String str) throws IOException {
-        // Define the path for the 'logs' directory
-        Path logsDirectory = Paths.get("logs");
-
-        // Create the 'logs' directory if it does not exist
-        if (!Files.exists(logsDirectory)) {
-            Files.createDirectories(logsDirectory);
+    /**
+     * Maps a binary Java Binary Serialization file into memory so its sections can be read in place
+     *
+     * @param filename name of saved system file
+     * @return indexed JBin, or null if the file could not be opened
+     */
+    public static MappedJBin mapJBinFile(String filename) {
+        checkJBinExtension(filename);
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("JBin file is too large to be mapped: " + filename);
+            }
+            // the mapping stays valid after the channel is closed
+            return new MappedJBin(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            return null;
         }
+    }
 
-        // Create a PrintStream to write to a file in the 'logs' directory
-        Path logFile = logsDirectory.resolve("scripter.log");
-        try (PrintStream outputStream = new PrintStream(logFile.toFile())) {
-            outputStream.print(str);
+    private static void checkJBinExtension(String filename) {
+        if(filename.length() < 5 || !".jbin".equals(filename.substring(filename.length() - 5))) {
+            throw new InvalidGrammarException("Expected .jbin file extension but was not");
         }
     }
 
-    public static void writeSysLogToFile(String str) throws IOException {
+    public static void writeScripterLogToFile(String str) throws IOException {
         // Define the path for the 'logs' directory
         Path logsDirectory = Paths.get("logs");
 
@@ -142,7 +179,7 @@ public class IOProcessing {
         }
 
         // Create a PrintStream to write to a file in the 'logs' directory
-        Path logFile = logsDirectory.resolve("system.log");
+        Path logFile = logsDirectory.resolve("scripter.log");
         try (PrintStream outputStream = new PrintStream(logFile.toFile())) {
             outputStream.print(str);
         }
@@ -0,0 +1,173 @@
+package com.planner.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a JBin file from a channel through a reusable buffer. Text files are decoded into lines as they are
+ * read, and binary files are handed out a section at a time, so the whole file is never held in memory at once.
+ *
+ * @author Andrew Roe
+ */
+public class JBinReader implements Closeable {
+
+    /** Size of the read buffer in bytes */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Channel the JBin is read from */
+    private final ReadableByteChannel channel;
+    /** Bytes read from the channel but not yet consumed */
+    private final ByteBuffer bytes;
+    /** Decoder for text files */
+    private final CharsetDecoder decoder;
+    /** Characters decoded but not yet consumed */
+    private final CharBuffer chars;
+    /** Line being assembled */
+    private final StringBuilder line = new StringBuilder();
+    /** Buffer for reads larger than the read buffer (reused between reads) */
+    private ByteBuffer large;
+    /** Whether the end of the channel was reached */
+    private boolean eof;
+    /** Whether the decoder was flushed after the end of the channel */
+    private boolean flushed;
+    /** Whether a line feed right after the current position ends an empty line */
+    private boolean skipLF;
+
+    /**
+     * Constructs a JBinReader over a channel
+     *
+     * @param channel channel the JBin is read from
+     */
+    public JBinReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        this.bytes.flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(BUFFER_SIZE);
+        this.chars.flip();
+    }
+
+    /**
+     * Determines whether the next bytes of the channel start with the given prefix, without consuming them
+     *
+     * @param prefix bytes being looked for
+     * @return boolean value for whether the prefix is next
+     * @throws IOException if the channel could not be read
+     */
+    public boolean startsWith(byte[] prefix) throws IOException {
+        while (bytes.remaining() < prefix.length && !eof) fill();
+        if (bytes.remaining() < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(bytes.position() + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next bytes of the channel. The buffer returned is only valid until the next read.
+     *
+     * @param length number of bytes to read
+     * @return buffer holding exactly the bytes read
+     * @throws IOException if the channel could not be read or ended first
+     */
+    public ByteBuffer readBytes(int length) throws IOException {
+        if (length < 0) throw new IllegalArgumentException("Invalid length for read");
+        if (length <= bytes.capacity()) {
+            while (bytes.remaining() < length && !eof) fill();
+            if (bytes.remaining() < length) throw new EOFException("JBin ended unexpectedly");
+            ByteBuffer slice = bytes.slice();
+            slice.limit(length);
+            bytes.position(bytes.position() + length);
+            return slice;
+        }
+
+        if (large == null || large.capacity() < length) large = ByteBuffer.allocate(length);
+        large.clear();
+        large.limit(length);
+        large.put(bytes);
+        while (large.hasRemaining()) {
+            if (channel.read(large) < 0) throw new EOFException("JBin ended unexpectedly");
+        }
+        large.flip();
+        return large;
+    }
+
+    /**
+     * Reads the next line of text, ended by a line feed, a carriage return, or both
+     *
+     * @return line without its terminator, or null if the end of the channel was reached
+     * @throws IOException if the channel could not be read
+     */
+    public String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (skipLF) {
+                    skipLF = false;
+                    if (c == '\n') continue;
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLF = c == '\r';
+                    return line.toString();
+                }
+                line.append(c);
+            }
+            if (!decode()) return line.length() > 0 ? line.toString() : null;
+        }
+    }
+
+    /**
+     * Decodes more characters from the channel
+     *
+     * @return boolean value for whether any characters were decoded
+     * @throws IOException if the channel could not be read
+     */
+    private boolean decode() throws IOException {
+        chars.clear();
+        while (true) {
+            if (!flushed) {
+                CoderResult result = decoder.decode(bytes, chars, eof);
+                if (result.isError()) result.throwException();
+                if (eof) {
+                    decoder.flush(chars);
+                    flushed = true;
+                }
+            }
+            if (chars.position() > 0 || flushed) {
+                chars.flip();
+                return chars.hasRemaining();
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Reads from the channel into the unused part of the read buffer
+     *
+     * @throws IOException if the channel could not be read
+     */
+    private void fill() throws IOException {
+        bytes.compact();
+        try {
+            if (channel.read(bytes) < 0) eof = true;
+        } finally {
+            bytes.flip();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.planner.io;
+
+import com.planner.util.Metrics;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes a metrics registry as an MBean (com.planner:type=Metrics) and, when given a port, as Prometheus text at
+ * {@code http://localhost:<port>/metrics}. Counters and gauges become attributes of the same name, while each
+ * histogram becomes attributes for its count and its 0.5, 0.99 and maximum durations in seconds.
+ *
+ * @author Andrew Roe
+ */
+public class MetricsExporter implements DynamicMBean, Closeable {
+
+    /** Name the MBean is registered under */
+    public static final String OBJECT_NAME = "com.planner:type=Metrics";
+    /** Attribute suffixes of a histogram */
+    private static final String[] HISTOGRAM_ATTRIBUTES = {"_count", "_p50_seconds", "_p99_seconds", "_max_seconds"};
+
+    /** Registry being exported */
+    private final Metrics metrics;
+    /** Server of the Prometheus text (null unless a port was given) */
+    private HttpServer server;
+
+    /**
+     * Exports a metrics registry, registering it with the platform MBean server
+     *
+     * @param metrics registry being exported
+     * @param port local port the Prometheus text is served on (0 to not serve it)
+     * @throws IllegalArgumentException if the MBean could not be registered or the port could not be bound
+     */
+    public MetricsExporter(Metrics metrics, int port) {
+        this.metrics = metrics;
+        MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                mbeans.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // a previous exporter of this process is replaced
+                mbeans.unregisterMBean(name);
+                mbeans.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Could not register metrics MBean", e);
+        }
+        if (port > 0) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not serve metrics on port " + port, e);
+            }
+            server.createContext("/metrics", exchange -> {
+                StringBuilder sb = new StringBuilder();
+                metrics.writePrometheus(sb);
+                byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+    }
+
+    /**
+     * Gets the port the Prometheus text is served on
+     *
+     * @return bound port, or 0 if the text isn't served
+     */
+    public int getPort() {
+        return server == null ? 0 : server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving the Prometheus text and unregisters the MBean
+     */
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // already unregistered
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (Metrics.Metric metric : metrics.getAll()) {
+            String name = metric.getName();
+            if (metric instanceof Metrics.Counter && attribute.equals(name)) {
+                return ((Metrics.Counter) metric).get();
+            } else if (metric instanceof Metrics.Gauge && attribute.equals(name)) {
+                return ((Metrics.Gauge) metric).get();
+            } else if (metric instanceof Metrics.Histogram && attribute.startsWith(name)) {
+                Metrics.Histogram histogram = (Metrics.Histogram) metric;
+                switch (attribute.substring(name.length())) {
+                    case "_count":
+                        return histogram.getCount();
+                    case "_p50_seconds":
+                        return histogram.getPercentile(0.5) / 1e9;
+                    case "_p99_seconds":
+                        return histogram.getPercentile(0.99) / 1e9;
+                    case "_max_seconds":
+                        return histogram.getMax() / 1e9;
+                    default:
+                        break;
+                }
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // left out, as the interface asks
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("Metrics have no operations");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Metrics.Metric metric : metrics.getAll()) {
+            if (metric instanceof Metrics.Histogram) {
+                for (String suffix : HISTOGRAM_ATTRIBUTES) {
+                    String type = suffix.equals("_count") ? "long" : "double";
+                    attributes.add(new MBeanAttributeInfo(metric.getName() + suffix, type, metric.getHelp(),
+                            true, false, false));
+                }
+            } else {
+                attributes.add(new MBeanAttributeInfo(metric.getName(), "long", metric.getHelp(),
+                        true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Agile Planner metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+}
@@ -0,0 +1,463 @@
+package com.planner.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the changes made to a schedule since its last snapshot. Each generation of the journal is a
+ * snapshot (a binary JBin) together with the log of changes made after it, so recovering is a matter of loading the
+ * newest snapshot and replaying its log. A change is only reported as appended once an fsync covers it. Changes are
+ * committed in groups: while one fsync is under way, the records appended by other threads are buffered and the next
+ * fsync covers all of them. Compacting starts a new generation before the old one is deleted so that a crash at any
+ * point leaves one complete generation behind.
+ *
+ * @author Andrew Roe
+ */
+public class MutationJournal implements Closeable {
+
+    /** Bytes framing each record (length and checksum) */
+    private static final int FRAME_SIZE = 8;
+
+    /**
+     * Kinds of change held in the journal
+     */
+    public enum Op {
+        /** IDs of the Tasks in the snapshot, in the order they were written */
+        BASE,
+        ADD_TASK,
+        INSERT_TASK,
+        REMOVE_TASK,
+        MOVE_TASK,
+        ADD_CARD,
+        ADD_EVENT,
+        CREATE_CHECKLIST,
+        REMOVE_CHECKLIST,
+        ADD_ITEM,
+        REMOVE_ITEM,
+        SHIFT_ITEM,
+        MARK_ITEM,
+        RESET_CHECKLIST
+    }
+
+    /**
+     * Writes the state the journal is compacted into
+     */
+    public interface SnapshotWriter {
+        void write(SeekableByteChannel channel) throws IOException;
+    }
+
+    /** Directory holding every generation */
+    private final Path dir;
+    /** Current generation */
+    private long generation;
+    /** Log of the current generation (null until recovered) */
+    private FileChannel channel;
+    /** Guards the channel, which is written by whichever thread commits a group */
+    private final Object channelLock = new Object();
+    /** Records appended but not yet committed */
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    /** Number of records ever appended */
+    private long appended;
+    /** Number of the appended records an fsync has covered */
+    private long committed;
+    /** Whether a group is being written, in which case other appends wait for it before writing the next group */
+    private boolean committing;
+    /** Number of records in the current generation */
+    private int recordCount;
+    /** Failure of an earlier commit, thrown on every append after it */
+    private IOException failure;
+
+    /**
+     * Opens the journal held in a directory, picking the newest generation with a complete snapshot
+     *
+     * @param dir directory holding the journal
+     * @throws IOException if the directory could not be created or listed
+     */
+    public MutationJournal(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "snapshot-*.jbin")) {
+            for (Path file : files) {
+                long gen = parseGeneration(file, "snapshot-", ".jbin");
+                if (gen > generation) generation = gen;
+            }
+        }
+    }
+
+    /**
+     * Gets the snapshot of the current generation
+     *
+     * @return path of the snapshot, or null if no snapshot was ever taken
+     */
+    public Path getSnapshot() {
+        Path snapshot = snapshotPath(generation);
+        return Files.exists(snapshot) ? snapshot : null;
+    }
+
+    /**
+     * Gets the number of records appended since the last snapshot
+     *
+     * @return number of records in the current generation
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Reads the log of the current generation and opens it for appending. A record cut short by a crash (or failing
+     * its checksum) ends the log and is truncated away, and files left from other generations are deleted.
+     *
+     * @return records to be replayed on top of the snapshot
+     * @throws IOException if the log could not be read or opened
+     */
+    public List<Entry> recover() throws IOException {
+        Path log = logPath(generation);
+        List<Entry> entries = new ArrayList<>();
+        channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+        while (data.hasRemaining() && channel.read(data) >= 0) {
+            // reads the whole log
+        }
+        data.flip();
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= FRAME_SIZE) {
+            int start = data.position();
+            int length = data.getInt();
+            // compared this way round, so that a torn length near Integer.MAX_VALUE can't overflow
+            if (length <= 0 || length > data.remaining() - 4) break;
+            ByteBuffer body = data.slice();
+            body.limit(length);
+            crc.reset();
+            crc.update(body.duplicate());
+            data.position(data.position() + length);
+            if ((int) crc.getValue() != data.getInt()) {
+                data.position(start);
+                break;
+            }
+            try {
+                entries.add(Entry.decode(body));
+            } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                data.position(start);
+                break;
+            }
+        }
+        channel.truncate(data.position());
+        channel.position(data.position());
+        recordCount = entries.size();
+        deleteOtherGenerations();
+        return entries;
+    }
+
+    /**
+     * Appends a record, returning once the fsync of its group has finished
+     *
+     * @param op kind of change
+     * @param values values of the change, each an Integer, Long, Double, Boolean, String or int[]
+     * @throws IOException if the record (or an earlier one) could not be committed
+     */
+    public void append(Op op, Object... values) throws IOException {
+        byte[] record = encode(op, values);
+        long seq;
+        synchronized (this) {
+            if (failure != null) throw failure;
+            pending.write(record, 0, record.length);
+            recordCount++;
+            seq = ++appended;
+        }
+        awaitCommit(seq);
+    }
+
+    /**
+     * Writes and forces every buffered record to the log
+     *
+     * @throws IOException if the log could not be written
+     */
+    public void commit() throws IOException {
+        long seq;
+        synchronized (this) {
+            seq = appended;
+        }
+        awaitCommit(seq);
+    }
+
+    /**
+     * Waits until an fsync covers the given record. If no group is being written, the caller writes every record
+     * buffered so far as the next group, and the appends that wait meanwhile are covered by the group after it.
+     *
+     * @param seq number of the record (counted from 1)
+     * @throws IOException if the group holding the record could not be committed
+     */
+    private void awaitCommit(long seq) throws IOException {
+        ByteBuffer group;
+        long last;
+        synchronized (this) {
+            while (committing && committed < seq) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while committing the journal");
+                }
+            }
+            if (committed >= seq) return;
+            if (failure != null) throw failure;
+            committing = true;
+            group = ByteBuffer.wrap(pending.toByteArray());
+            pending.reset();
+            last = appended;
+        }
+        IOException error = null;
+        try {
+            synchronized (channelLock) {
+                while (group.hasRemaining()) {
+                    channel.write(group);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            committing = false;
+            if (error == null) committed = last;
+            else failure = error;
+            notifyAll();
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Starts a new generation from a snapshot of the current state, then deletes the old generation. The new log is
+     * created before the snapshot is renamed into place, so a crash part way through recovers from the old generation.
+     *
+     * @param snapshot writes the current state as a binary JBin
+     * @param taskIds IDs of the Tasks in the order the snapshot writes them
+     * @throws IOException if the new generation could not be written
+     */
+    public void compact(SnapshotWriter snapshot, int[] taskIds) throws IOException {
+        commit();
+        long next = generation + 1;
+        FileChannel nextChannel = FileChannel.open(logPath(next), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer base = ByteBuffer.wrap(encode(Op.BASE, taskIds));
+            while (base.hasRemaining()) {
+                nextChannel.write(base);
+            }
+            nextChannel.force(false);
+
+            Path tmp = dir.resolve("snapshot-" + next + ".jbin.tmp");
+            try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                snapshot.write(file);
+                file.force(true);
+            }
+            Files.move(tmp, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            nextChannel.close();
+            throw e;
+        }
+
+        synchronized (channelLock) {
+            channel.close();
+            channel = nextChannel;
+            generation = next;
+            recordCount = 1;
+        }
+        deleteOtherGenerations();
+    }
+
+    /**
+     * Commits every buffered record and closes the log
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void deleteOtherGenerations() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean current = name.equals(logPath(generation).getFileName().toString())
+                        || name.equals(snapshotPath(generation).getFileName().toString());
+                if (!current && (name.startsWith("snapshot-") || name.startsWith("journal-"))) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private Path logPath(long gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+
+    private Path snapshotPath(long gen) {
+        return dir.resolve("snapshot-" + gen + ".jbin");
+    }
+
+    private static long parseGeneration(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Encodes a record framed by its length and CRC-32
+     */
+    static byte[] encode(Op op, Object... values) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        try {
+            out.writeByte(op.ordinal());
+            out.writeByte(values.length);
+            for (Object value : values) {
+                if (value instanceof Integer) {
+                    out.writeByte('I');
+                    out.writeInt((Integer) value);
+                } else if (value instanceof Long) {
+                    out.writeByte('J');
+                    out.writeLong((Long) value);
+                } else if (value instanceof Double) {
+                    out.writeByte('D');
+                    out.writeDouble((Double) value);
+                } else if (value instanceof Boolean) {
+                    out.writeByte('Z');
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof String) {
+                    byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte('S');
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                } else if (value instanceof int[]) {
+                    int[] ints = (int[]) value;
+                    out.writeByte('A');
+                    out.writeInt(ints.length);
+                    for (int i : ints) {
+                        out.writeInt(i);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Journal values cannot be of type " + value.getClass());
+                }
+            }
+        } catch (IOException e) {
+            // never thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        ByteBuffer record = ByteBuffer.allocate(body.size() + FRAME_SIZE);
+        record.putInt(body.size());
+        record.put(body.toByteArray());
+        record.putInt((int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Record read back from the journal
+     */
+    public static final class Entry {
+
+        private final Op op;
+        private final Object[] values;
+
+        private Entry(Op op, Object[] values) {
+            this.op = op;
+            this.values = values;
+        }
+
+        private static Entry decode(ByteBuffer body) {
+            int ordinal = body.get();
+            if (ordinal < 0 || ordinal >= Op.values().length) {
+                throw new IllegalArgumentException("Unknown journal record");
+            }
+            Object[] values = new Object[body.get()];
+            for (int i = 0; i < values.length; i++) {
+                switch (body.get()) {
+                    case 'I':
+                        values[i] = body.getInt();
+                        break;
+                    case 'J':
+                        values[i] = body.getLong();
+                        break;
+                    case 'D':
+                        values[i] = body.getDouble();
+                        break;
+                    case 'Z':
+                        values[i] = body.get() != 0;
+                        break;
+                    case 'S':
+                        byte[] bytes = new byte[body.getInt()];
+                        body.get(bytes);
+                        values[i] = new String(bytes, StandardCharsets.UTF_8);
+                        break;
+                    case 'A':
+                        int[] ints = new int[body.getInt()];
+                        for (int j = 0; j < ints.length; j++) {
+                            ints[j] = body.getInt();
+                        }
+                        values[i] = ints;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown journal value");
+                }
+            }
+            return new Entry(Op.values()[ordinal], values);
+        }
+
+        public Op getOp() {
+            return op;
+        }
+
+        public int getInt(int idx) {
+            return (Integer) values[idx];
+        }
+
+        public long getLong(int idx) {
+            return (Long) values[idx];
+        }
+
+        public double getDouble(int idx) {
+            return (Double) values[idx];
+        }
+
+        public boolean getBoolean(int idx) {
+            return (Boolean) values[idx];
+        }
+
+        public String getString(int idx) {
+            return (String) values[idx];
+        }
+
+        public int[] getInts(int idx) {
+            return (int[]) values[idx];
+        }
+    }
+}
@@ -3,20 +3,38 @@ package com.planner.manager;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.planner.io.SpreadsheetIO;
 import com.planner.models.*;
 import com.planner.io.GoogleCalendarIO;
 import com.planner.io.IOProcessing;
+import com.planner.io.JBinReader;
+import com.planner.io.MetricsExporter;
+import com.planner.io.MutationJournal;
+import com.planner.schedule.CalendarQueue;
+import com.planner.schedule.Checkpoint;
+import com.planner.schedule.CheckpointRing;
 import com.planner.schedule.Scheduler;
+import com.planner.schedule.TaskQueue;
 import com.planner.schedule.day.Day;
+import com.planner.schedule.day.EventTemplate;
 import com.planner.ui.tables.TableFormatter;
+import com.planner.util.BinaryJBin;
 import com.planner.util.EventLog;
+import com.planner.util.ImportIndex;
 import com.planner.util.JBin;
+import com.planner.util.Metrics;
+import com.planner.util.ParallelJBin;
+import com.planner.util.SavedSchedule;
 import com.planner.util.JsonHandler;
 import com.planner.util.Time;
 
@@ -28,16 +46,23 @@ import com.planner.util.Time;
  */
 public class ScheduleManager {
 
+    /** Maximum number of scheduling checkpoints kept for rebuilds */
+    private static final int CHECKPOINT_CAPACITY = 16;
+    /** Directory holding the journal of changes and its snapshots */
+    private static final String JOURNAL_DIR = "data/journal";
+
     /** List of Cards holding Tasks */
     private List<Card> cards;
     /** LinkedList of Days representing a single schedule */
     private List<Day> schedule;
     /** PriorityQueue of all archived Tasks in sorted order */
     private PriorityQueue<Task> archivedTasks;
-    /** PriorityQueue of all Tasks in sorted order */
-    private PriorityQueue<Task> taskManager;
+    /** Indexed heap of all Tasks in sorted order */
+    private TaskQueue taskManager;
     /** Mapping of all Tasks via their unique IDs */
     private Map<Integer, Task> taskMap;
+    /** Content-hash index of imported Tasks and of Cards, used to deduplicate imports */
+    private ImportIndex importIndex;
     /** Singleton for ScheduleManager */
     private static ScheduleManager singleton;
     /** Performs all scheduling operations for each day */
@@ -46,6 +71,26 @@ public class ScheduleManager {
     private static UserConfig userConfig;
     /** Logs all actions performed by user */
     private static EventLog eventLog;
+    /** Timings, counts and sizes of the planner */
+    private final Metrics metrics = Metrics.getMetrics();
+    private final Metrics.Histogram buildTime = metrics.histogram("schedule_build",
+            "Time taken to build or update the schedule");
+    private final Metrics.Histogram assignDayTime = metrics.histogram("scheduler_assign_day",
+            "Time taken by the Scheduler to fill a Day");
+    private final Metrics.Histogram importTime = metrics.histogram("jbin_import",
+            "Time taken to read a JBin file");
+    private final Metrics.Histogram excelExportTime = metrics.histogram("excel_export",
+            "Time taken to export the schedule to Excel");
+    private final Metrics.Histogram googleExportTime = metrics.histogram("google_export",
+            "Time taken to export the schedule to Google Calendar");
+    private final Metrics.Counter rebuilds = metrics.counter("schedule_rebuilds",
+            "Schedules built from the first Day");
+    private final Metrics.Counter resumes = metrics.counter("schedule_resumes",
+            "Schedules rebuilt from a checkpoint");
+    private final Metrics.Counter restores = metrics.counter("schedule_restores",
+            "Schedules restored from a JBin file without being built");
+    /** Exposes the metrics over JMX (and Prometheus text when a port is set) */
+    private MetricsExporter metricsExporter;
     /** Stores custom hours for future days */
     private Map<Integer, Integer> customHours;
     /** Total count for the number of errors that occurred in schedule generation */
@@ -64,26 +109,48 @@ public class ScheduleManager {
     private final GoogleCalendarIO googleCalendarIO;
     private SpreadsheetIO spreadsheetIO;
     private Calendar scheduleTime;
-    private List<Event> indivEvents;
+    /** Individual Events indexed by the epoch day they take place on, in order of their start time */
+    private NavigableMap<Long, List<Event>> indivEvents;
     private List<List<Event>> recurringEvents;
+    /** Recurring Events of each day of the week compiled for Day construction (null until needed) */
+    private EventTemplate[] eventTemplates;
     private int eventId;
+    /** Latest due day polled by the Scheduler for each Day of the schedule */
+    private List<Long> dayHorizons;
+    /** Scheduling state taken at Day boundaries so that rebuilds can resume from them */
+    private CheckpointRing checkpoints;
+    /** Schedule still being built one Day at a time (null once finished) */
+    private PendingSchedule pending;
+    /** Number of times scheduling was started or stopped (invalidates schedule Iterators) */
+    private int modCount;
+    /** Index of the earliest Day affected by changes since the schedule was built (0 forces a full rebuild) */
+    private int dirtyDay;
+    /** Journal every change is appended to (null if journaling is disabled or while replaying) */
+    private MutationJournal journal;
 
     /**
      * Private constructor of ScheduleManager
      * Initially performs task processing as well as schedule generation
      */
     private ScheduleManager() {
-        try {
-            eventLog = EventLog.getEventLog();
-        } catch (FileNotFoundException e) {
-            throw new IllegalArgumentException("Could not locate logging file");
-        }
+        this(openEventLog(), true);
+    }
+
+    /**
+     * Constructs a ScheduleManager logging to the given EventLog, optionally without authorizing with Google
+     * Calendar (tests run without credentials, and log to a directory of their own)
+     *
+     * @param log EventLog every action is reported to
+     * @param connectGoogle whether to authorize with Google Calendar
+     */
+    ScheduleManager(EventLog log, boolean connectGoogle) {
+        eventLog = log;
         eventLog.reportUserLogin();
         processUserConfigFile();
 
-        taskManager = new PriorityQueue<>();
+        taskManager = new TaskQueue();
         try {
-            googleCalendarIO = new GoogleCalendarIO(eventLog);
+            googleCalendarIO = connectGoogle ? new GoogleCalendarIO(eventLog) : null;
             spreadsheetIO = new SpreadsheetIO(eventLog);
         }
         catch (GeneralSecurityException | IOException e) {
@@ -99,21 +166,55 @@ public class ScheduleManager {
         taskMap = new HashMap<>();
         cards = new ArrayList<>();
         cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        importIndex = new ImportIndex();
+        importIndex.addCard(cards.get(0));
         archivedTasks = new PriorityQueue<>();
-        indivEvents = new ArrayList<>();
+        indivEvents = new TreeMap<>();
 
         // Gotta initialize all the lists lol
         recurringEvents = new ArrayList<>(7);
         for (int i = 0; i < 7; i++)
             recurringEvents.add(new ArrayList<>());
+        eventTemplates = new EventTemplate[7];
 
         eventId = 0;
+        dayHorizons = new ArrayList<>();
+        checkpoints = new CheckpointRing(CHECKPOINT_CAPACITY);
+        dirtyDay = 0;
+
+        registerGauges();
+        try {
+            metricsExporter = new MetricsExporter(metrics, userConfig.getMetricsPort());
+        } catch (IllegalArgumentException e) {
+            // the planner runs just the same without its metrics exported
+            eventLog.reportException(e);
+        }
 
         //processSettingsCfg(filename);
         //processJBinFile("data/week.jbin");
 
     }
 
+    private static EventLog openEventLog() {
+        try {
+            return EventLog.getEventLog();
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("Could not locate logging file");
+        }
+    }
+
+    /**
+     * Registers the gauges reading the number of Tasks, Events and Days
+     */
+    private void registerGauges() {
+        // imported Tasks only go into the heap, so it is the one place every Task is counted
+        metrics.gauge("tasks", "Tasks in the system", () -> taskManager.size());
+        metrics.gauge("archived_tasks", "Archived Tasks", () -> archivedTasks.size());
+        // Events are never removed, so the next ID is their number
+        metrics.gauge("events", "Events in the system", () -> eventId);
+        metrics.gauge("days", "Days in the schedule", () -> schedule.size());
+    }
+
     /**
      * Gets a singleton of ScheduleManager
      *
@@ -122,6 +223,8 @@ public class ScheduleManager {
     public static ScheduleManager getScheduleManager() {
         if(singleton == null) {
             singleton = new ScheduleManager();
+            // only the singleton owns the journal on disk, so other instances (as in tests) never recover it
+            singleton.recoverJournal();
         }
         return singleton;
     }
@@ -134,6 +237,7 @@ public class ScheduleManager {
             eventLog.reportProcessConfig("profile.cfg");
             String configStr = Files.readString(Paths.get("settings/profile.cfg"));
             userConfig = JsonHandler.readUserConfig(configStr);
+            eventLog.configure(userConfig);
             eventLog.reportUserConfigAttr(userConfig);
         } catch (FileNotFoundException e) {
             eventLog.reportException(e);
@@ -150,69 +254,211 @@ public class ScheduleManager {
      * @param filename jbin filename
      */
     public void importJBinFile(String filename) {
-        String binStr = IOProcessing.readJBinFile(filename);
-        if(binStr != null) {
+        List<Event> eventList = new ArrayList<>();
+        // the import is read on its own and then merged, so that what is already in the system isn't duplicated
+        Queue<Task> importedTasks = new ArrayDeque<>();
+        List<Card> importedCards = new ArrayList<>();
+        importedCards.add(new Card(0, cards.get(0).getTitle(), cards.get(0).getColorId()));
+        SavedSchedule savedSchedule = null;
+        // a saved schedule only covers its own Tasks, so it is kept only when nothing was loaded before it
+        boolean restorable = taskManager.isEmpty() && schedule.isEmpty();
+        long start = System.nanoTime();
+        if(userConfig.isParallelImport()) {
+            // the whole file is needed up front to split its lines across the pool
+            byte[] data = IOProcessing.readJBinData(filename);
+            if(data == null) return;
+            invalidateSchedule();
             eventLog.reportReadJBinFile(filename);
-            List<Event> eventList = new ArrayList<>();
-            JBin.processJBin(binStr, taskManager, eventList, eventId, cards, schedule, userConfig.getArchiveDays());
-            eventLog.reportProcessJBin();
-
-            Calendar currDate = Time.getFormattedCalendarInstance(0);
-            while (!taskManager.isEmpty()) {
-                Task task = taskManager.remove();
-                if (task.getDueDate().compareTo(currDate) < 0) {
-                    archivedTasks.add(task);
-                    // eventlog needs to report the archiving of a task
-                    eventLog.reportTaskAction(task, 3);
-                }
-                else {
-                    taskManager.add(task);
-                    break;
-                }
+            if(BinaryJBin.isBinary(data)) {
+                savedSchedule = BinaryJBin.processJBin(data, importedTasks, eventList, eventId, importedCards,
+                        schedule, userConfig.getArchiveDays());
+            } else {
+                ParallelJBin.processJBin(new String(data, StandardCharsets.UTF_8), importedTasks, eventList,
+                        eventId, importedCards, schedule, userConfig.getArchiveDays());
             }
-            taskId = taskManager.size();
+        } else {
+            JBinReader reader = IOProcessing.openJBinFile(filename);
+            if(reader == null) return;
+            invalidateSchedule();
+            eventLog.reportReadJBinFile(filename);
+            try (JBinReader jbinReader = reader) {
+                savedSchedule = JBin.processJBin(jbinReader, importedTasks, eventList, eventId, importedCards,
+                        schedule, userConfig.getArchiveDays());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to read JBin file: " + filename, e);
+            }
+        }
+        importTime.recordSince(start);
+        eventLog.reportProcessJBin();
+        mergeImport(importedTasks, importedCards, eventList);
 
-            for (Event e : eventList) {
-                if (e.isRecurring()) {
-                    for (Event.DayOfWeek dayOfWeek : e.getDays()) {
-                        recurringEvents.get(dayOfWeek.ordinal()).add(e);
+        Calendar currDate = Time.getFormattedCalendarInstance(0);
+        while (!taskManager.isEmpty()) {
+            Task task = taskManager.remove();
+            if (task.getDueDate().compareTo(currDate) < 0) {
+                archivedTasks.add(task);
+                // eventlog needs to report the archiving of a task
+                eventLog.reportTaskAction(task, 3);
+            }
+            else {
+                taskManager.add(task);
+                break;
+            }
+        }
+
+        if (!eventList.isEmpty()) eventId = eventList.get(eventList.size() - 1).getId() + 1;
+        if (restorable && savedSchedule != null && savedSchedule.isCurrent(userConfig)) {
+            restoreSchedule(savedSchedule);
+        }
+        // an import replaces too much to be journaled, so it is snapshotted instead
+        if (journal != null) compactJournal();
+    }
+
+    /**
+     * Merges the Tasks, Cards and Events of an import into the system. Tasks, Cards and Events that were already
+     * imported are reused, and a Card only gains the Tasks it doesn't already hold.
+     *
+     * @param importedTasks Tasks of the import
+     * @param importedCards Cards of the import (the first stands in for the default Card)
+     * @param importedEvents Events of the import
+     */
+    private void mergeImport(Collection<Task> importedTasks, List<Card> importedCards, List<Event> importedEvents) {
+        Map<Task, Task> resolved = importIndex.addTasks(importedTasks);
+        for (Task t : importedTasks) {
+            if (resolved.get(t) != t) continue;
+            // a Task is numbered by its place in the file, so it is given the next free ID the journal can refer to
+            t.setId(taskId++);
+            taskMap.put(t.getId(), t);
+            taskManager.add(t);
+        }
+        for (Card c : importedCards) {
+            Card card = importIndex.getCard(c.getTitle(), c.getColorId());
+            if (card == null) {
+                card = new Card(cards.size(), c.getTitle(), c.getColorId());
+                cards.add(card);
+                importIndex.addCard(card);
+            }
+            Set<Task> held = null;
+            for (Task t : c.getTask()) {
+                Task task = resolved.getOrDefault(t, t);
+                if (task != t) {
+                    // only a Task from an earlier import can already be on the Card
+                    if (held == null) {
+                        held = Collections.newSetFromMap(new IdentityHashMap<>());
+                        held.addAll(card.getTask());
                     }
-                } else indivEvents.add(e);
+                    if (!held.add(task)) continue;
+                }
+                card.addTask(task);
             }
-            eventId = eventList.get(eventList.size() - 1).getId() + 1;
+        }
+        for (Event e : importIndex.addEvents(importedEvents)) {
+            if (e.isRecurring()) {
+                for (Event.DayOfWeek dayOfWeek : e.getDays()) {
+                    recurringEvents.get(dayOfWeek.ordinal()).add(e);
+                    eventTemplates[dayOfWeek.ordinal()] = null;
+                }
+            } else addIndivEvent(e);
         }
     }
 
     public void exportJBinFile(String filename, List<Card> cards2) {
-        eventLog.reportCreateJBin();
         List<Card> cardSet = new ArrayList<>(cards);
         cardSet.addAll(cards2);
-        IOProcessing.writeJBinFile(filename, JBin.createJBin(cardSet));
-        eventLog.reportWriteJBinFile(filename);
+        writeJBinFile(filename, cardSet);
     }
 
     public void exportJBinFile(String filename) {
+        writeJBinFile(filename, cards);
+    }
+
+    /**
+     * Encodes the Cards (and the schedule) straight into a binary JBin file
+     *
+     * @param filename jbin filename
+     * @param cardSet Cards being exported
+     */
+    private void writeJBinFile(String filename, List<Card> cardSet) {
         eventLog.reportCreateJBin();
-        IOProcessing.writeJBinFile(filename, JBin.createJBin(cards));
+        FileChannel channel = IOProcessing.openJBinChannel(filename);
+        if (channel == null) return;
+        try (FileChannel jbinChannel = channel) {
+            BinaryJBin.writeJBin(cardSet, getEvents(), schedule, getSavedSchedule(), jbinChannel,
+                    userConfig.isCompressJBin());
+        } catch (IOException e) {
+            // same as a file which could not be created
+            return;
+        }
         eventLog.reportWriteJBinFile(filename);
     }
 
     public void setScheduleOption(int idx) {
         scheduler = Scheduler.getInstance(userConfig, eventLog, idx);
+        invalidateSchedule();
     }
 
     public List<Card> getCards() {
         return cards;
     }
 
+    /**
+     * Gets all individual Events in order of their start time
+     *
+     * @return list of individual Events
+     */
     public List<Event> getIndivEvents() {
-        return indivEvents;
+        List<Event> events = new ArrayList<>();
+        for (List<Event> dayEvents : indivEvents.values()) {
+            events.addAll(dayEvents);
+        }
+        return events;
+    }
+
+    /**
+     * Adds an individual Event to the index (O(log n) lookup of its day), keeping the Events of its day in order of their start time
+     *
+     * @param e individual Event being added
+     */
+    private void addIndivEvent(Event e) {
+        List<Event> dayEvents = indivEvents.computeIfAbsent(Time.getEpochDay(e.getTimeStamp().getStartMinute()),
+                day -> new ArrayList<>());
+        // Events starting at the same time stay in the order they were added
+        int idx = dayEvents.size();
+        while (idx > 0 && dayEvents.get(idx - 1).compareTo(e) > 0) idx--;
+        dayEvents.add(idx, e);
     }
 
     public List<List<Event>> getRecurringEvents() {
         return recurringEvents;
     }
 
+    /**
+     * Gets every Event, with each recurring Event listed once ahead of the individual Events
+     *
+     * @return list of all Events
+     */
+    public List<Event> getEvents() {
+        Set<Event> recurring = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Event> events = new ArrayList<>();
+        for (List<Event> dayEvents : recurringEvents) {
+            for (Event e : dayEvents) {
+                if (recurring.add(e)) events.add(e);
+            }
+        }
+        events.addAll(getIndivEvents());
+        return events;
+    }
+
+    /**
+     * Gets the details saved with the schedule so that it can be restored without rebuilding it
+     *
+     * @return details of the schedule, or null if it isn't finished and up to date
+     */
+    private SavedSchedule getSavedSchedule() {
+        if (!scheduleIsCurrent()) return null;
+        return new SavedSchedule(Time.getEpochDay(scheduleTime), userConfig.getScheduleFingerprint(), errorCount);
+    }
+
     /**
      * Gets last ID for Task
      *
@@ -233,19 +479,29 @@ public class ScheduleManager {
 
     public void addTaskList(List<Task> list) {
         for(Task t : list) {
-            taskMap.put(taskId, t);
-            taskManager.add(t);
+            addTask(t);
             eventLog.reportTaskAction(t, 0);
         }
     }
 
     public void addCardList(List<Card> list) {
         for(Card c : list) {
-            cards.add(c);
+            addCard(c);
             eventLog.reportCardAction(c, 0);
         }
     }
 
+    /**
+     * Adds a Card to the board
+     *
+     * @param card Card being added
+     */
+    public void addCard(Card card) {
+        cards.add(card);
+        importIndex.addCard(card);
+        journal(MutationJournal.Op.ADD_CARD, card.getTitle(), card.getColorId().name());
+    }
+
     /**
      * Adds an event to the manager
      *
@@ -276,8 +532,13 @@ public class ScheduleManager {
         if (recurring) {
             for (int i = 0; i < e.getDays().length; i++) {
                 recurringEvents.get(e.getDays()[i].ordinal()).add(e);
+                eventTemplates[e.getDays()[i].ordinal()] = null;
             }
-        } else indivEvents.add(e);
+        } else addIndivEvent(e);
+        importIndex.addEvent(e);
+        markDirty(e);
+        journal(MutationJournal.Op.ADD_EVENT, name, color.name(), timeStamp.getStartMinute(),
+                timeStamp.getEndMinute(), days == null ? new int[0] : ordinals(days));
 
         eventLog.reportEventAction(e, 0);
         return e;
@@ -294,18 +555,29 @@ public class ScheduleManager {
     public Task addTask(String name, int hours, int incrementation) {
         Task task = new Task(taskId++, name, hours, incrementation);
 
+        closeSchedule();
         taskManager.add(task);
         taskMap.put(taskId - 1, task);
+        importIndex.addTask(task);
+        markDirty(task);
 
         eventLog.reportTaskAction(task, 0);
         cards.get(0).addTask(task);
+        journal(MutationJournal.Op.ADD_TASK, task.getId(), name, hours, Time.getEpochDay(task.getDueDate()));
         return task;
     }
 
     public void addTask(Task createdTask) {
+        closeSchedule();
         taskManager.add(createdTask);
-        taskMap.put(taskId - 1, createdTask);
+        taskMap.put(createdTask.getId(), createdTask);
+        // later Tasks can't be given the same ID, since the journal refers to Tasks by their ID
+        taskId = Math.max(taskId, createdTask.getId() + 1);
+        importIndex.addTask(createdTask);
+        markDirty(createdTask);
         cards.get(0).addTask(createdTask);
+        journal(MutationJournal.Op.INSERT_TASK, createdTask.getId(), createdTask.getName(),
+                createdTask.getTotalHours(), Time.getEpochDay(createdTask.getDueDate()));
     }
 
     public boolean addTaskToCard(Task task, Card card) {
@@ -314,6 +586,7 @@ public class ScheduleManager {
         if (cards.get(0).getTask().contains(task)) {
             cards.get(0).removeTask(task);
         }
+        journal(MutationJournal.Op.MOVE_TASK, task.getId(), indexOfCard(card));
         return true;
     }
 
@@ -325,9 +598,18 @@ public class ScheduleManager {
      */
     public boolean removeTask(Task t1) {
         if(taskManager.contains(t1)) {
+            // finishing a schedule still being built rebuilds the heap, so it has to happen before the Task leaves it
+            closeSchedule();
             taskManager.remove(t1);
             taskMap.remove(t1.getId(), t1);
+            // a Task left on its Card would be written to the next snapshot and come back when it is recovered
+            for (Card c : cards) {
+                c.removeTask(t1);
+            }
+            importIndex.removeTask(t1);
+            markDirty(t1);
             eventLog.reportTaskAction(t1, 1);
+            journal(MutationJournal.Op.REMOVE_TASK, t1.getId());
             return true;
         }
 
@@ -369,16 +651,76 @@ public class ScheduleManager {
      * Generates an entire schedule following a distributive approach
      */
     public void buildSchedule() {
+        long start = System.nanoTime();
+        beginSchedule();
+        while (scheduleNextDay());
+        buildTime.recordSince(start);
+    }
+
+    /**
+     * Brings the schedule up to date with the changes made since it was last built. The schedule is rebuilt from the
+     * nearest checkpoint on or before the earliest Day affected by a change, while the Days before it are kept as
+     * they are. Falls back to {@link #buildSchedule()} when there is no such checkpoint, or the schedule was built on
+     * a previous day.
+     */
+    public void updateSchedule() {
+        long start = System.nanoTime();
+        prepareSchedule();
+        while (scheduleNextDay());
+        buildTime.recordSince(start);
+    }
+
+    /**
+     * Iterates over the Days of the up-to-date schedule. Days are only scheduled once the Iterator reaches them, so
+     * looking at the first few Days does not require the rest of the schedule to be built. Any change to the Tasks,
+     * Events or the schedule itself invalidates the Iterator.
+     *
+     * @return Iterator of Days
+     */
+    public Iterator<Day> scheduleIterator() {
+        prepareSchedule();
+        int expectedModCount = modCount;
+        return new Iterator<>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                return idx < schedule.size() || scheduleNextDay();
+            }
+
+            @Override
+            public Day next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return schedule.get(idx++);
+            }
+        };
+    }
+
+    /**
+     * Gets a sequential Stream of the Days of the up-to-date schedule (see {@link #scheduleIterator()})
+     *
+     * @return Stream of Days
+     */
+    public Stream<Day> scheduleStream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scheduleIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Starts scheduling the entire schedule from the first Day
+     */
+    private void beginSchedule() {
         eventLog.reportSchedulingStart();
+        rebuilds.increment();
+        pending = null;
         resetSchedule();
         //Tasks that are "finished scheduling" are added here
-        PriorityQueue<Task> complete = new PriorityQueue<>();
+        TaskQueue complete = new TaskQueue();
 
         schedule = new ArrayList<>(userConfig.getMaxDays());
         scheduleTime = Calendar.getInstance();
-        int idx = scheduleTime.get(Calendar.DAY_OF_WEEK) - 1;
-        int dayCount = 0;
-        Day currDay;
+        checkpoints.clear();
 
         // need to archive tasks that are 'past due' (this is to handle edge case where we started at 11PM, and now it's 1AM)
         Task head = taskManager.peek();
@@ -389,49 +731,416 @@ public class ScheduleManager {
             archivedTasks.add(taskManager.remove());
         }
 
-        int eventIdx = 0;
-        while(!taskManager.isEmpty() && dayId < userConfig.getMaxDays()) {
-            currDay = new Day(dayId++, userConfig.getWeek()[idx++ % 7], dayCount++);
-            schedule.add(currDay);
+        // tasks are bucketed by due day for the scheduling loop
+        beginDays(new CalendarQueue(taskManager), complete);
+    }
 
-            // todo add individual and recurring events here
-            if (!recurringEvents.get(currDay.getDate().get(Calendar.DAY_OF_WEEK) - 1).isEmpty()) {
-                for (Event e1 : recurringEvents.get(currDay.getDate().get(Calendar.DAY_OF_WEEK) - 1)) {
-                    currDay.addEvent(e1);
-                }
-            }
-            while (eventIdx < indivEvents.size()) {
-                Calendar eventDate = indivEvents.get(eventIdx).getTimeStamp().getStart();
-                Calendar dayDate = currDay.getDate();
-                if (eventDate.get(Calendar.YEAR) == dayDate.get(Calendar.YEAR) && eventDate.get(Calendar.MONTH) == dayDate.get(Calendar.MONTH)
-                        && eventDate.get(Calendar.DAY_OF_MONTH) == dayDate.get(Calendar.DAY_OF_MONTH)) {
-                    currDay.addEvent(indivEvents.get(eventIdx));
-                    eventIdx++;
-                } else break;
+    /**
+     * Starts scheduling whatever part of the schedule is affected by the changes made since it was last built
+     */
+    private void prepareSchedule() {
+        if (scheduleTime == null || dirtyDay == 0 || dayHorizons.size() != schedule.size()
+                || Time.getEpochDay(scheduleTime) != Time.getEpochDay(Calendar.getInstance())) {
+            beginSchedule();
+            return;
+        }
+        // up to date, or still being scheduled
+        if (dirtyDay == Integer.MAX_VALUE) return;
+        Checkpoint checkpoint = checkpoints.floor(dirtyDay);
+        if (checkpoint == null) {
+            beginSchedule();
+            return;
+        }
+        eventLog.reportSchedulingStart();
+        resumes.increment();
+        int firstDay = checkpoint.getDay();
+        schedule.subList(firstDay, schedule.size()).clear();
+        errorCount = checkpoint.getErrorCount();
+        dayId = firstDay;
+
+        TaskQueue complete = new TaskQueue();
+        CalendarQueue queue = new CalendarQueue();
+        checkpoint.restore(taskManager, complete, queue);
+        // the checkpoint is taken again once its Day is rescheduled
+        checkpoints.discardFrom(firstDay);
+        beginDays(queue, complete);
+    }
+
+    /**
+     * Starts scheduling Days from the current Day ID
+     *
+     * @param queue Tasks to be scheduled
+     * @param complete Tasks that are finished scheduling
+     */
+    private void beginDays(CalendarQueue queue, TaskQueue complete) {
+        dayHorizons.subList(dayId, dayHorizons.size()).clear();
+        // checkpoints are spread out over the whole schedule when it is longer than the ring
+        int stride = Math.max(1, (userConfig.getMaxDays() + checkpoints.capacity() - 1) / checkpoints.capacity());
+        pending = new PendingSchedule(queue, complete, stride);
+        dirtyDay = Integer.MAX_VALUE;
+        modCount++;
+    }
+
+    /**
+     * Schedules the next Day, unless all Tasks are scheduled or the maximum number of Days is reached
+     *
+     * @return true if a Day was scheduled
+     */
+    private boolean scheduleNextDay() {
+        if (pending == null) return false;
+        CalendarQueue queue = pending.queue;
+        if (queue.isEmpty() || dayId >= userConfig.getMaxDays()) {
+            finishSchedule();
+            return false;
+        }
+        // the first Day is always rebuilt from scratch, so it never needs a checkpoint
+        if (dayId > 0 && dayId % pending.stride == 0) checkpoints.add(new Checkpoint(dayId, errorCount, queue));
+        int idx = scheduleTime.get(Calendar.DAY_OF_WEEK) - 1 + dayId;
+        Day currDay = new Day(dayId, userConfig.getWeek()[idx % 7], dayId);
+        dayId++;
+        schedule.add(currDay);
+
+        currDay.adoptTemplate(getEventTemplate(currDay.getDate().get(Calendar.DAY_OF_WEEK) - 1));
+        List<Event> dayEvents = indivEvents.get(Time.getEpochDay(currDay.getDateMinute()));
+        if (dayEvents != null) {
+            for (Event e1 : dayEvents) {
+                currDay.addEvent(e1);
             }
+        }
 
-            // don't need incomplete as argument (should be local to schedulers)
-            errorCount = scheduler.assignDay(currDay, errorCount, complete, taskManager, scheduleTime);
+        // don't need incomplete as argument (should be local to schedulers)
+        queue.resetHorizon();
+        long start = System.nanoTime();
+        errorCount = scheduler.assignDay(currDay, errorCount, pending.complete, queue, scheduleTime);
+        assignDayTime.recordSince(start);
+        dayHorizons.add(queue.getHorizon());
+        return true;
+    }
+
+    /**
+     * Gets the recurring Events of a day of the week, compiling them if they changed since last used
+     *
+     * @param dayOfWeek day of the week (0=Sunday, ..., 6=Saturday)
+     * @return compiled recurring Events
+     */
+    private EventTemplate getEventTemplate(int dayOfWeek) {
+        if (eventTemplates[dayOfWeek] == null) {
+            List<Event> events = recurringEvents.get(dayOfWeek);
+            eventTemplates[dayOfWeek] = events.isEmpty() ? EventTemplate.EMPTY : new EventTemplate(events);
         }
-        this.taskManager = complete;
+        return eventTemplates[dayOfWeek];
+    }
+
+    /**
+     * Finishes scheduling. The hours of the Tasks have changed, so their heap is rebuilt.
+     */
+    private void finishSchedule() {
+        pending = null;
+        taskManager.heapify();
         eventLog.reportSchedulingFinish();
     }
 
+    /**
+     * Stops scheduling before a change is made, leaving a checkpoint so that the next update picks up from the
+     * last Day scheduled
+     */
+    private void closeSchedule() {
+        if (pending == null) return;
+        CalendarQueue queue = pending.queue;
+        boolean unfinished = !queue.isEmpty() && dayId < userConfig.getMaxDays();
+        if (unfinished && dayId > 0) checkpoints.add(new Checkpoint(dayId, errorCount, queue));
+        finishSchedule();
+        modCount++;
+        if (unfinished) dirtyDay = dayId;
+    }
+
+    /**
+     * Keeps a schedule restored from a JBin as the up-to-date schedule instead of rebuilding it. The Events are
+     * placed on its Days, and since no checkpoints or horizons are known, any change rebuilds it entirely.
+     *
+     * @param savedSchedule details of the restored schedule
+     */
+    private void restoreSchedule(SavedSchedule savedSchedule) {
+        for (Day day : schedule) {
+            for (Event e : recurringEvents.get(day.getDate().get(Calendar.DAY_OF_WEEK) - 1)) {
+                day.addEvent(e);
+            }
+            List<Event> dayEvents = indivEvents.get(Time.getEpochDay(day.getDateMinute()));
+            if (dayEvents != null) {
+                for (Event e : dayEvents) {
+                    day.addEvent(e);
+                }
+            }
+        }
+        scheduleTime = Calendar.getInstance();
+        errorCount = savedSchedule.getErrorCount();
+        restores.increment();
+        dayId = schedule.size();
+        checkpoints.clear();
+        dayHorizons.clear();
+        dayHorizons.addAll(Collections.nCopies(schedule.size(), Long.MAX_VALUE));
+        pending = null;
+        dirtyDay = Integer.MAX_VALUE;
+        modCount++;
+        // the restored SubTasks changed the hours left on the Tasks
+        taskManager.heapify();
+    }
+
+    /**
+     * Forces the next update to rebuild the entire schedule
+     */
+    private void invalidateSchedule() {
+        closeSchedule();
+        dirtyDay = 0;
+    }
+
+    /**
+     * Marks the earliest Day whose scheduling could change from a Task being added or removed. A Task can only affect
+     * the Days up to its due date, or the Days where the Scheduler polled a Task due on or after it.
+     *
+     * @param task Task being added or removed
+     */
+    private void markDirty(Task task) {
+        closeSchedule();
+        long dueDay = Time.getEpochDay(task.getDueDate());
+        int idx = 0;
+        while (idx < dayHorizons.size() && idx < schedule.size() && dayHorizons.get(idx) < dueDay
+                && Time.getEpochDay(schedule.get(idx).getDateMinute()) < dueDay) {
+            idx++;
+        }
+        // a schedule cut off at the maximum number of Days doesn't change past its end
+        if (idx < userConfig.getMaxDays()) dirtyDay = Math.min(dirtyDay, idx);
+        checkpoints.discardFrom(idx + 1);
+        // a Task that doesn't affect the Days before a checkpoint would still be in its queue
+        if (taskManager.contains(task)) checkpoints.addTask(task);
+    }
+
+    /**
+     * Marks the earliest Day an Event being added takes place on
+     *
+     * @param event Event being added
+     */
+    private void markDirty(Event event) {
+        closeSchedule();
+        if (schedule.isEmpty()) return;
+        int idx = -1;
+        if (event.isRecurring()) {
+            for (int i = 0; i < schedule.size() && i < 7 && idx < 0; i++) {
+                if (recurringEvents.get(schedule.get(i).getDate().get(Calendar.DAY_OF_WEEK) - 1).contains(event)) idx = i;
+            }
+        } else {
+            // Days of the schedule are consecutive, so the Day of the Event is found directly
+            long offset = Time.getEpochDay(event.getTimeStamp().getStartMinute())
+                    - Time.getEpochDay(schedule.get(0).getDateMinute());
+            if (offset >= 0 && offset < schedule.size()) idx = (int) offset;
+        }
+        if (idx >= 0) {
+            dirtyDay = Math.min(dirtyDay, idx);
+            checkpoints.discardFrom(idx + 1);
+        }
+    }
+
     /**
      * Resets all the tasks as well as the entire schedule for it to be regenerated
      */
     private void resetSchedule() {
         schedule = new LinkedList<>();
-        PriorityQueue<Task> copy = new PriorityQueue<>();
-        while(!taskManager.isEmpty()) {
-            Task task = taskManager.remove();
+        for (Task task : taskManager) {
             task.reset();
-            copy.add(task);
         }
-        taskManager = copy;
+        // resetting changes the ordering of every task, so the heap is rebuilt in one pass
+        taskManager.heapify();
         errorCount = 0;
         dayId = 0;
-        Collections.sort(indivEvents);
+    }
+
+    /**
+     * Loads the newest snapshot of the journal and replays the changes made after it. The import renumbers the Tasks,
+     * so the recovered state is compacted straight into a new snapshot before anything else is journaled.
+     */
+    private void recoverJournal() {
+        if (userConfig.isJournal()) recoverJournal(Paths.get(JOURNAL_DIR));
+    }
+
+    /**
+     * Loads the newest snapshot of a journal and replays the changes made after it, journaling every later change
+     *
+     * @param dir directory holding the journal
+     */
+    void recoverJournal(Path dir) {
+        try {
+            MutationJournal recovered = new MutationJournal(dir);
+            Path snapshot = recovered.getSnapshot();
+            int firstId = taskId;
+            if (snapshot != null) importJBinFile(snapshot.toString());
+            // imported Tasks are numbered from the first free ID in the order the snapshot holds them
+            Map<Integer, Task> snapshotTasks = new HashMap<>();
+            for (Card c : cards) {
+                for (Task t : c.getTask()) {
+                    if (t.getId() >= firstId) snapshotTasks.put(t.getId() - firstId, t);
+                }
+            }
+            replayJournal(recovered.recover(), snapshotTasks);
+            journal = recovered;
+            compactJournal();
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Unable to recover the journal", e);
+        }
+    }
+
+    /**
+     * Applies journaled changes through the same methods that made them (nothing is journaled while replaying)
+     *
+     * @param entries changes made after the snapshot
+     * @param snapshotTasks Tasks of the snapshot by their position in it
+     */
+    private void replayJournal(List<MutationJournal.Entry> entries, Map<Integer, Task> snapshotTasks) {
+        // Tasks by the ID they had when the change was journaled
+        Map<Integer, Task> tasks = new HashMap<>();
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0));
+        for (MutationJournal.Entry entry : entries) {
+            switch (entry.getOp()) {
+                case BASE:
+                    int[] ids = entry.getInts(0);
+                    for (int i = 0; i < ids.length; i++) {
+                        Task t = snapshotTasks.get(i);
+                        if (t != null) tasks.put(ids[i], t);
+                    }
+                    break;
+                case ADD_TASK:
+                    tasks.put(entry.getInt(0), addTask(entry.getString(1), entry.getInt(2),
+                            (int) (entry.getLong(3) - today)));
+                    break;
+                case INSERT_TASK:
+                    Task inserted = new Task(taskId, entry.getString(1), entry.getDouble(2),
+                            Time.toCalendar(entry.getLong(3) * Time.MINUTES_PER_DAY));
+                    addTask(inserted);
+                    tasks.put(entry.getInt(0), inserted);
+                    break;
+                case ADD_CARD:
+                    addCard(new Card(cards.size(), entry.getString(0), Card.Colors.valueOf(entry.getString(1))));
+                    break;
+                case ADD_EVENT:
+                    int[] days = entry.getInts(4);
+                    Event.DayOfWeek[] week = null;
+                    if (days.length > 0) {
+                        week = new Event.DayOfWeek[days.length];
+                        for (int i = 0; i < days.length; i++) {
+                            week[i] = Event.DayOfWeek.values()[days[i]];
+                        }
+                    }
+                    addEvent(entry.getString(0), Card.Colors.valueOf(entry.getString(1)),
+                            new Time.TimeStamp(entry.getLong(2), entry.getLong(3)), week != null, week);
+                    break;
+                default:
+                    // the Task may have been archived when the snapshot was imported
+                    Task task = tasks.get(entry.getInt(0));
+                    if (task != null) replayTaskChange(entry, task);
+            }
+        }
+    }
+
+    private void replayTaskChange(MutationJournal.Entry entry, Task task) {
+        switch (entry.getOp()) {
+            case REMOVE_TASK:
+                removeTask(task);
+                break;
+            case MOVE_TASK:
+                int cardIdx = entry.getInt(1);
+                if (cardIdx >= 0 && cardIdx < cards.size()) addTaskToCard(task, cards.get(cardIdx));
+                break;
+            case CREATE_CHECKLIST:
+                createTaskCheckList(task, entry.getString(1));
+                break;
+            case REMOVE_CHECKLIST:
+                removeTaskCheckList(task);
+                break;
+            case ADD_ITEM:
+                addTaskCheckListItem(task, entry.getString(1));
+                break;
+            case REMOVE_ITEM:
+                removeTaskCheckListItem(task, entry.getInt(1));
+                break;
+            case SHIFT_ITEM:
+                shiftTaskItem(task, entry.getInt(1), entry.getInt(2));
+                break;
+            case MARK_ITEM:
+                markTaskItem(task, entry.getInt(1), entry.getBoolean(2));
+                break;
+            default:
+                resetTaskCheckList(task);
+        }
+    }
+
+    /**
+     * Appends a change to the journal, compacting it once enough changes have built up since the last snapshot
+     *
+     * @param op kind of change
+     * @param values values of the change
+     */
+    private void journal(MutationJournal.Op op, Object... values) {
+        if (journal == null) return;
+        appendJournal(op, values);
+        if (journal.getRecordCount() >= userConfig.getSnapshotInterval()) compactJournal();
+    }
+
+    private void appendJournal(MutationJournal.Op op, Object... values) {
+        try {
+            journal.append(op, values);
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Unable to write to the journal", e);
+        }
+    }
+
+    /**
+     * Snapshots the current state and starts a new journal from it
+     */
+    private void compactJournal() {
+        // IDs in the order the snapshot writes the Tasks, so later changes can be matched up with them
+        Set<Task> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Integer> ids = new ArrayList<>();
+        for (Card c : cards) {
+            for (Task t : c.getTask()) {
+                if (seen.add(t)) ids.add(t.getId());
+            }
+        }
+        try {
+            journal.compact(channel -> BinaryJBin.writeJBin(cards, getEvents(), schedule, getSavedSchedule(), channel,
+                    false), ids.stream().mapToInt(Integer::intValue).toArray());
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Unable to snapshot the journal", e);
+        }
+    }
+
+    /**
+     * Closes the journal, after which changes are no longer journaled
+     */
+    void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            eventLog.reportException(e);
+        }
+        journal = null;
+    }
+
+    private static int[] ordinals(Event.DayOfWeek[] days) {
+        int[] ordinals = new int[days.length];
+        for (int i = 0; i < days.length; i++) {
+            ordinals[i] = days[i].ordinal();
+        }
+        return ordinals;
+    }
+
+    private int indexOfCard(Card card) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i) == card) return i;
+        }
+        return -1;
     }
 
     /**
@@ -443,14 +1152,42 @@ public class ScheduleManager {
      */
     public CheckList createTaskCheckList(Task t1, String title) {
         CheckList cl = t1.addCheckList(0, title);
+        importIndex.updateTask(t1);
         eventLog.reportCheckListCreation(cl);
+        journal(MutationJournal.Op.CREATE_CHECKLIST, t1.getId(), title);
         return cl;
     }
 
+    /**
+     * Adds an existing CheckList to a Task. It is journaled as the CheckList being created and each of its Items
+     * being added, all before the journal can be compacted, since a snapshot taken in between would already hold
+     * the whole CheckList.
+     *
+     * @param t1 task being utilized
+     * @param cl CheckList being added
+     * @return boolean status for successful add
+     */
+    public boolean addTaskCheckList(Task t1, CheckList cl) {
+        if (!t1.addCheckList(cl)) return false;
+        importIndex.updateTask(t1);
+        eventLog.reportCheckListCreation(cl);
+        if (journal == null) return true;
+        appendJournal(MutationJournal.Op.CREATE_CHECKLIST, t1.getId(), cl.getName());
+        for (int i = 0; i < cl.size(); i++) {
+            CheckList.Item item = cl.getItem(i);
+            appendJournal(MutationJournal.Op.ADD_ITEM, t1.getId(), item.getDescription());
+            if (item.isComplete()) appendJournal(MutationJournal.Op.MARK_ITEM, t1.getId(), i, true);
+        }
+        if (journal.getRecordCount() >= userConfig.getSnapshotInterval()) compactJournal();
+        return true;
+    }
+
     public CheckList removeTaskCheckList(Task t1) {
         CheckList cl = t1.removeCheckList();
         if(cl != null) {
+            importIndex.updateTask(t1);
             eventLog.reportCheckListRemoval(cl);
+            journal(MutationJournal.Op.REMOVE_CHECKLIST, t1.getId());
         }
         return cl;
     }
@@ -465,7 +1202,9 @@ public class ScheduleManager {
     public boolean addTaskCheckListItem(Task t1, String description) {
         boolean status = t1.addItem(description);
         if(status) {
+            importIndex.updateTask(t1);
             eventLog.reportCheckListAction(t1.getCheckList(), t1.getCheckList().size() - 1, 1);
+            journal(MutationJournal.Op.ADD_ITEM, t1.getId(), description);
         }
         return status;
     }
@@ -479,7 +1218,10 @@ public class ScheduleManager {
      */
     public CheckList.Item removeTaskCheckListItem(Task t1, int itemIdx) {
         eventLog.reportCheckListAction(t1.getCheckList(), itemIdx, 0);
-        return t1.removeItem(itemIdx);
+        CheckList.Item item = t1.removeItem(itemIdx);
+        importIndex.updateTask(t1);
+        journal(MutationJournal.Op.REMOVE_ITEM, t1.getId(), itemIdx);
+        return item;
     }
 
     /**
@@ -492,7 +1234,10 @@ public class ScheduleManager {
      */
     public boolean shiftTaskItem(Task t1, int itemIdx, int shiftIdx) {
         eventLog.reportCheckListAction(t1.getCheckList(), itemIdx, 4);
-        return t1.shiftItem(itemIdx, shiftIdx);
+        boolean status = t1.shiftItem(itemIdx, shiftIdx);
+        importIndex.updateTask(t1);
+        journal(MutationJournal.Op.SHIFT_ITEM, t1.getId(), itemIdx, shiftIdx);
+        return status;
     }
 
     /**
@@ -504,11 +1249,13 @@ public class ScheduleManager {
      */
     public void markTaskItem(Task t1, int itemIdx, boolean flag) {
         t1.markItem(itemIdx, flag);
+        importIndex.updateTask(t1);
         if(flag) {
             eventLog.reportCheckListAction(t1.getCheckList(), itemIdx, 2);
         } else {
             eventLog.reportCheckListAction(t1.getCheckList(), itemIdx, 2);
         }
+        journal(MutationJournal.Op.MARK_ITEM, t1.getId(), itemIdx, flag);
     }
 
     /**
@@ -540,7 +1287,10 @@ public class ScheduleManager {
      */
     public boolean resetTaskCheckList(Task t1) {
         eventLog.reportCheckListReset(t1.getCheckList());
-        return t1.resetCheckList();
+        boolean status = t1.resetCheckList();
+        importIndex.updateTask(t1);
+        journal(MutationJournal.Op.RESET_CHECKLIST, t1.getId());
+        return status;
     }
 
     public String buildBoardString() {
@@ -552,7 +1302,7 @@ public class ScheduleManager {
     }
 
     public String buildEventStr() {
-        return TableFormatter.formatEventSetTables(recurringEvents, indivEvents, userConfig.isFormatPrettyTable());
+        return TableFormatter.formatEventSetTables(recurringEvents, getIndivEvents(), userConfig.isFormatPrettyTable());
     }
 
     public String buildSubTaskStr() {
@@ -563,11 +1313,14 @@ public class ScheduleManager {
      * Outputs the current day's schedule to console
      */
     public void outputCurrentDayToConsole() {
-        if(schedule.isEmpty()) {
+        // only the current day needs to be scheduled
+        Iterator<Day> days = scheduleIterator();
+        if(!days.hasNext()) {
             System.out.println("Schedule is empty");
         } else {
-            IOProcessing.outputDay(schedule.get(0), errorCount, null);
-            eventLog.reportDisplayDaySchedule(schedule.get(0));
+            Day today = days.next();
+            IOProcessing.outputDay(today, errorCount, null);
+            eventLog.reportDisplayDaySchedule(today);
         }
     }
 
@@ -609,10 +1362,30 @@ public class ScheduleManager {
         return schedule.isEmpty();
     }
 
+    /**
+     * Determines whether the schedule is fully built and up to date with every change made to it
+     *
+     * @return boolean value for whether the schedule is current
+     */
+    public boolean scheduleIsCurrent() {
+        return scheduleTime != null && pending == null && dirtyDay == Integer.MAX_VALUE
+                && Time.getEpochDay(scheduleTime) == Time.getEpochDay(Calendar.getInstance());
+    }
+
+    /**
+     * Gets the number of Tasks that could not be scheduled in time
+     *
+     * @return number of scheduling errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
     /**
      * Shuts down the system
      */
     public void quit() {
+        closeJournal();
         eventLog.reportExitSession();
         System.exit(0);
     }
@@ -642,24 +1415,65 @@ public class ScheduleManager {
         return eventLog;
     }
 
+    public UserConfig getUserConfig() {
+        return userConfig;
+    }
+
     public void exportScheduleToExcel(String filename) throws IOException {
+        long start = System.nanoTime();
         spreadsheetIO.setFilename(filename);
-        spreadsheetIO.exportScheduleToExcel(schedule, cards, archivedTasks, userConfig);
+        try {
+            spreadsheetIO.exportScheduleToExcel(schedule, cards, archivedTasks, userConfig);
+        } finally {
+            excelExportTime.recordSince(start);
+        }
     }
 
     public void exportScheduleToGoogle() throws IOException {
-        googleCalendarIO.exportScheduleToGoogle(userConfig, schedule);
+        long start = System.nanoTime();
+        try {
+            getGoogleCalendarIO().exportScheduleToGoogle(userConfig, schedule);
+        } finally {
+            googleExportTime.recordSince(start);
+        }
     }
 
     public void cleanGoogleSchedule() throws IOException {
-        googleCalendarIO.cleanGoogleSchedule();
+        getGoogleCalendarIO().cleanGoogleSchedule();
     }
 
     public void importScheduleFromGoogle() throws IOException {
-        googleCalendarIO.importScheduleFromGoogle();
+        getGoogleCalendarIO().importScheduleFromGoogle();
+    }
+
+    private GoogleCalendarIO getGoogleCalendarIO() throws IOException {
+        if (googleCalendarIO == null) throw new IOException("Not connected to Google Calendar");
+        return googleCalendarIO;
     }
 
     public void resetData() {
+        closeJournal();
+        // the new singleton serves the metrics on the same port
+        if (metricsExporter != null) metricsExporter.close();
         singleton = new ScheduleManager();
+        singleton.recoverJournal();
+    }
+
+    /**
+     * State of a schedule that is still being built one Day at a time
+     */
+    private static final class PendingSchedule {
+        /** Tasks left to be scheduled */
+        private final CalendarQueue queue;
+        /** Tasks that are finished scheduling */
+        private final TaskQueue complete;
+        /** Number of Days between checkpoints */
+        private final int stride;
+
+        private PendingSchedule(CalendarQueue queue, TaskQueue complete, int stride) {
+            this.queue = queue;
+            this.complete = complete;
+            this.stride = stride;
+        }
     }
 }
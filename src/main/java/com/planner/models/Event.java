@@ -1,5 +1,6 @@
 package com.planner.models;
 
+import com.planner.util.Time;
 import com.planner.util.Time.TimeStamp;
 
 import java.util.Calendar;
@@ -75,10 +76,7 @@ public class Event implements Comparable<Event> {
     }
 
     public void setTimeStamp(TimeStamp timeStamp) {
-        Calendar start = timeStamp.getStart();
-        Calendar end = timeStamp.getEnd();
-        if (start.get(Calendar.YEAR) != end.get(Calendar.YEAR) || start.get(Calendar.MONTH) != end.get(Calendar.MONTH)
-                || start.get(Calendar.DAY_OF_MONTH) != end.get(Calendar.DAY_OF_MONTH)) {
+        if (Time.getStartOfDay(timeStamp.getStartMinute()) != Time.getStartOfDay(timeStamp.getEndMinute())) {
             throw new IllegalArgumentException("Start and end times for timestamp don't share same date");
         }
 
@@ -86,13 +84,14 @@ public class Event implements Comparable<Event> {
     }
 
     public String getDateStamp() {
-        int day = timeStamp.getStart().get(Calendar.DAY_OF_MONTH);
-        int year = timeStamp.getStart().get(Calendar.YEAR);
+        Calendar start = timeStamp.getStart();
+        int day = start.get(Calendar.DAY_OF_MONTH);
+        int year = start.get(Calendar.YEAR);
 
         // Calendar.MONTH is zero-indexed, so we have to increment the
         // month value to get the correct month.
         // I hate this.
-        int month = timeStamp.getStart().get(Calendar.MONTH) + 1;
+        int month = start.get(Calendar.MONTH) + 1;
 
         StringBuilder dateStamp = new StringBuilder();
         if (day < 10) dateStamp.append("0");
@@ -156,8 +155,6 @@ public class Event implements Comparable<Event> {
 
     @Override
     public int compareTo(Event o) {
-        return this.timeStamp
-                .getStart()
-                .compareTo(o.getTimeStamp().getStart());
+        return Long.compare(this.timeStamp.getStartMinute(), o.getTimeStamp().getStartMinute());
     }
 }
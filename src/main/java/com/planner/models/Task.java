@@ -76,7 +76,7 @@ public class Task implements Comparable<Task>, Linker {
      *
      * @param id ID for Task
      */
-    private void setId(int id) { //TODO need exception for case where ID is negative
+    public void setId(int id) { //TODO need exception for case where ID is negative
         this.id = id;
     }
 
@@ -96,6 +96,16 @@ public class Task implements Comparable<Task>, Linker {
         return subtask;
     }
 
+    /**
+     * Restores the number of hours assigned to SubTasks (used when a schedule is rebuilt from a checkpoint)
+     *
+     * @param hours number of hours assigned to SubTasks
+     */
+    public void restoreSubTotalHours(double hours) {
+        if (hours < 0 || hours > totalHours) throw new IllegalArgumentException("Invalid number of SubTask hours");
+        subTotalHours = hours;
+    }
+
     /**
      * Resets the Task in all of its properties
      */
@@ -104,6 +114,15 @@ public class Task implements Comparable<Task>, Linker {
         this.averageNumHours = 0;
     }
 
+    /**
+     * Gets the number of hours assigned to SubTasks
+     *
+     * @return number of hours assigned to SubTasks
+     */
+    public double getSubTotalHours() {
+        return subTotalHours;
+    }
+
     /**
      * Gets the number of SubTask hour slots currently unfilled
      *
@@ -121,7 +140,8 @@ public class Task implements Comparable<Task>, Linker {
         } else if(timeDiff > 0 || this.getSubTotalHoursRemaining() < o.getSubTotalHoursRemaining()) {
             return 1;
         } else {
-            return 0;
+            // ties are broken by ID so that the order doesn't depend on how the Tasks were queued
+            return Integer.compare(this.id, o.id);
         }
     }
 
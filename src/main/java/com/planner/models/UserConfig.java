@@ -1,5 +1,8 @@
 package com.planner.models;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  * Handles the management of all user config settings and data
  *
@@ -33,6 +36,22 @@ public class UserConfig {
     private boolean formatPrettyTable;
     private boolean formatAMPM;
     private boolean resetLog;
+    /** Whether to parse text JBin files across all cores when importing */
+    private boolean parallelImport;
+    /** Whether to journal every change so that a session survives a crash */
+    private boolean journal;
+    /** Number of journaled changes after which a new snapshot is taken */
+    private int snapshotInterval;
+    /** Whether exported JBin files are compressed */
+    private boolean compressJBin;
+    /** Lowest level of the actions logged (TRACE, DEBUG, INFO or WARN) */
+    private String logLevel;
+    /** Categories of the actions logged (scheduling, io, scripter or config) */
+    private String[] logCategories;
+    /** Only one in this many detailed scheduling actions is logged */
+    private int logSampleRate;
+    /** Local port the metrics are served on as Prometheus text (0 to not serve them) */
+    private int metricsPort;
 
 
     /**
@@ -94,6 +113,14 @@ public class UserConfig {
         this.formatPrettyTable = true;
         this.formatAMPM = true;
         this.resetLog = true;
+        this.parallelImport = false;
+        this.journal = false;
+        this.snapshotInterval = 1000;
+        this.compressJBin = false;
+        this.logLevel = "INFO";
+        this.logCategories = new String[]{"scheduling", "io", "scripter", "config"};
+        this.logSampleRate = 1;
+        this.metricsPort = 0;
     }
 
     public int[] getRange() {
@@ -315,4 +342,79 @@ public class UserConfig {
     public void setResetLog(boolean resetLog) {
         this.resetLog = resetLog;
     }
+
+    public boolean isParallelImport() {
+        return parallelImport;
+    }
+
+    public void setParallelImport(boolean parallelImport) {
+        this.parallelImport = parallelImport;
+    }
+
+    public boolean isJournal() {
+        return journal;
+    }
+
+    public void setJournal(boolean journal) {
+        this.journal = journal;
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public void setSnapshotInterval(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isCompressJBin() {
+        return compressJBin;
+    }
+
+    public void setCompressJBin(boolean compressJBin) {
+        this.compressJBin = compressJBin;
+    }
+
+    public String getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(String logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    public String[] getLogCategories() {
+        return logCategories;
+    }
+
+    public void setLogCategories(String[] logCategories) {
+        this.logCategories = logCategories;
+    }
+
+    public int getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public void setLogSampleRate(int logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    /**
+     * Gets a fingerprint of every setting that changes how the schedule is built. A schedule saved under a
+     * different fingerprint has to be rebuilt rather than restored.
+     *
+     * @return hash of the scheduling settings
+     */
+    public int getScheduleFingerprint() {
+        return Objects.hash(Arrays.hashCode(range), Arrays.hashCode(week), maxDays, priority, overflow, fitDay,
+                schedulingAlgorithm, minHours, optimizeDay, defaultAtStart);
+    }
 }
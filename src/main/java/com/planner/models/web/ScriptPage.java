@@ -5,6 +5,8 @@ public class ScriptPage implements Page {
     private final String sysLog;
     private final String script;
     private final String scriptName;
+    /** Profiling report of the script (null if it wasn't profiled) */
+    private final String profile;
 
     private static final String htmlHead = "<!DOCTYPE html>\n" +
             "<html>\n" +
@@ -87,18 +89,28 @@ public class ScriptPage implements Page {
             "            <h2>System Log:</h2>\n" +
             "            <pre>\n" +
             "                <code>\n";
-    private static final String closeBody = "                </code>\n" +
+    private static final String closeBoxes = "                </code>\n" +
             "            </pre>\n" +
             "        </div>\n" +
-            "    </div>\n" +
-            "</body>\n" +
+            "    </div>\n";
+    private static final String profileBody = "    <div class=\"container\">\n" +
+            "        <div class=\"box\" style=\"width: 94%; height: auto;\">\n" +
+            "            <h2>Script Profile</h2>\n" +
+            "            <pre>\n" +
+            "                <code>\n";
+    private static final String closeBody = "</body>\n" +
             "</html>\n";
 
     public ScriptPage(String scriptLog, String sysLog, String script, String scriptName) {
+        this(scriptLog, sysLog, script, scriptName, null);
+    }
+
+    public ScriptPage(String scriptLog, String sysLog, String script, String scriptName, String profile) {
         this.scriptLog = scriptLog;
         this.sysLog = sysLog;
         this.script = script;
         this.scriptName = scriptName;
+        this.profile = profile;
     }
 
     @Override
@@ -112,7 +124,13 @@ public class ScriptPage implements Page {
                 .append(scriptLog)
                 .append(sysLogBody)
                 .append(sysLog)
-                .append(closeBody);
+                .append(closeBoxes);
+        if (profile != null) {
+            sb.append(profileBody)
+                    .append(profile.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;"))
+                    .append(closeBoxes);
+        }
+        sb.append(closeBody);
         return sb.toString();
     }
 }
@@ -0,0 +1,261 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+import com.planner.util.Time;
+
+import java.util.*;
+
+/**
+ * Calendar queue of {@link Task}s used by the scheduling loop. Since due dates are whole days, Tasks are placed into
+ * one bucket per due day, and only the Tasks inside a bucket need to be ordered (by remaining hours by default, or
+ * by a {@link LongOrderComparator}/{@link ShortOrderComparator}). Adding a Task is O(1), and taking the next Task is
+ * amortized O(1) since the cursor only moves forward as days are scheduled and buckets are only sorted when Tasks
+ * were added to them since the last removal.
+ *
+ * @author Andrew Roe
+ */
+public class CalendarQueue extends AbstractQueue<Task> {
+
+    /** Default number of day buckets */
+    private static final int DEFAULT_DAYS = 32;
+
+    /** Buckets of Tasks, where index 0 holds the Tasks due on {@code baseDay} */
+    private Bucket[] buckets;
+    /** Epoch day of the first bucket */
+    private long baseDay;
+    /** Index of the first bucket that could possibly hold a Task */
+    private int cursor;
+    /** Number of Tasks in the queue */
+    private int size;
+    /** Ordering of Tasks inside each bucket with the head at the end (reverse of the queue ordering) */
+    private final Comparator<Task> reverseOrder;
+    /** Latest due day polled since the horizon was last reset ({@link Long#MAX_VALUE} once the queue ran empty) */
+    private long horizon;
+
+    /**
+     * Constructs an empty CalendarQueue that utilizes the natural ordering of Tasks
+     */
+    public CalendarQueue() {
+        this((Comparator<Task>) null);
+    }
+
+    /**
+     * Constructs an empty CalendarQueue with the given ordering for Tasks due on the same day
+     *
+     * @param comparator ordering of the Tasks (natural ordering if null)
+     */
+    public CalendarQueue(Comparator<Task> comparator) {
+        this.reverseOrder = Collections.reverseOrder(comparator);
+        this.buckets = new Bucket[DEFAULT_DAYS];
+        this.cursor = 0;
+        this.horizon = Long.MIN_VALUE;
+    }
+
+    /**
+     * Constructs a CalendarQueue from a Collection of Tasks in O(n)
+     *
+     * @param tasks Tasks being added
+     */
+    public CalendarQueue(Collection<? extends Task> tasks) {
+        this(tasks, null);
+    }
+
+    /**
+     * Constructs a CalendarQueue from a Collection of Tasks in O(n)
+     *
+     * @param tasks Tasks being added
+     * @param comparator ordering of the Tasks (natural ordering if null)
+     */
+    public CalendarQueue(Collection<? extends Task> tasks, Comparator<Task> comparator) {
+        this(comparator);
+        addAll(tasks);
+    }
+
+    @Override
+    public boolean offer(Task task) {
+        if (task == null) throw new NullPointerException();
+        long day = Time.getEpochDay(task.getDueDate());
+        if (size == 0) {
+            // an empty queue can start over at whichever day comes first
+            baseDay = day;
+            cursor = 0;
+        }
+        int idx = indexOf(day);
+        if (buckets[idx] == null) buckets[idx] = new Bucket();
+        buckets[idx].add(task, reverseOrder);
+        cursor = Math.min(cursor, idx);
+        size++;
+        return true;
+    }
+
+    @Override
+    public Task poll() {
+        if (size == 0) return null;
+        size--;
+        Task task = firstBucket().poll(reverseOrder);
+        // once the queue runs empty, any Task added later could have been polled as well
+        horizon = size == 0 ? Long.MAX_VALUE : Math.max(horizon, baseDay + cursor);
+        return task;
+    }
+
+    @Override
+    public Task peek() {
+        if (size == 0) return null;
+        return firstBucket().peek(reverseOrder);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        buckets = new Bucket[DEFAULT_DAYS];
+        cursor = 0;
+        size = 0;
+        horizon = Long.MIN_VALUE;
+    }
+
+    /**
+     * Determines whether the queue holds a Task, looking only in the bucket of its due day
+     *
+     * @param o Task being looked for
+     * @return true if the Task is in the queue
+     */
+    @Override
+    public boolean contains(Object o) {
+        Bucket bucket = bucketOf(o);
+        return bucket != null && bucket.tasks.contains(o);
+    }
+
+    /**
+     * Removes a Task from the bucket of its due day, which stays in order
+     *
+     * @param o Task being removed
+     * @return true if the Task was in the queue
+     */
+    @Override
+    public boolean remove(Object o) {
+        Bucket bucket = bucketOf(o);
+        if (bucket == null || !bucket.tasks.remove(o)) return false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the latest due day polled since the last {@link #resetHorizon()}. A Task due after the horizon could not
+     * have been polled in the meantime, so adding or removing it does not change anything that was polled.
+     *
+     * @return latest epoch day polled, {@link Long#MIN_VALUE} if nothing was polled, or {@link Long#MAX_VALUE} if
+     * the queue ran empty
+     */
+    public long getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Resets the horizon (done by the scheduling loop before each Day)
+     */
+    public void resetHorizon() {
+        horizon = Long.MIN_VALUE;
+    }
+
+    /**
+     * Iterates over the Tasks by due day (Tasks due on the same day are not in sorted order). Removal through the
+     * Iterator is not supported, but {@link #remove(Object)} is.
+     *
+     * @return Iterator of Tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = cursor; i < buckets.length; i++) {
+            if (buckets[i] != null) tasks.addAll(buckets[i].tasks);
+        }
+        return Collections.unmodifiableList(tasks).iterator();
+    }
+
+    /**
+     * Gets the bucket a Task would be in
+     *
+     * @param o Task being looked for
+     * @return bucket of its due day, or null if the queue has none
+     */
+    private Bucket bucketOf(Object o) {
+        if (size == 0 || !(o instanceof Task)) return null;
+        long idx = Time.getEpochDay(((Task) o).getDueDate()) - baseDay;
+        if (idx < cursor || idx >= buckets.length) return null;
+        return buckets[(int) idx];
+    }
+
+    /**
+     * Moves the cursor to the first non-empty bucket (must only be called when the queue is not empty)
+     *
+     * @return first non-empty bucket
+     */
+    private Bucket firstBucket() {
+        while (buckets[cursor] == null || buckets[cursor].tasks.isEmpty()) {
+            cursor++;
+        }
+        return buckets[cursor];
+    }
+
+    /**
+     * Gets the bucket index for the given day, growing the bucket array in either direction when needed
+     *
+     * @param day epoch day
+     * @return bucket index
+     */
+    private int indexOf(long day) {
+        if (day < baseDay) {
+            int shift = (int) (baseDay - day);
+            Bucket[] grown = new Bucket[Math.max(buckets.length * 2, buckets.length + shift)];
+            System.arraycopy(buckets, 0, grown, shift, buckets.length);
+            buckets = grown;
+            baseDay = day;
+            cursor += shift;
+        }
+        long idx = day - baseDay;
+        if (idx >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, (int) Math.max(buckets.length * 2L, idx + 1));
+        }
+        return (int) idx;
+    }
+
+    /**
+     * Tasks due on a single day. The Tasks are kept in reverse order so that the head can be removed from the
+     * end of the list, and are only sorted when a Task was added out of order since the last removal.
+     */
+    private static final class Bucket {
+        /** Tasks of the bucket with the head at the end */
+        private final List<Task> tasks = new ArrayList<>();
+        /** Whether the Tasks are currently in order */
+        private boolean sorted = true;
+
+        private void add(Task task, Comparator<Task> reverseOrder) {
+            if (sorted && !tasks.isEmpty() && reverseOrder.compare(tasks.get(tasks.size() - 1), task) > 0) {
+                sorted = false;
+            }
+            tasks.add(task);
+        }
+
+        private Task peek(Comparator<Task> reverseOrder) {
+            sort(reverseOrder);
+            return tasks.get(tasks.size() - 1);
+        }
+
+        private Task poll(Comparator<Task> reverseOrder) {
+            sort(reverseOrder);
+            return tasks.remove(tasks.size() - 1);
+        }
+
+        private void sort(Comparator<Task> reverseOrder) {
+            if (!sorted) {
+                // requeued Tasks are only a few positions out of place, which TimSort handles in near-linear time
+                tasks.sort(reverseOrder);
+                sorted = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+
+import java.util.*;
+
+/**
+ * Scheduling state at the start of a Day: the Tasks left in the queue along with the hours already assigned to
+ * them, and the number of errors so far. Restoring a Checkpoint allows a schedule to be rebuilt from its Day
+ * instead of from the first Day.
+ *
+ * @author Andrew Roe
+ */
+public class Checkpoint {
+
+    /** Index of the Day the Checkpoint was taken before */
+    private final int day;
+    /** Number of errors before the Day */
+    private final int errorCount;
+    /** Tasks left in the queue */
+    private Task[] tasks;
+    /** Hours assigned to each Task in the queue */
+    private double[] hours;
+    /** Number of Tasks held */
+    private int size;
+
+    /**
+     * Takes a Checkpoint of the scheduling state before the given Day
+     *
+     * @param day index of the Day
+     * @param errorCount number of errors before the Day
+     * @param queue Tasks left to be scheduled
+     */
+    public Checkpoint(int day, int errorCount, Collection<Task> queue) {
+        this.day = day;
+        this.errorCount = errorCount;
+        this.tasks = new Task[queue.size()];
+        this.hours = new double[queue.size()];
+        for (Task task : queue) {
+            addTask(task);
+        }
+    }
+
+    /**
+     * Gets the index of the Day the Checkpoint was taken before
+     *
+     * @return index of the Day
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the number of errors before the Day
+     *
+     * @return number of errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Gets the number of Tasks left in the queue
+     *
+     * @return number of Tasks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a Task to the queue of the Checkpoint with its current hours. Used for Tasks created after the
+     * Checkpoint was taken that would not have been scheduled before its Day.
+     *
+     * @param task Task being added
+     */
+    public void addTask(Task task) {
+        if (size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, Math.max(8, size * 2));
+            hours = Arrays.copyOf(hours, tasks.length);
+        }
+        tasks[size] = task;
+        hours[size++] = task.getSubTotalHours();
+    }
+
+    /**
+     * Restores the scheduling state. Every Task of the Checkpoint that is still held by {@code tasks} gets its hours
+     * restored and is added to {@code queue}, while the rest of {@code tasks} were finished before the Day and are
+     * added to {@code complete}.
+     *
+     * @param tasks all current Tasks
+     * @param complete Tasks that are finished scheduling
+     * @param queue Tasks to be scheduled
+     */
+    public void restore(TaskQueue tasks, TaskQueue complete, CalendarQueue queue) {
+        Set<Task> queued = Collections.newSetFromMap(new IdentityHashMap<>(size));
+        for (int i = 0; i < size; i++) {
+            Task task = this.tasks[i];
+            // removed Tasks are skipped, as are Tasks added to the Checkpoint twice
+            if (tasks.contains(task) && queued.add(task)) {
+                task.restoreSubTotalHours(hours[i]);
+                queue.add(task);
+            }
+        }
+        for (Task task : tasks) {
+            if (!queued.contains(task)) complete.add(task);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+
+/**
+ * Bounded ring of {@link Checkpoint}s ordered by Day. Once the ring is full, adding a Checkpoint overwrites the
+ * oldest one.
+ *
+ * @author Andrew Roe
+ */
+public class CheckpointRing {
+
+    /** Checkpoints of the ring */
+    private final Checkpoint[] ring;
+    /** Index of the oldest Checkpoint */
+    private int head;
+    /** Number of Checkpoints held */
+    private int size;
+
+    /**
+     * Constructs an empty CheckpointRing
+     *
+     * @param capacity maximum number of Checkpoints held
+     */
+    public CheckpointRing(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Invalid capacity for CheckpointRing");
+        this.ring = new Checkpoint[capacity];
+    }
+
+    /**
+     * Gets the maximum number of Checkpoints held
+     *
+     * @return capacity of the ring
+     */
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Gets the number of Checkpoints held
+     *
+     * @return number of Checkpoints
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a Checkpoint after all the Checkpoints held
+     *
+     * @param checkpoint Checkpoint being added
+     */
+    public void add(Checkpoint checkpoint) {
+        if (size > 0 && get(size - 1).getDay() >= checkpoint.getDay()) {
+            throw new IllegalArgumentException("Checkpoints must be added in order of their Day");
+        }
+        if (size == ring.length) {
+            ring[head] = checkpoint;
+            head = (head + 1) % ring.length;
+        } else {
+            ring[(head + size++) % ring.length] = checkpoint;
+        }
+    }
+
+    /**
+     * Gets the latest Checkpoint taken on or before the given Day
+     *
+     * @param day index of the Day
+     * @return nearest Checkpoint, or null if there is none
+     */
+    public Checkpoint floor(int day) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (get(i).getDay() <= day) return get(i);
+        }
+        return null;
+    }
+
+    /**
+     * Discards all Checkpoints taken on or after the given Day
+     *
+     * @param day index of the Day
+     */
+    public void discardFrom(int day) {
+        while (size > 0 && get(size - 1).getDay() >= day) {
+            ring[(head + --size) % ring.length] = null;
+        }
+    }
+
+    /**
+     * Adds a new Task to every Checkpoint held
+     *
+     * @param task Task being added
+     */
+    public void addTask(Task task) {
+        for (int i = 0; i < size; i++) {
+            get(i).addTask(task);
+        }
+    }
+
+    /**
+     * Discards all Checkpoints
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            ring[(head + i) % ring.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    private Checkpoint get(int idx) {
+        return ring[(head + idx) % ring.length];
+    }
+}
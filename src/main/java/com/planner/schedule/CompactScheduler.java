@@ -6,9 +6,9 @@ import com.planner.models.UserConfig;
 import com.planner.util.EventLog;
 import com.planner.util.Time;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * The class {@code CompactScheduler} implements the interface {@link Scheduler} for compact scheduling actions.
@@ -58,8 +58,9 @@ public class CompactScheduler implements Scheduler {
     }
 
     @Override
-    public int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date) {
-        PriorityQueue<Task> incomplete = new PriorityQueue<>();
+    public int assignDay(Day day, int errorCount, TaskQueue complete, CalendarQueue taskManager, Calendar date) {
+        // incomplete tasks go back into their due day's bucket once the day is finished (no heap needed)
+        List<Task> incomplete = new ArrayList<>();
         int numErrors = errorCount;
         while ((!taskManager.isEmpty() && day.hasSpareHours()) ||
                 (!taskManager.isEmpty() && taskManager.peek().getDueDate().equals(day.getDate()))) {
@@ -78,9 +79,7 @@ public class CompactScheduler implements Scheduler {
 
             if (!validTaskStatus && Time.differenceOfDays(task.getDueDate(), day.getDate()) > 0) break;
         }
-        while (!incomplete.isEmpty()) {
-            taskManager.add(incomplete.remove());
-        }
+        taskManager.addAll(incomplete);
         return numErrors;
     }
 
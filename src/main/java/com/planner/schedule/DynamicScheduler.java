@@ -6,8 +6,6 @@ import com.planner.models.UserConfig;
 import com.planner.util.EventLog;
 
 import java.util.Calendar;
-import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * The class {@code DynamicScheduler} implements the interface {@link Scheduler} for more complex scheduling actions.
@@ -57,7 +55,7 @@ public class DynamicScheduler implements Scheduler {
     }
 
     @Override
-    public int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date) {
+    public int assignDay(Day day, int errorCount, TaskQueue complete, CalendarQueue taskManager, Calendar date) {
 //        PriorityQueue<Task> incomplete = new PriorityQueue<>();
 //        int numErrors = errorCount;
 //        while(day.hasSpareHours() && !taskManager.isEmpty()) {
@@ -19,7 +19,7 @@ public class LongOrderComparator implements Comparator<Task> {
         } else if(timeDiff > 0 || o1.getTotalHours() < o2.getTotalHours()) {
             return 1;
         } else {
-            return 0;
+            return Integer.compare(o1.getId(), o2.getId());
         }
     }
 }
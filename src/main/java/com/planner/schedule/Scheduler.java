@@ -7,8 +7,6 @@ import com.planner.models.UserConfig;
 import com.planner.util.EventLog;
 
 import java.util.Calendar;
-import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * The interface {@code Scheduler} is for all scheduling implementations to sort out tasks via the {@link ScheduleManager}
@@ -28,10 +26,10 @@ public interface Scheduler {
      * @param day Day being processed
      * @param errorCount number of errors in current schedule
      * @param complete Tasks that are "finished scheduling" are added here
-     * @param taskManager PriorityQueue of all Tasks in sorted order
+     * @param taskManager calendar queue of all Tasks left to schedule in sorted order
      * @return number of errors in scheduling Day
      */
-    int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date);
+    int assignDay(Day day, int errorCount, TaskQueue complete, CalendarQueue taskManager, Calendar date);
 
     /**
      * Optimizes a {@link Day}'s set of {@link com.planner.models.Task.SubTask} around {@link com.planner.models.Event}
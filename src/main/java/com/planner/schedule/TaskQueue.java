@@ -0,0 +1,232 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+
+import java.util.*;
+
+/**
+ * Position-indexed binary heap of {@link Task}s. Behaves like a {@link PriorityQueue}, but keeps track of where each
+ * Task sits in the heap so that {@link #contains(Object)} is O(1) and {@link #remove(Object)} and {@link #update(Task)}
+ * are O(log n) instead of O(n). Tasks are indexed by identity (IDs are not guaranteed to be unique across imports),
+ * so a Task can only be held once by a given queue.
+ * <p>
+ * Since the ordering of Tasks depends on their remaining hours, any Task modified while inside the queue must be
+ * passed to {@link #update(Task)}, or the whole queue rebuilt via {@link #heapify()}.
+ *
+ * @author Andrew Roe
+ */
+public class TaskQueue extends AbstractQueue<Task> {
+
+    /** Default capacity for the heap */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Binary heap of Tasks */
+    private Task[] heap;
+    /** Number of Tasks in the heap */
+    private int size;
+    /** Position of each Task within the heap */
+    private final Map<Task, Integer> positions;
+    /** Ordering of the Tasks (natural ordering if null) */
+    private final Comparator<? super Task> comparator;
+
+    /**
+     * Constructs an empty TaskQueue that utilizes the natural ordering of Tasks
+     */
+    public TaskQueue() {
+        this((Comparator<? super Task>) null);
+    }
+
+    /**
+     * Constructs an empty TaskQueue with the given ordering
+     *
+     * @param comparator ordering of the Tasks (natural ordering if null)
+     */
+    public TaskQueue(Comparator<? super Task> comparator) {
+        this.comparator = comparator;
+        this.heap = new Task[DEFAULT_CAPACITY];
+        this.positions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Constructs a TaskQueue from a Collection of Tasks in O(n) via bottom-up heap construction
+     *
+     * @param tasks Tasks being added
+     */
+    public TaskQueue(Collection<? extends Task> tasks) {
+        this(tasks, null);
+    }
+
+    /**
+     * Constructs a TaskQueue from a Collection of Tasks in O(n) via bottom-up heap construction
+     *
+     * @param tasks Tasks being added
+     * @param comparator ordering of the Tasks (natural ordering if null)
+     */
+    public TaskQueue(Collection<? extends Task> tasks, Comparator<? super Task> comparator) {
+        this.comparator = comparator;
+        this.heap = new Task[Math.max(DEFAULT_CAPACITY, tasks.size())];
+        this.positions = new IdentityHashMap<>(tasks.size());
+        for (Task task : tasks) {
+            if (task == null) throw new NullPointerException();
+            if (positions.containsKey(task)) continue;
+            positions.put(task, size);
+            heap[size++] = task;
+        }
+        heapify();
+    }
+
+    @Override
+    public boolean offer(Task task) {
+        if (task == null) throw new NullPointerException();
+        if (positions.containsKey(task)) return false;
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        siftUp(size++, task);
+        return true;
+    }
+
+    @Override
+    public Task poll() {
+        if (size == 0) return null;
+        Task head = heap[0];
+        positions.remove(head);
+        Task last = heap[--size];
+        heap[size] = null;
+        if (size > 0) siftDown(0, last);
+        return head;
+    }
+
+    @Override
+    public Task peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Task && positions.containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Task)) return false;
+        Integer idx = positions.remove(o);
+        if (idx == null) return false;
+        removeAt(idx);
+        return true;
+    }
+
+    /**
+     * Restores the position of a Task whose ordering has changed (e.g. its hours or due date were edited)
+     *
+     * @param task Task being updated
+     * @return true if the Task is held by the queue
+     */
+    public boolean update(Task task) {
+        Integer idx = positions.get(task);
+        if (idx == null) return false;
+        siftUp(idx, task);
+        // if the task didn't move up, it may need to move down
+        if (heap[idx] == task) siftDown(idx, task);
+        return true;
+    }
+
+    /**
+     * Rebuilds the heap in O(n). Used after the ordering of many Tasks has changed at once (e.g. all Tasks reset)
+     */
+    public void heapify() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, heap[i]);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Iterates over the Tasks in heap order (not in sorted order). Removal through the Iterator is not supported
+     * since it can reorder the heap.
+     *
+     * @return Iterator of Tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor >= size) throw new NoSuchElementException();
+                return heap[cursor++];
+            }
+        };
+    }
+
+    /**
+     * Removes the Task at the given heap index (its position must already be removed from the index)
+     *
+     * @param idx heap index
+     */
+    private void removeAt(int idx) {
+        int last = --size;
+        if (idx == last) {
+            heap[last] = null;
+            return;
+        }
+        Task moved = heap[last];
+        heap[last] = null;
+        siftDown(idx, moved);
+        if (heap[idx] == moved) siftUp(idx, moved);
+    }
+
+    private void siftUp(int idx, Task task) {
+        while (idx > 0) {
+            int parent = (idx - 1) >>> 1;
+            Task p = heap[parent];
+            if (compare(task, p) >= 0) break;
+            place(idx, p);
+            idx = parent;
+        }
+        place(idx, task);
+    }
+
+    private void siftDown(int idx, Task task) {
+        int half = size >>> 1;
+        while (idx < half) {
+            int child = (idx << 1) + 1;
+            Task c = heap[child];
+            int right = child + 1;
+            if (right < size && compare(c, heap[right]) > 0) c = heap[child = right];
+            if (compare(task, c) <= 0) break;
+            place(idx, c);
+            idx = child;
+        }
+        place(idx, task);
+    }
+
+    private void place(int idx, Task task) {
+        heap[idx] = task;
+        positions.put(task, idx);
+    }
+
+    private int compare(Task t1, Task t2) {
+        return comparator == null ? t1.compareTo(t2) : comparator.compare(t1, t2);
+    }
+}
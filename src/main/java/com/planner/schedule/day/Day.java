@@ -20,6 +20,8 @@ public class Day {
 
     /** Holds the date and time of the particular Day */
     private Calendar date;
+    /** Local epoch minute for the start of the Day (used for all scheduling comparisons) */
+    private long dateMinute;
     /** Number of hours possible for a given Day */
     private double capacity;
     /** Number of hours filled for a given Day */
@@ -32,9 +34,18 @@ public class Day {
     private final List<Event> eventList;
 
     private final List<TimeStamp> eventTimeStamps;
+    /** Quarter-hour free/busy bitmap of all events and subtasks (used for slot finding) */
+    private Occupancy occupancy;
+    /** Whether the occupancy is still shared with the adopted EventTemplate */
+    private boolean occupancyShared;
+    /** Recurring events adopted by the Day whose occurrences haven't been created yet */
+    private EventTemplate template;
     /** ID for the specific Day */
     private int id;
 
+    /** Minimum number of quarter-hour slots needed to schedule a SubTask (30 minutes) */
+    private static final int MIN_SUBTASK_SLOTS = 2;
+
     // used purely for testing
     static SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
 
@@ -53,16 +64,19 @@ public class Day {
         taskTimeStamps = new ArrayList<>();
         eventList = new ArrayList<>();
         eventTimeStamps = new ArrayList<>();
+        occupancy = new Occupancy();
     }
 
     public Day(int id, double capacity, Calendar date) {
         setId(id);
         setCapacity(capacity);
         this.date = date;
+        this.dateMinute = Time.getStartOfDay(Time.toEpochMinute(date));
         subtaskManager = new ArrayList<>();
         taskTimeStamps = new ArrayList<>();
         eventList = new ArrayList<>();
         eventTimeStamps = new ArrayList<>();
+        occupancy = new Occupancy();
     }
 
     /**
@@ -88,6 +102,7 @@ public class Day {
      */
     private void setDate(int incrementation) {
         this.date = Time.getFormattedCalendarInstance(incrementation);
+        this.dateMinute = Time.toEpochMinute(this.date);
     }
 
     public double getSize() {
@@ -103,12 +118,39 @@ public class Day {
         return date;
     }
 
+    /**
+     * Gets the local epoch minute for the start of the Day
+     *
+     * @return epoch minute at 12:00 AM of the Day
+     */
+    public long getDateMinute() {
+        return dateMinute;
+    }
+
     public void addSubTask(Task task, double hours, boolean overflow) {
         Task.SubTask subtask = task.addSubTask(hours, overflow, null);
         subtaskManager.add(subtask);
         this.size += hours;
     }
 
+    /**
+     * Restores a SubTask exactly where it was scheduled when the schedule was saved
+     *
+     * @param task parent Task of the SubTask
+     * @param hours number of hours for the SubTask
+     * @param overflow overflow status of the SubTask
+     * @param timeStamp TimeStamp the SubTask was scheduled at
+     * @return boolean status for whether the hours still fit within the Task
+     */
+    public boolean restoreSubTask(Task task, double hours, boolean overflow, TimeStamp timeStamp) {
+        Task.SubTask subtask = task.addSubTask(hours, overflow, timeStamp);
+        if (subtask == null) return false;
+        addTaskTimeStamp(timeStamp);
+        subtaskManager.add(subtask);
+        this.size += hours;
+        return true;
+    }
+
     /**
      * Gets the parent task based on the specified subtask index value
      *
@@ -130,6 +172,8 @@ public class Day {
     public boolean addSubTaskManually(Task task, double hours, UserConfig userConfig, Calendar time, boolean isToday) {
         if (hours <= 0) return false;
         boolean overflow = this.size + hours > this.capacity;
+        // the only conversion from Calendar during scheduling (everything below works with epoch minutes)
+        long timeMinute = Time.toEpochMinute(time);
 //        SubTask subtask = task.addSubTask(hours, overflow); // todo need to rearrange this here
 
 //        subtaskManager.add(subtask);
@@ -137,15 +181,15 @@ public class Day {
 
         // todo will end up using the while loop code below since we'll be merging the two methods together
         // nothing changes here (thank God)
-        if (eventList.isEmpty()) {
-            createNonEventTimeStamps(hours, userConfig, time, isToday);
+        if (!hasEvents()) {
+            createNonEventTimeStamps(hours, userConfig, timeMinute, isToday);
             SubTask subTask = task.addSubTask(hours, overflow, taskTimeStamps.get(taskTimeStamps.size() - 1));
             subtaskManager.add(subTask);
             this.size += hours;
         } else {
             while (hours > 0) {
                 double prevHours = hours;
-                hours -= createEventTimeStamps(hours, userConfig, time, isToday);
+                hours -= createEventTimeStamps(hours, userConfig, timeMinute, isToday);
                 // add subtask to subtaskManager
                 SubTask subTask = task.addSubTask(prevHours - hours, overflow, taskTimeStamps.get(taskTimeStamps.size() - 1));
                 subtaskManager.add(subTask);
@@ -156,75 +200,159 @@ public class Day {
         return this.size <= this.capacity;
     }
 
-    private void createNonEventTimeStamps(double hours, UserConfig userConfig, Calendar time, boolean isToday) {
+    private void createNonEventTimeStamps(double hours, UserConfig userConfig, long time, boolean isToday) {
         // handles the creation of timestamps for subtasks created
-        int taskHours = (int) hours;
-        int taskMin = hours % 1 == 0.5 ? 30 : 0;
-        Calendar temp;
-        if (isToday) {
-            temp = time;
-        } else {
-            temp = this.date;
-        }
-        Calendar startTime = Time.getFirstAvailableTimeInDay(taskTimeStamps, eventTimeStamps, userConfig, temp, isToday);
-        Calendar endTime = (Calendar) startTime.clone();
-        endTime.add(Calendar.HOUR_OF_DAY, taskHours);
-        endTime.add(Calendar.MINUTE, taskMin);
+        long temp = isToday ? time : this.dateMinute;
+        long startTime = getFirstAvailableTime(userConfig, temp, isToday);
+        long endTime = startTime + Time.toMinutes(hours);
 
-        taskTimeStamps.add(new TimeStamp(startTime, endTime));
+        addTaskTimeStamp(new TimeStamp(startTime, endTime));
     }
 
     // [COMPLETE]
-    private double createEventTimeStamps(double hours, UserConfig userConfig, Calendar time, boolean isToday) {
+    private double createEventTimeStamps(double hours, UserConfig userConfig, long time, boolean isToday) {
         /*
         Steps:
         1. Call getFirstAvailableTime(...) to determine first available (and usable) timeslot (Note: usable means > 30 min)
-        2. Call getTimeUntilEvent(...) to determine how much time is available
+        2. Find the next busy slot in the occupancy bitmap to determine how much time is available
             a. If enough for all, add the task
             b. If not enough for all but some, add the task and return how many hours/min are remaining
             c. If not enough at all, return 0 (return value represent how much time the task was just scheduled)
             d. Repeat until task is completed (remember, Day needs a method that tells the scheduler how many hours are AVAILABLE, so we can assume we have enough)
         3. Done
          */
-        Calendar temp;
-        if (isToday) {
-            temp = time;
+        long temp = isToday ? time : this.dateMinute;
+        long startTime = getFirstAvailableTime(userConfig, temp, isToday);
+        int nextBusy = occupancy.nextBusy(toSlot(startTime, false));
+
+        if (nextBusy < Occupancy.SLOTS) {
+            hours = Math.min(hours, Time.getTimeInterval(startTime, toMinute(nextBusy)));
+        }
+
+        long endTime = startTime + Time.toMinutes(hours);
+
+        addTaskTimeStamp(new TimeStamp(startTime, endTime));
+        return hours;
+    }
+
+    /**
+     * Determines the first time in the Day where a SubTask can be scheduled. Scheduling continues from the end of
+     * the last SubTask, and any events in the way are skipped over via the occupancy bitmap.
+     *
+     * @param userConfig user settings for scheduling purposes
+     * @param time epoch minute that scheduling is relative to (current time if today, otherwise start of Day)
+     * @param isToday whether the Day being scheduled is today
+     * @return epoch minute of the first available time
+     */
+    private long getFirstAvailableTime(UserConfig userConfig, long time, boolean isToday) {
+        long startTime;
+        if (isToday && Time.getHourOfDay(time) >= userConfig.getRange()[0] && taskTimeStamps.isEmpty() && !userConfig.isDefaultAtStart()) {
+            startTime = Time.getNearestQuarterOfHour(time, true);
+        } else if (taskTimeStamps.isEmpty()) {
+            startTime = Time.getStartOfDay(time) + (long) userConfig.getRange()[0] * Time.MINUTES_PER_HOUR;
         } else {
-            temp = this.date;
+            startTime = taskTimeStamps.get(taskTimeStamps.size() - 1).getEndMinute();
         }
-        Calendar startTime = Time.getFirstAvailableTimeInDay(taskTimeStamps, eventTimeStamps, userConfig, temp, isToday);
-        String s = sdf.format(startTime.getTime());
-        TimeStamp eventTimeStamp = null;
-        for (TimeStamp eTS : eventTimeStamps) { // this list needs to be sorted (given assumption below)
-            if (Time.isBeforeEvent(startTime, eTS.getStart())) {
-                eventTimeStamp = eTS;
-                break;
-            }
+
+        if (!hasEvents()) {
+            return startTime;
         }
 
-        if (eventTimeStamp != null) {
-            hours = Math.min(hours, Time.getTimeInterval(startTime, eventTimeStamp.getStart()));
+        // skips over any events (and gaps too small for a SubTask) in constant time
+        int slot = toSlot(startTime, true);
+        int fit = occupancy.firstFit(slot, MIN_SUBTASK_SLOTS);
+        return fit == slot ? startTime : toMinute(fit);
+    }
+
+    /**
+     * Adds a SubTask TimeStamp to the Day and marks it within the occupancy bitmap
+     *
+     * @param timeStamp TimeStamp of the SubTask
+     */
+    private void addTaskTimeStamp(TimeStamp timeStamp) {
+        taskTimeStamps.add(timeStamp);
+        writableOccupancy().mark(toSlot(timeStamp.getStartMinute(), false), toSlot(timeStamp.getEndMinute(), true));
+    }
+
+    /**
+     * Converts an epoch minute to its quarter-hour slot within the Day
+     *
+     * @param epochMinute epoch minute being converted
+     * @param roundUp whether a minute between slots is rounded up or down
+     * @return slot index (may fall outside of the Day)
+     */
+    private int toSlot(long epochMinute, boolean roundUp) {
+        long offset = epochMinute - dateMinute;
+        if (roundUp) offset += Occupancy.SLOT_MINUTES - 1;
+        return (int) Math.floorDiv(offset, (long) Occupancy.SLOT_MINUTES);
+    }
+
+    /**
+     * Converts a quarter-hour slot of the Day to its epoch minute
+     *
+     * @param slot slot index
+     * @return epoch minute at start of slot
+     */
+    private long toMinute(int slot) {
+        return dateMinute + (long) slot * Occupancy.SLOT_MINUTES;
+    }
+
+    /**
+     * Adopts the recurring events of an EventTemplate. The occupancy of the template is shared until the Day is
+     * modified, and the occurrences of its events are only created once they are looked at.
+     *
+     * @param template recurring events for the weekday of the Day
+     */
+    public void adoptTemplate(EventTemplate template) {
+        if (this.template != null || !eventList.isEmpty() || !taskTimeStamps.isEmpty()) {
+            throw new IllegalArgumentException("EventTemplate can only be adopted by an empty Day");
         }
+        if (template.isEmpty()) return;
+        this.template = template;
+        this.occupancy = template.getOccupancy();
+        this.occupancyShared = true;
+    }
 
-        int taskHours = (int) hours;
-        int taskMin = hours % 1 == 0.5 ? 30 : 0;
+    /**
+     * Determines whether the Day has any events
+     *
+     * @return boolean value for whether the Day has events
+     */
+    private boolean hasEvents() {
+        return template != null || !eventList.isEmpty();
+    }
 
-        Calendar endTime = (Calendar) startTime.clone();
-        endTime.add(Calendar.HOUR_OF_DAY, taskHours);
-        endTime.add(Calendar.MINUTE, taskMin);
+    /**
+     * Creates the occurrences of the events of the adopted EventTemplate
+     */
+    private void createTemplateEvents() {
+        if (template == null) return;
+        for (int i = 0; i < template.size(); i++) {
+            Event event = template.createOccurrence(i, dateMinute);
+            eventList.add(event);
+            eventTimeStamps.add(event.getTimeStamp());
+        }
+        template = null;
+    }
 
-        taskTimeStamps.add(new TimeStamp(startTime, endTime));
-        return hours;
+    /**
+     * Gets the occupancy for modification, copying it first if it is shared with the adopted EventTemplate
+     *
+     * @return occupancy of the Day
+     */
+    private Occupancy writableOccupancy() {
+        if (occupancyShared) {
+            occupancy = occupancy.copy();
+            occupancyShared = false;
+        }
+        return occupancy;
     }
 
     public boolean addEvent(Event event) {
+        createTemplateEvents();
         if (event.isRecurring()) { // this fixes issue for recurring events since they can happen on any day
-            Calendar start = (Calendar) date.clone();
-            start.set(Calendar.HOUR_OF_DAY, event.getTimeStamp().getStartHour());
-            start.set(Calendar.MINUTE, event.getTimeStamp().getStartMin());
-            Calendar end = (Calendar) date.clone();
-            end.set(Calendar.HOUR_OF_DAY, event.getTimeStamp().getEndHour());
-            end.set(Calendar.MINUTE, event.getTimeStamp().getEndMin());
+            long start = dateMinute + Time.getMinuteOfDay(event.getTimeStamp().getStartMinute());
+            long end = dateMinute + Time.getMinuteOfDay(event.getTimeStamp().getEndMinute());
             event = new Event(event.getId(), event.getName(), event.getColor(), new TimeStamp(start, end), event.getDays());
         }
         int idx = 0;
@@ -233,7 +361,7 @@ public class Day {
             if (Time.isConflictingEvent(event, e1))
                 return false;
             else {
-                if (Time.isBeforeEvent(event.getTimeStamp().getStart(), e1.getTimeStamp().getStart())) {
+                if (Time.isBeforeEvent(event.getTimeStamp().getStartMinute(), e1.getTimeStamp().getStartMinute())) {
                     idxFound = true;
                     break; // this prevents the search from incrementing idx past its correct spot
                 } else {
@@ -249,6 +377,8 @@ public class Day {
             eventList.add(event);
             eventTimeStamps.add(event.getTimeStamp());
         }
+        // events which don't align with the quarter-hour occupy every slot they touch
+        writableOccupancy().mark(toSlot(event.getTimeStamp().getStartMinute(), false), toSlot(event.getTimeStamp().getEndMinute(), true));
 
         // todo will need to add config option here that tallies event hours just the same as tasks (used with counting hours left in day)
 
@@ -260,6 +390,7 @@ public class Day {
     }
 
     public Event getEvent(int eventIdx) {
+        createTemplateEvents();
         return eventList.get(eventIdx);
     }
 
@@ -273,7 +404,7 @@ public class Day {
     }
 
     public int getNumEvents() {
-        return eventList.size();
+        return eventList.size() + (template == null ? 0 : template.size());
     }
 
     private void setId(int id) {
@@ -361,10 +492,31 @@ public class Day {
     }
 
     public List<Event> getEventList() {
+        createTemplateEvents();
         return eventList;
     }
 
     public List<TimeStamp> getEventTimeStamps() {
+        createTemplateEvents();
         return eventTimeStamps;
     }
+
+    /**
+     * Gets the quarter-hour free/busy bitmap of the Day. It may be shared with an EventTemplate until the Day
+     * marks a slot of its own, which is why only this package can modify it.
+     *
+     * @return occupancy bitmap
+     */
+    public Occupancy getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Gets the largest block of free time in the Day
+     *
+     * @return number of hours in the largest free block
+     */
+    public double getLargestFreeBlock() {
+        return occupancy.largestGap() * Occupancy.SLOT_MINUTES / (double) Time.MINUTES_PER_HOUR;
+    }
 }
\ No newline at end of file
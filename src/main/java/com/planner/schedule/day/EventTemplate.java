@@ -0,0 +1,113 @@
+package com.planner.schedule.day;
+
+import com.planner.models.Event;
+import com.planner.util.Time;
+import com.planner.util.Time.TimeStamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of recurring Events for a day of the week, compiled once and shared by every Day falling on that
+ * weekday. The Events are sorted and conflict-checked the same way {@link Day#addEvent(Event)} would, and their
+ * occupancy is precomputed. A Day adopting the template only copies the occupancy once something else is scheduled,
+ * and only creates the occurrences of the Events when they are looked at.
+ *
+ * @author Andrew Roe
+ */
+public final class EventTemplate {
+
+    /** Template with no Events */
+    public static final EventTemplate EMPTY = new EventTemplate(List.of());
+
+    /** Occurrences of the recurring Events on epoch day 0, in order of their start time */
+    private final Event[] events;
+    /** Quarter-hours occupied by the Events */
+    private final Occupancy occupancy;
+
+    /**
+     * Compiles a template from the recurring Events of a day of the week
+     *
+     * @param recurringEvents recurring Events in the order they were added
+     */
+    public EventTemplate(Collection<Event> recurringEvents) {
+        // Events are compared as occurrences on the same (arbitrary) day
+        List<Event> sorted = new ArrayList<>(recurringEvents.size());
+        for (Event event : recurringEvents) {
+            if (!event.isRecurring()) throw new IllegalArgumentException("Event templates only hold recurring Events");
+            Event occurrence = occurrenceOf(event, 0);
+            int idx = 0;
+            boolean conflict = false;
+            for (Event e1 : sorted) {
+                if (Time.isConflictingEvent(occurrence, e1)) {
+                    conflict = true;
+                    break;
+                }
+                if (Time.isBeforeEvent(occurrence.getTimeStamp().getStartMinute(), e1.getTimeStamp().getStartMinute())) break;
+                idx++;
+            }
+            if (!conflict) sorted.add(idx, occurrence);
+        }
+
+        this.events = sorted.toArray(new Event[0]);
+        this.occupancy = new Occupancy();
+        for (Event event : events) {
+            // events which don't align with the quarter-hour occupy every slot they touch
+            occupancy.mark((int) Math.floorDiv(event.getTimeStamp().getStartMinute(), (long) Occupancy.SLOT_MINUTES),
+                    (int) Math.floorDiv(event.getTimeStamp().getEndMinute() + Occupancy.SLOT_MINUTES - 1,
+                            (long) Occupancy.SLOT_MINUTES));
+        }
+    }
+
+    /**
+     * Gets the number of Events in the template
+     *
+     * @return number of Events
+     */
+    public int size() {
+        return events.length;
+    }
+
+    /**
+     * Determines whether the template has no Events
+     *
+     * @return boolean value for whether the template is empty
+     */
+    public boolean isEmpty() {
+        return events.length == 0;
+    }
+
+    /**
+     * Gets the quarter-hours occupied by the Events (shared, so it must not be modified)
+     *
+     * @return occupancy of the template
+     */
+    Occupancy getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Creates the occurrence of an Event on a given day
+     *
+     * @param idx index of the Event
+     * @param dateMinute epoch minute of the start of the day
+     * @return Event taking place on the day
+     */
+    Event createOccurrence(int idx, long dateMinute) {
+        return occurrenceOf(events[idx], dateMinute);
+    }
+
+    /**
+     * Creates the occurrence of a recurring Event on a given day
+     *
+     * @param event recurring Event
+     * @param dateMinute epoch minute of the start of the day
+     * @return Event taking place on the day
+     */
+    private static Event occurrenceOf(Event event, long dateMinute) {
+        long start = dateMinute + Time.getMinuteOfDay(event.getTimeStamp().getStartMinute());
+        long end = dateMinute + Time.getMinuteOfDay(event.getTimeStamp().getEndMinute());
+        return new Event(event.getId(), event.getName(), event.getColor(), new TimeStamp(start, end), event.getDays());
+    }
+}
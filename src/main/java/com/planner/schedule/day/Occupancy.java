@@ -0,0 +1,179 @@
+package com.planner.schedule.day;
+
+/**
+ * Free/busy bitmap of a single {@link Day} at quarter-hour granularity. Each of the 96 quarters of the
+ * day is represented by one bit (set = busy), split across two longs so that slot searches are performed
+ * with a handful of bit operations rather than walking the timestamps of the Day.
+ * <p>
+ * Quarters are indexed from 0 (12:00am-12:15am) to 95 (11:45pm-12:00am). Any index at or beyond
+ * {@link #SLOTS} is treated as free since nothing is ever scheduled there by events.
+ * <p>
+ * Only {@link Day} and {@link EventTemplate} mark slots, so the Occupancy of a Day (which may be shared with its
+ * template) is read-only outside of this package.
+ *
+ * @author Andrew Roe
+ */
+public class Occupancy {
+
+    /** Number of quarter-hour slots in a day */
+    public static final int SLOTS = 96;
+    /** Number of minutes per slot */
+    public static final int SLOT_MINUTES = 15;
+    /** Mask for the valid bits of the upper word (slots 64-95) */
+    private static final long HIGH_MASK = (1L << (SLOTS - 64)) - 1;
+
+    /** Slots 0-63 */
+    private long low;
+    /** Slots 64-95 (only the lower 32 bits are used) */
+    private long high;
+
+    /**
+     * Constructs an empty (entirely free) Occupancy
+     */
+    public Occupancy() {
+        this(0L, 0L);
+    }
+
+    private Occupancy(long low, long high) {
+        this.low = low;
+        this.high = high & HIGH_MASK;
+    }
+
+    /**
+     * Creates a copy of the Occupancy
+     *
+     * @return new Occupancy with the same busy slots
+     */
+    public Occupancy copy() {
+        return new Occupancy(low, high);
+    }
+
+    /**
+     * Marks the slots in the range [from, to) as busy. Values outside the day are clipped.
+     *
+     * @param from first slot (inclusive)
+     * @param to last slot (exclusive)
+     */
+    void mark(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, SLOTS);
+        if (from >= to) return;
+        low |= rangeMask(from, to, 0);
+        high |= rangeMask(from, to, 64) & HIGH_MASK;
+    }
+
+    /**
+     * Marks every slot busy in the given Occupancy as busy in this one as well
+     *
+     * @param other Occupancy being merged
+     */
+    void merge(Occupancy other) {
+        low |= other.low;
+        high |= other.high;
+    }
+
+    /**
+     * Determines whether any slot in the range [from, to) is busy
+     *
+     * @param from first slot (inclusive)
+     * @param to last slot (exclusive)
+     * @return true if any slot in the range is busy
+     */
+    public boolean isBusy(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, SLOTS);
+        if (from >= to) return false;
+        return (low & rangeMask(from, to, 0)) != 0 || (high & rangeMask(from, to, 64)) != 0;
+    }
+
+    /**
+     * Gets the first busy slot at or after the given slot
+     *
+     * @param from starting slot
+     * @return first busy slot, or {@link #SLOTS} if the rest of the day is free
+     */
+    public int nextBusy(int from) {
+        if (from >= SLOTS) return SLOTS;
+        from = Math.max(from, 0);
+        if (from < 64) {
+            long word = low & (-1L << from);
+            if (word != 0) return Long.numberOfTrailingZeros(word);
+            from = 64;
+        }
+        long word = high & (-1L << (from - 64));
+        return word != 0 ? 64 + Long.numberOfTrailingZeros(word) : SLOTS;
+    }
+
+    /**
+     * Gets the first free slot at or after the given slot
+     *
+     * @param from starting slot
+     * @return first free slot, or {@link #SLOTS} if the rest of the day is busy
+     */
+    public int nextFree(int from) {
+        if (from >= SLOTS) return from;
+        from = Math.max(from, 0);
+        if (from < 64) {
+            long word = ~low & (-1L << from);
+            if (word != 0) return Long.numberOfTrailingZeros(word);
+            from = 64;
+        }
+        long word = ~high & HIGH_MASK & (-1L << (from - 64));
+        return word != 0 ? 64 + Long.numberOfTrailingZeros(word) : SLOTS;
+    }
+
+    /**
+     * Finds the first run of at least {@code length} free slots starting at or after the given slot.
+     * The search runs over free/busy boundaries, so it is bounded by the number of slots rather than
+     * by the number of events in the Day.
+     *
+     * @param from starting slot
+     * @param length minimum number of consecutive free slots
+     * @return first slot of the run (a value of {@link #SLOTS} or greater means after the end of the day)
+     */
+    public int firstFit(int from, int length) {
+        int start = nextFree(from);
+        while (start < SLOTS) {
+            int end = nextBusy(start);
+            if (end - start >= length || end == SLOTS) return start;
+            start = nextFree(end);
+        }
+        return Math.max(start, from);
+    }
+
+    /**
+     * Gets the length of the largest run of free slots in the day
+     *
+     * @return number of slots in largest free run
+     */
+    public int largestGap() {
+        int largest = 0;
+        int start = nextFree(0);
+        while (start < SLOTS) {
+            int end = nextBusy(start);
+            largest = Math.max(largest, end - start);
+            start = nextFree(end);
+        }
+        return largest;
+    }
+
+    /**
+     * Gets the total number of busy slots
+     *
+     * @return number of busy slots
+     */
+    public int busySlots() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    /**
+     * Builds the mask of bits [from, to) for the 64-bit word starting at slot {@code base}
+     */
+    private static long rangeMask(int from, int to, int base) {
+        int lo = Math.max(from - base, 0);
+        int hi = Math.min(to - base, 64);
+        if (lo >= hi) return 0L;
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+}
@@ -9,6 +9,7 @@ import com.planner.models.web.ScriptPage;
 import com.planner.schedule.day.Day;
 import com.planner.scripter.exception.*;
 import com.planner.scripter.tools.ScriptLog;
+import com.planner.scripter.tools.ScriptProfiler;
 import com.planner.models.CheckList;
 import com.planner.util.EventLog;
 import com.planner.util.Time;
@@ -47,6 +48,10 @@ public class ScriptFSM {
     private Scanner scriptScanner;
     private List<String> injectScript = new ArrayList<>();
     private int injectScriptIdx;
+    /** Number of the last line read from the script file */
+    private int lineNumber;
+    /** Profiles the script when __STATS__ is set (null otherwise) */
+    private ScriptProfiler profiler;
     private final ScheduleManager scheduleManager = ScheduleManager.getScheduleManager();
 
     public void executeScript(String filename) throws IOException {
@@ -56,15 +61,22 @@ public class ScriptFSM {
         scriptScanner = new Scanner(new File(filename));
         while (scriptScanner.hasNextLine() || !injectScript.isEmpty() && injectScriptIdx < injectScript.size()) {
             String untrimmed;
-            if(!injectScript.isEmpty() && injectScriptIdx < injectScript.size()) {
+            boolean injected = !injectScript.isEmpty() && injectScriptIdx < injectScript.size();
+            if(injected) {
                 untrimmed = injectScript.get(injectScriptIdx++);
             } else {
                 untrimmed = scriptScanner.nextLine();
+                lineNumber++;
             }
 
             String line = untrimmed.trim();
             boolean status = true;
             while(status) {
+                int profilerMark = 0;
+                if(profiler != null) {
+                    profilerMark = profiler.getDepth();
+                    profiler.enterScriptLine(injected ? -injectScriptIdx : lineNumber, line);
+                }
                 Parser.Operation operation = parser.typeOfOperation(line);
                 try {
                     switch (operation) {
@@ -75,6 +87,7 @@ public class ScriptFSM {
                             if (preProcessor == null) throw new InvalidPreProcessorException();
                             this.preProcessor = preProcessor;
                             ppStatus = true;
+                            if(preProcessor.isStats()) profiler = new ScriptProfiler();
                             scriptLog.reportPreProcessorSetup(preProcessor);
                             break;
                         case ATTRIBUTE:
@@ -181,6 +194,7 @@ public class ScriptFSM {
                     }
                     System.exit(1);
                 }
+                if(profiler != null) profiler.exit(profilerMark);
 
                 if(operation != Parser.Operation.SETUP_CUST_FUNC) {
                     status = false;
@@ -196,7 +210,12 @@ public class ScriptFSM {
 //        scheduleManager.outputScheduleToConsole();
 
         IOProcessing.writeScripterLogToFile(scriptLog.toString());
-        IOProcessing.writeSysLogToFile(eventLog.toString());
+        eventLog.flush();
+        String profile = null;
+        if(profiler != null) {
+            profile = profiler.toString();
+            System.out.println("\nSCRIPT PROFILE:\n" + profile);
+        }
         Path path = Paths.get(filename);
         if(preProcessor.isLog()) {
             try {
@@ -214,7 +233,8 @@ public class ScriptFSM {
             File script = new File(filename);
             String scriptName = script.getName();
             String scriptStr = Files.readString(path);
-            ScriptPage scriptPage = new ScriptPage(scriptLog.toString(), eventLog.toString(), scriptStr, scriptName);
+            ScriptPage scriptPage = new ScriptPage(scriptLog.toString(), eventLog.toString(), scriptStr, scriptName,
+                    profile);
             IOProcessing.writeScripterPage(scriptPage.buildPage(), scriptName.substring(0, scriptName.length() - 5));
         }
     }
@@ -361,6 +381,7 @@ public class ScriptFSM {
         boolean flag = false;
         while(scriptScanner.hasNextLine()) {
             line = scriptScanner.nextLine();
+            lineNumber++;
             int spacing = numSpaces(line);
             if(spacing <= customFunction.getNumSpaces()) {
                 flag = true;
@@ -425,7 +446,7 @@ public class ScriptFSM {
             } else {
                 t1.setLinkerData(new Card(scheduleManager.getCards().size(), card.getTitle(), colorId), Type.TypeId.CARD);
             }
-            scheduleManager.getCards().add((Card) t1.getLinkerData());
+            scheduleManager.addCard((Card) t1.getLinkerData());
         } else if (classInstance instanceof TaskInstance) {
             TaskInstance task = (TaskInstance) classInstance;
             t1 = lookupVariable(task.getVarName());
@@ -669,6 +690,19 @@ public class ScriptFSM {
     }
 
     protected void processCustomFunction(StaticFunction func, Type[] args) {
+        if(profiler == null) {
+            runCustomFunction(func, args);
+            return;
+        }
+        int mark = profiler.enterFunction(func.getFuncName());
+        try {
+            runCustomFunction(func, args);
+        } finally {
+            profiler.exit(mark);
+        }
+    }
+
+    private void runCustomFunction(StaticFunction func, Type[] args) {
         CustomFunction customFunction = funcMap.get(func.getFuncName());
         List<Type> localStack = new ArrayList<>();
         if(!"if".equals(func.getFuncName()) && customFunction.getArgs().length != args.length) throw new InvalidFunctionException();
@@ -692,6 +726,7 @@ public class ScriptFSM {
             String line = customFunction.getLines().get(lineIdx);
             String untrimmed = line;
             line = line.trim();
+            if(profiler != null) profiler.enterFunctionLine(func.getFuncName(), lineIdx, line);
             Parser.Operation operation = parser.typeOfOperation(line);
             switch (operation) {
                 case COMMENT:
@@ -937,7 +972,7 @@ public class ScriptFSM {
 //    }
 
     protected void funcBuild() {
-        scheduleManager.buildSchedule();
+        scheduleManager.updateSchedule();
     }
 
     protected void funcImportSchedule(String filename) {
@@ -1,7 +1,9 @@
 package com.planner.scripter;
 
 import com.planner.models.Card;
+import com.planner.manager.ScheduleManager;
 import com.planner.models.Linker;
+import com.planner.models.Task;
 import com.planner.scripter.exception.InvalidGrammarException;
 import com.planner.models.CheckList;
 
@@ -474,7 +476,16 @@ public class Type implements Comparable<Type> {
      * @return boolean status for success
      */
     private boolean addType(Type o) {
-        return datatype.add(o.getLinkerData());
+        Linker data = o.getLinkerData();
+        // changes to the board go through the ScheduleManager so that they are journaled
+        ScheduleManager scheduleManager = ScheduleManager.getScheduleManager();
+        if(datatype instanceof Card && data instanceof Task) {
+            return scheduleManager.addTaskToCard((Task) data, (Card) datatype);
+        }
+        if(datatype instanceof Task && data instanceof CheckList) {
+            return scheduleManager.addTaskCheckList((Task) datatype, (CheckList) data);
+        }
+        return datatype.add(data);
     }
 
     /**
@@ -0,0 +1,241 @@
+package com.planner.scripter.tools;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One of the built-in tooling options for the {@code Simple} scripting language, enabled by {@code __STATS__}. Records
+ * how often each line of a script and each custom function runs, along with the time spent in it (in total and outside
+ * of the lines and functions it calls) and the memory it allocates, and reports the hot spots sorted by their own time.
+ * <p>
+ * Lines and custom functions are tracked on a stack of frames: entering a line closes the line before it at the same
+ * level, and leaving a function closes every line still open inside it. Time spent in a recursive function only
+ * counts once towards its total.
+ *
+ * @author Andrew Roe
+ */
+public class ScriptProfiler {
+
+    /** Owner of the lines of the script itself */
+    private static final String SCRIPT = "";
+    /** Owner of the lines injected while the script runs */
+    private static final String INJECTED = "\0";
+    /** Largest number of sites in the report */
+    private static final int REPORT_ROWS = 30;
+
+    /** Sites of each owner (the script or a custom function) by their index */
+    private final Map<String, List<Site>> lineSites = new HashMap<>();
+    /** Sites of each custom function */
+    private final Map<String, Site> functionSites = new HashMap<>();
+    /** Every site, in the order first entered */
+    private final List<Site> sites = new ArrayList<>();
+    /** Open frames, innermost last */
+    private Frame[] stack = new Frame[16];
+    private int depth;
+    /** Reads the bytes allocated by the current thread (null if the JVM can't) */
+    private final com.sun.management.ThreadMXBean allocations;
+
+    /**
+     * Creates a profiler, measuring allocations where the JVM supports it
+     */
+    public ScriptProfiler() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = null;
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) allocations = bean;
+        }
+        this.allocations = allocations;
+        for (int i = 0; i < stack.length; i++) {
+            stack[i] = new Frame();
+        }
+    }
+
+    /**
+     * Gets the current depth of the stack, to be passed to {@link #exit(int)} once the work started here is done
+     *
+     * @return number of open frames
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Enters a line of the script, closing the line before it
+     *
+     * @param lineNumber number of the line in the script, or minus the number of an injected line
+     * @param line text of the line
+     */
+    public void enterScriptLine(int lineNumber, String line) {
+        Site site = lineSite(lineNumber < 0 ? INJECTED : SCRIPT, Math.abs(lineNumber));
+        if (site.name == null) {
+            site.name = (lineNumber < 0 ? "injected " : "line ") + Math.abs(lineNumber) + ": " + line;
+        }
+        push(site, true);
+    }
+
+    /**
+     * Enters a line in the body of a custom function, closing the line before it
+     *
+     * @param function name of the custom function
+     * @param lineIdx index of the line in the body
+     * @param line text of the line
+     */
+    public void enterFunctionLine(String function, int lineIdx, String line) {
+        Site site = lineSite(function, lineIdx + 1);
+        if (site.name == null) site.name = function + ":" + (lineIdx + 1) + ": " + line;
+        push(site, true);
+    }
+
+    /**
+     * Enters a call to a custom function
+     *
+     * @param function name of the custom function
+     * @return depth to be passed to {@link #exit(int)} once the call returns
+     */
+    public int enterFunction(String function) {
+        int mark = depth;
+        Site site = functionSites.get(function);
+        if (site == null) {
+            site = addSite("function " + function + "()");
+            functionSites.put(function, site);
+        }
+        push(site, false);
+        return mark;
+    }
+
+    /**
+     * Closes every frame opened since the stack had the given depth
+     *
+     * @param mark depth of the stack to return to
+     */
+    public void exit(int mark) {
+        if (depth <= mark) return;
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        while (depth > mark) {
+            pop(now, allocated);
+        }
+    }
+
+    /**
+     * Builds the report of the sites that took the most time of their own
+     *
+     * @return table of the hot spots
+     */
+    @Override
+    public String toString() {
+        List<Site> sorted = new ArrayList<>(sites);
+        sorted.sort((a, b) -> Long.compare(b.selfNanos, a.selfNanos));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%10s %10s %8s %10s  %s%n", "SELF(ms)", "TOTAL(ms)", "CALLS", "ALLOC(KB)",
+                "SITE"));
+        for (int i = 0; i < sorted.size() && i < REPORT_ROWS; i++) {
+            Site site = sorted.get(i);
+            String allocated = allocations == null ? "-" : Long.toString(site.allocatedBytes / 1024);
+            sb.append(String.format(Locale.ROOT, "%10.3f %10.3f %8d %10s  %s%n", site.selfNanos / 1e6,
+                    site.totalNanos / 1e6, site.calls, allocated, site.name));
+        }
+        if (sorted.size() > REPORT_ROWS) {
+            sb.append("... ").append(sorted.size() - REPORT_ROWS).append(" more sites\n");
+        }
+        return sb.toString();
+    }
+
+    // the site is pushed by the caller once named, so that naming it isn't counted as its own time
+    private Site lineSite(String owner, int idx) {
+        // a line ends where the next one at the same level starts
+        if (depth > 0 && stack[depth - 1].line) exit(depth - 1);
+        List<Site> owned = lineSites.computeIfAbsent(owner, o -> new ArrayList<>());
+        while (owned.size() <= idx) {
+            owned.add(null);
+        }
+        Site site = owned.get(idx);
+        if (site == null) {
+            site = addSite(null);
+            owned.set(idx, site);
+        }
+        return site;
+    }
+
+    private Site addSite(String name) {
+        Site site = new Site(name);
+        sites.add(site);
+        return site;
+    }
+
+    private void push(Site site, boolean line) {
+        if (depth == stack.length) {
+            Frame[] grown = new Frame[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            for (int i = depth; i < grown.length; i++) {
+                grown[i] = new Frame();
+            }
+            stack = grown;
+        }
+        Frame frame = stack[depth++];
+        frame.site = site;
+        frame.line = line;
+        frame.childNanos = 0;
+        frame.childBytes = 0;
+        site.calls++;
+        site.active++;
+        // read last, so that setting up the frame isn't measured
+        frame.allocatedAtStart = allocatedBytes();
+        frame.start = System.nanoTime();
+    }
+
+    private void pop(long now, long allocated) {
+        Frame frame = stack[--depth];
+        Site site = frame.site;
+        long nanos = now - frame.start;
+        long bytes = allocated - frame.allocatedAtStart;
+        site.selfNanos += nanos - frame.childNanos;
+        site.allocatedBytes += bytes - frame.childBytes;
+        // an outer call of a recursive function already covers this time
+        if (--site.active == 0) site.totalNanos += nanos;
+        if (depth > 0) {
+            stack[depth - 1].childNanos += nanos;
+            stack[depth - 1].childBytes += bytes;
+        }
+        frame.site = null;
+    }
+
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Line or custom function being profiled
+     */
+    private static final class Site {
+        private String name;
+        private long calls;
+        private long totalNanos;
+        private long selfNanos;
+        private long allocatedBytes;
+        /** Number of open frames of the site */
+        private int active;
+
+        Site(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Open line or function call, reused once closed
+     */
+    private static final class Frame {
+        private Site site;
+        private boolean line;
+        private long start;
+        private long allocatedAtStart;
+        private long childNanos;
+        private long childBytes;
+    }
+}
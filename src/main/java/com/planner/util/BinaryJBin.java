@@ -0,0 +1,1179 @@
+package com.planner.util;
+
+import com.planner.io.JBinReader;
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary (version 2) encoding of the Java Binary Serialization. It holds the same sections as the text format of
+ * {@link JBin} and is processed the same way, but without tokenizing any text.
+ * <p>
+ * Layout of a file:
+ * <pre>
+ * header:  "JBIN" | version (u8) | flags (u8) | epoch day of the save (i32)
+ * section: tag (u8) | payload length (i32) | payload
+ * ...
+ * end:     tag 0
+ * </pre>
+ * Counts, indices and string references are unsigned LEB128 varints, and every String is written once to the
+ * STRINGS section (which comes first) and referenced by its index afterward. Due dates are fixed-width epoch days.
+ * Hours are written as a varint of quarter-hours shifted left by one, or as a 1 followed by a raw double when they
+ * are not a whole number of quarter-hours. Sections with an unknown tag are skipped.
+ * <p>
+ * When the DEFLATED flag is set, the payload of every section is compressed in independent blocks so that sections
+ * can be decompressed lazily and the blocks of a large section in parallel:
+ * <pre>
+ * payload: uncompressed length (varint, padded to 5 bytes by the writer) | block ...
+ * block:   compressed length (varint) | CRC32 of the uncompressed bytes (i32)
+ *          | raw Deflate data of the next {@value #BLOCK_SIZE} uncompressed bytes
+ * </pre>
+ * The SCHEDULE section has no text counterpart. It holds the capacity of each Day and the time of each SubTask of
+ * the DAY section, so that a schedule saved the same day under the same settings is restored without rebuilding it.
+ *
+ * @author Andrew Roe
+ */
+public class BinaryJBin {
+
+    /** Bytes every binary JBin file starts with */
+    private static final byte[] MAGIC = {'J', 'B', 'I', 'N'};
+    /** Version of the binary encoding */
+    public static final int VERSION = 2;
+    /** Size of the header in bytes */
+    private static final int HEADER_SIZE = MAGIC.length + 2 + Integer.BYTES;
+    /** Offset of the flags within the header */
+    private static final int FLAGS_OFFSET = MAGIC.length + 1;
+    /** Flag for section payloads compressed in Deflate blocks */
+    static final int DEFLATED = 1;
+    /** Number of uncompressed bytes in each compressed block */
+    static final int BLOCK_SIZE = 64 * 1024;
+    /** Size of a varint padded to be overwritten later */
+    private static final int PADDED_VARINT_SIZE = 5;
+
+    /** Tag ending the sections */
+    static final int END = 0;
+    /** Tag of the deduplicated string table */
+    static final int STRINGS = 1;
+    /** Tag of the CheckList section */
+    static final int CHECKLIST = 2;
+    /** Tag of the Task section */
+    static final int TASK = 3;
+    /** Tag of the Card section */
+    static final int CARD = 4;
+    /** Tag of the Event section */
+    static final int EVENT = 5;
+    /** Tag of the Day section */
+    static final int DAY = 6;
+    /** Tag of the section holding when each SubTask of the Day section was scheduled */
+    static final int SCHEDULE = 7;
+
+    /**
+     * Determines whether the data is a binary JBin rather than a text one
+     *
+     * @param data contents of a JBin file
+     * @return boolean value for whether the data starts with the binary header
+     */
+    public static boolean isBinary(byte[] data) {
+        if (data.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a binary JBin to be later passed or stored
+     *
+     * @param cards all Cards in System
+     * @param events all Events in System
+     * @param schedule schedule being saved
+     * @param saved details of the schedule if it is finished and up to date, otherwise null
+     * @return binary JBin
+     */
+    public static byte[] createJBin(List<Card> cards, Collection<Event> events, List<Day> schedule,
+                                    SavedSchedule saved) {
+        ArrayDestination out = new ArrayDestination();
+        try {
+            writeJBin(cards, events, schedule, saved, out, false);
+        } catch (IOException e) {
+            // writing to a byte array never fails
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a binary JBin straight to a channel, optionally compressing each section. Sections are streamed to the
+     * channel as they are encoded, and the length of each one is filled in once it has been written.
+     *
+     * @param cards all Cards in System
+     * @param events all Events in System
+     * @param schedule schedule being saved
+     * @param saved details of the schedule if it is finished and up to date, otherwise null
+     * @param channel destination of the JBin, positioned where it starts
+     * @param deflate whether the sections are compressed
+     * @throws IOException if the destination could not be written to
+     */
+    public static void writeJBin(List<Card> cards, Collection<Event> events, List<Day> schedule,
+                                 SavedSchedule saved, SeekableByteChannel channel, boolean deflate)
+            throws IOException {
+        writeJBin(cards, events, schedule, saved, new ChannelDestination(channel), deflate);
+    }
+
+    private static void writeJBin(List<Card> cards, Collection<Event> events, List<Day> schedule,
+                                  SavedSchedule saved, Destination out, boolean deflate) throws IOException {
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0));
+        // the STRINGS section comes first, so every String is added and every Task numbered up front
+        StringTable strings = new StringTable();
+        List<Task> taskList = new ArrayList<>();
+        Map<Task, Integer> taskIdx = new IdentityHashMap<>();
+        int checkListCount = 0;
+        for (Card c : cards) {
+            strings.add(c.getTitle());
+            strings.add(c.getColorId().name());
+            for (Task t : c.getTask()) {
+                if (taskIdx.putIfAbsent(t, taskList.size()) != null) continue;
+                taskList.add(t);
+                strings.add(t.getName());
+                CheckList cl = t.getCheckList();
+                if (cl != null) {
+                    checkListCount++;
+                    strings.add(cl.getName());
+                    for (CheckList.Item i : cl.getItems()) {
+                        strings.add(i.getDescription());
+                    }
+                }
+            }
+        }
+        for (Event e : events) {
+            strings.add(e.getName());
+            strings.add(e.getColor().name());
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE);
+        header.write(MAGIC, 0, MAGIC.length);
+        header.write(VERSION);
+        header.write(deflate ? DEFLATED : 0);
+        writeInt(header, (int) today);
+        out.write(header.toByteArray(), 0, HEADER_SIZE);
+
+        // sections are written in the order they are needed when processed
+        try (SectionWriter section = new SectionWriter(out, deflate)) {
+            strings.writeTo(section);
+
+            if (checkListCount > 0) {
+                ByteArrayOutputStream payload = section.begin(CHECKLIST);
+                writeVarint(payload, checkListCount);
+                for (Task t : taskList) {
+                    CheckList cl = t.getCheckList();
+                    if (cl == null) continue;
+                    writeVarint(payload, strings.indexOf(cl.getName()));
+                    writeVarint(payload, cl.size());
+                    for (CheckList.Item i : cl.getItems()) {
+                        // completion is kept in the lowest bit of the string index
+                        writeVarint(payload, strings.indexOf(i.getDescription()) << 1 | (i.isComplete() ? 1 : 0));
+                        section.drain();
+                    }
+                }
+                section.end();
+            }
+
+            if (!taskList.isEmpty()) {
+                ByteArrayOutputStream payload = section.begin(TASK);
+                writeVarint(payload, taskList.size());
+                int checkLists = 0;
+                for (Task t : taskList) {
+                    writeVarint(payload, strings.indexOf(t.getName()));
+                    writeHours(payload, t.getTotalHours());
+                    writeInt(payload, (int) Time.getEpochDay(t.getDueDate()));
+                    // 0 for no CheckList, otherwise its index plus one
+                    writeVarint(payload, t.getCheckList() != null ? ++checkLists : 0);
+                    section.drain();
+                }
+                section.end();
+            }
+
+            if (!events.isEmpty()) {
+                ByteArrayOutputStream payload = section.begin(EVENT);
+                writeVarint(payload, events.size());
+                for (Event e : events) {
+                    writeVarint(payload, strings.indexOf(e.getName()));
+                    writeVarint(payload, strings.indexOf(e.getColor().name()));
+                    int days = 0;
+                    if (e.isRecurring()) {
+                        for (Event.DayOfWeek dayOfWeek : e.getDays()) {
+                            days |= 1 << dayOfWeek.ordinal();
+                        }
+                    }
+                    // 0 for an individual Event, otherwise a bit for each day of the week
+                    writeVarint(payload, days);
+                    long start = e.getTimeStamp().getStartMinute();
+                    writeVarlong(payload, start << 1 ^ start >> 63);
+                    writeVarint(payload, (int) (e.getTimeStamp().getEndMinute() - start));
+                    section.drain();
+                }
+                section.end();
+            }
+
+            ByteArrayOutputStream payload = section.begin(CARD);
+            writeVarint(payload, cards.size());
+            for (Card c : cards) {
+                writeVarint(payload, strings.indexOf(c.getTitle()));
+                writeVarint(payload, strings.indexOf(c.getColorId().name()));
+                writeVarint(payload, c.getTask().size());
+                for (Task t : c.getTask()) {
+                    writeVarint(payload, taskIdx.get(t));
+                    section.drain();
+                }
+            }
+            section.end();
+
+            if (!schedule.isEmpty()) {
+                List<Task.SubTask> subTasks = new ArrayList<>();
+                // only a finished schedule is worth restoring without rebuilding it
+                if (saved != null && isTimed(schedule, taskIdx)) {
+                    payload = section.begin(SCHEDULE);
+                    writeInt(payload, saved.getFingerprint());
+                    writeVarint(payload, saved.getErrorCount());
+                    for (Day d : schedule) {
+                        writeScheduledDay(payload, d, keptSubTasks(d, taskIdx, subTasks));
+                        section.drain();
+                    }
+                    section.end();
+                }
+
+                payload = section.begin(DAY);
+                writeVarint(payload, schedule.size());
+                for (Day d : schedule) {
+                    keptSubTasks(d, taskIdx, subTasks);
+                    writeVarint(payload, subTasks.size());
+                    for (Task.SubTask st : subTasks) {
+                        writeVarint(payload, taskIdx.get(st.getParentTask()));
+                        writeHours(payload, st.getSubTaskHours());
+                    }
+                    section.drain();
+                }
+                section.end();
+            }
+        }
+        out.write(new byte[]{END}, 0, 1);
+    }
+
+    /**
+     * Processes a binary JBin to update the current system
+     *
+     * @param data binary JBin being processed
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is, otherwise null
+     */
+    public static SavedSchedule processJBin(byte[] data, Queue<Task> tasks, List<Event> events, int eventId,
+                                            List<Card> cards, List<Day> schedule, int maxArchiveDays) {
+        return processJBin(ByteBuffer.wrap(data), tasks, events, eventId, cards, schedule, maxArchiveDays);
+    }
+
+    /**
+     * Processes a binary JBin to update the current system
+     *
+     * @param data buffer positioned at the start of the binary JBin
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is, otherwise null
+     */
+    public static SavedSchedule processJBin(ByteBuffer data, Queue<Task> tasks, List<Event> events, int eventId,
+                                            List<Card> cards, List<Day> schedule, int maxArchiveDays) {
+        try {
+            boolean deflated = isDeflated(data);
+            Decoding decoding = new Decoding(readHeader(data), tasks, events, eventId, cards, schedule,
+                    maxArchiveDays);
+            int tag;
+            while ((tag = data.get()) != END) {
+                int length = data.getInt();
+                ByteBuffer payload = data.slice();
+                payload.limit(length);
+                decoding.section(tag, deflated ? inflate(payload) : payload);
+                data.position(data.position() + length);
+            }
+            return decoding.finish();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+    }
+
+    /**
+     * Processes a binary JBin as it is streamed, holding one section in memory at a time
+     *
+     * @param reader reader positioned at the start of the binary JBin
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is, otherwise null
+     * @throws IOException if the JBin could not be read
+     */
+    public static SavedSchedule processJBin(JBinReader reader, Queue<Task> tasks, List<Event> events, int eventId,
+                                            List<Card> cards, List<Day> schedule, int maxArchiveDays)
+            throws IOException {
+        try {
+            ByteBuffer header = reader.readBytes(HEADER_SIZE);
+            boolean deflated = isDeflated(header);
+            Decoding decoding = new Decoding(readHeader(header), tasks, events, eventId, cards, schedule,
+                    maxArchiveDays);
+            int tag;
+            while ((tag = reader.readBytes(1).get()) != END) {
+                int length = reader.readBytes(Integer.BYTES).getInt();
+                ByteBuffer payload = reader.readBytes(length);
+                decoding.section(tag, deflated ? inflate(payload) : payload);
+            }
+            return decoding.finish();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+    }
+
+    /**
+     * Determines whether a reader is positioned at a binary JBin
+     *
+     * @param reader reader of a JBin file
+     * @return boolean value for whether the binary header is next
+     * @throws IOException if the JBin could not be read
+     */
+    public static boolean isBinary(JBinReader reader) throws IOException {
+        return reader.startsWith(MAGIC);
+    }
+
+    /**
+     * Reads the header of a binary JBin
+     *
+     * @param data buffer positioned at the start of the binary JBin
+     * @return epoch day the JBin was saved on
+     */
+    static long readHeader(ByteBuffer data) {
+        for (byte b : MAGIC) {
+            if (data.get() != b) throw new IllegalArgumentException("Data is not a binary JBin");
+        }
+        int version = data.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported JBin version: " + version);
+        int flags = data.get();
+        if ((flags & ~DEFLATED) != 0) throw new IllegalArgumentException("Unsupported JBin flags: " + flags);
+        return data.getInt();
+    }
+
+    /**
+     * Determines whether the sections of a binary JBin are compressed
+     *
+     * @param header buffer positioned at the start of the header
+     * @return boolean value for whether the DEFLATED flag is set
+     */
+    static boolean isDeflated(ByteBuffer header) {
+        return (header.get(header.position() + FLAGS_OFFSET) & DEFLATED) != 0;
+    }
+
+    static void readCheckLists(ByteBuffer data, Strings strings, List<CheckList> checkLists) {
+        int count = readVarint(data);
+        for (int i = 0; i < count; i++) {
+            CheckList cl = new CheckList(checkLists.size(), strings.get(readVarint(data)));
+            int items = readVarint(data);
+            for (int j = 0; j < items; j++) {
+                int item = readVarint(data);
+                cl.addItem(strings.get(item >>> 1));
+                cl.markItemById(j, (item & 1) == 1);
+            }
+            checkLists.add(cl);
+        }
+    }
+
+    static void readTasks(ByteBuffer data, Strings strings, List<CheckList> checkLists, List<Task> taskList) {
+        // most Tasks share their due date with others, and cloning is much cheaper than converting
+        Map<Integer, Calendar> dueDates = new HashMap<>();
+        int count = readVarint(data);
+        for (int i = 0; i < count; i++) {
+            String name = strings.get(readVarint(data));
+            double hours = readHours(data);
+            Calendar dueDate = (Calendar) dueDates.computeIfAbsent(data.getInt(),
+                    day -> Time.toCalendar((long) day * Time.MINUTES_PER_DAY)).clone();
+            Task task = new Task(taskList.size(), name, hours, dueDate);
+            int cl = readVarint(data);
+            if (cl > 0 && checkLists != null) task.addCheckList(checkLists.get(cl - 1));
+            taskList.add(task);
+        }
+    }
+
+    static int readEvents(ByteBuffer data, Strings strings, List<Event> events, int eventId) {
+        int count = readVarint(data);
+        for (int i = 0; i < count; i++) {
+            String name = strings.get(readVarint(data));
+            Card.Colors color = parseColor(strings.get(readVarint(data)));
+            int days = readVarint(data);
+            long zigzag = readVarlong(data);
+            long start = zigzag >>> 1 ^ -(zigzag & 1);
+            Time.TimeStamp timeStamp = new Time.TimeStamp(start, start + readVarint(data));
+            if (days == 0) {
+                events.add(new Event(eventId++, name, color, timeStamp));
+            } else {
+                Event.DayOfWeek[] week = new Event.DayOfWeek[Integer.bitCount(days)];
+                int n = 0;
+                for (Event.DayOfWeek dayOfWeek : Event.DayOfWeek.values()) {
+                    if ((days & 1 << dayOfWeek.ordinal()) != 0) week[n++] = dayOfWeek;
+                }
+                events.add(new Event(eventId++, name, color, timeStamp, week));
+            }
+        }
+        return eventId;
+    }
+
+    private static void readCards(ByteBuffer data, Strings strings, List<Card> cards, List<Task> taskList,
+                                  int maxArchiveDays) {
+        Calendar currDay = Time.getFormattedCalendarInstance(0);
+        int count = readVarint(data);
+        for (int i = 0; i < count; i++) {
+            String title = strings.get(readVarint(data));
+            Card.Colors color = parseColor(strings.get(readVarint(data)));
+            Card card;
+            if (i == 0 && title.equals(cards.get(0).getTitle())) {
+                card = cards.get(0);
+            } else {
+                card = new Card(cards.size(), title, color);
+                cards.add(card);
+            }
+            int numTasks = readVarint(data);
+            for (int j = 0; j < numTasks; j++) {
+                int idx = readVarint(data);
+                Task tempTask = taskList.get(idx);
+                if (tempTask != null) {
+                    int numDays = Time.differenceOfDays(tempTask.getDueDate(), currDay);
+                    if (numDays >= -1 * maxArchiveDays) {
+                        card.addTask(tempTask);
+                        if (tempTask.getColor() == null) {
+                            tempTask.setColor(card.getColorId());
+                        }
+                    }
+                    else taskList.set(idx, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the capacity of a Day and where each of its SubTasks was scheduled. Start times are relative to the
+     * start of the Day, and the overflow status is kept in the lowest bit of the duration.
+     *
+     * @param out SCHEDULE section being written
+     * @param day Day being written
+     * @param subTasks SubTasks of the Day written to the DAY section
+     */
+    private static void writeScheduledDay(ByteArrayOutputStream out, Day day, List<Task.SubTask> subTasks) {
+        writeHours(out, day.getCapacity());
+        for (Task.SubTask st : subTasks) {
+            Time.TimeStamp timeStamp = st.getTimeStamp();
+            long start = timeStamp.getStartMinute() - day.getDateMinute();
+            writeVarlong(out, start << 1 ^ start >> 63);
+            writeVarint(out, (int) (timeStamp.getEndMinute() - timeStamp.getStartMinute()) << 1
+                    | (st.isOverflow() ? 1 : 0));
+        }
+    }
+
+    /**
+     * Determines whether every SubTask written to the DAY section was given a time, since the schedule can't be
+     * restored otherwise
+     *
+     * @param schedule schedule being saved
+     * @param taskIdx index of each Task written to the TASK section
+     * @return boolean value for whether every SubTask has a time
+     */
+    private static boolean isTimed(List<Day> schedule, Map<Task, Integer> taskIdx) {
+        for (Day d : schedule) {
+            for (Task.SubTask st : d.getSubTasks()) {
+                if (st.getTimeStamp() == null && taskIdx.containsKey(st.getParentTask())) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the SubTasks of a Day that are written, since SubTasks of Tasks no longer on a Card are dropped
+     *
+     * @param day Day being written
+     * @param taskIdx index of each Task written to the TASK section
+     * @param subTasks list the SubTasks are placed in
+     * @return the list of SubTasks
+     */
+    private static List<Task.SubTask> keptSubTasks(Day day, Map<Task, Integer> taskIdx,
+                                                   List<Task.SubTask> subTasks) {
+        subTasks.clear();
+        for (Task.SubTask st : day.getSubTasks()) {
+            if (taskIdx.containsKey(st.getParentTask())) subTasks.add(st);
+        }
+        return subTasks;
+    }
+
+    /**
+     * Reads the SCHEDULE section into the fingerprint and error count of the schedule, with the rest of the
+     * section left to be read alongside the DAY section
+     *
+     * @param data payload of the SCHEDULE section
+     * @param savedDay epoch day the JBin was saved on
+     * @return details of the saved schedule
+     */
+    private static SavedSchedule readSchedule(ByteBuffer data, long savedDay) {
+        int fingerprint = data.getInt();
+        return new SavedSchedule(savedDay, fingerprint, readVarint(data));
+    }
+
+    private static void readDays(ByteBuffer data, Calendar calendar, List<Task> taskList, List<Day> schedule,
+                                 ByteBuffer scheduled) {
+        if (scheduled != null) {
+            readScheduledDays(data, calendar, taskList, schedule, scheduled);
+            return;
+        }
+        boolean[] table = new boolean[taskList.size()];
+        Calendar currDay = Time.getFormattedCalendarInstance(0);
+        int count = readVarint(data);
+        int dayCount = 0;
+        for (int i = 0; i < count; i++) {
+            Calendar scheduleDay = Time.getFormattedCalendarInstance(calendar, i);
+            boolean past = Time.differenceOfDays(scheduleDay, currDay) < 0;
+            Day day = past ? null : new Day(dayCount++, 8, scheduleDay);
+            int numSubTasks = readVarint(data);
+            double totalHours = 0.0;
+            for (int j = 0; j < numSubTasks; j++) {
+                int taskIdx = readVarint(data);
+                double hours = readHours(data);
+                Task task = taskList.get(taskIdx);
+                if (day == null || task == null) continue;
+                totalHours += hours;
+                if (!table[taskIdx]) {
+                    task.setTotalHours(hours);
+                    table[taskIdx] = true;
+                } else {
+                    task.setTotalHours(hours + task.getTotalHours());
+                }
+                day.addSubTask(task, hours, totalHours > 8); // todo need to use UserConfig here
+            }
+            if (day != null) schedule.add(day);
+        }
+    }
+
+    /**
+     * Reads the DAY section alongside the rest of the SCHEDULE section, placing every SubTask exactly where it was
+     * scheduled. The hours of the Tasks are left as they were saved.
+     */
+    private static void readScheduledDays(ByteBuffer data, Calendar calendar, List<Task> taskList,
+                                          List<Day> schedule, ByteBuffer scheduled) {
+        Calendar currDay = Time.getFormattedCalendarInstance(0);
+        int count = readVarint(data);
+        int dayCount = 0;
+        for (int i = 0; i < count; i++) {
+            Calendar scheduleDay = Time.getFormattedCalendarInstance(calendar, i);
+            boolean past = Time.differenceOfDays(scheduleDay, currDay) < 0;
+            double capacity = readHours(scheduled);
+            Day day = past ? null : new Day(dayCount++, capacity, scheduleDay);
+            int numSubTasks = readVarint(data);
+            for (int j = 0; j < numSubTasks; j++) {
+                int taskIdx = readVarint(data);
+                double hours = readHours(data);
+                long start = readVarlong(scheduled);
+                start = (start >>> 1 ^ -(start & 1)) + (day == null ? 0 : day.getDateMinute());
+                int duration = readVarint(scheduled);
+                Task task = taskList.get(taskIdx);
+                if (day == null || task == null) continue;
+                day.restoreSubTask(task, hours, (duration & 1) != 0,
+                        new Time.TimeStamp(start, start + (duration >>> 1)));
+            }
+            if (day != null) schedule.add(day);
+        }
+    }
+
+    private static Card.Colors parseColor(String s) {
+        try {
+            return Card.Colors.valueOf(s);
+        } catch (IllegalArgumentException e) {
+            return Card.Colors.LIGHT_BLUE;
+        }
+    }
+
+    /**
+     * Compresses a section payload in independent Deflate blocks
+     *
+     * @param payload uncompressed payload
+     * @return compressed payload
+     */
+    static ByteArrayOutputStream deflate(ByteArrayOutputStream payload) {
+        byte[] data = payload.toByteArray();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 16);
+        writeVarint(out, data.length);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            for (int off = 0; off < data.length; off += BLOCK_SIZE) {
+                writeBlock(deflater, data, off, Math.min(BLOCK_SIZE, data.length - off), out);
+            }
+        } finally {
+            deflater.end();
+        }
+        return out;
+    }
+
+    /**
+     * Compresses one block of a section payload
+     *
+     * @param deflater raw Deflater to compress with
+     * @param data uncompressed payload
+     * @param off offset of the block within the payload
+     * @param len number of uncompressed bytes in the block
+     * @param out destination of the block
+     */
+    private static void writeBlock(Deflater deflater, byte[] data, int off, int len, ByteArrayOutputStream out) {
+        deflater.reset();
+        deflater.setInput(data, off, len);
+        deflater.finish();
+        ByteArrayOutputStream block = new ByteArrayOutputStream(len / 4 + 16);
+        byte[] buf = new byte[8 * 1024];
+        while (!deflater.finished()) {
+            block.write(buf, 0, deflater.deflate(buf));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+        writeVarint(out, block.size());
+        writeInt(out, (int) crc.getValue());
+        out.writeBytes(block.toByteArray());
+    }
+
+    /**
+     * Decompresses a section payload. The blocks are independent, so those of a large section are decompressed in
+     * parallel.
+     *
+     * @param payload compressed payload
+     * @return buffer over the uncompressed payload
+     */
+    static ByteBuffer inflate(ByteBuffer payload) {
+        int length = readVarint(payload);
+        if (length < 0) throw new IllegalArgumentException("Compressed JBin section is corrupt");
+        byte[] out = new byte[length];
+        ByteBuffer[] blocks = new ByteBuffer[(int) (((long) length + BLOCK_SIZE - 1) / BLOCK_SIZE)];
+        int[] checksums = new int[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            int size = readVarint(payload);
+            checksums[i] = payload.getInt();
+            blocks[i] = payload.slice();
+            blocks[i].limit(size);
+            payload.position(payload.position() + size);
+        }
+        IntStream indices = IntStream.range(0, blocks.length);
+        (blocks.length > 1 ? indices.parallel() : indices).forEach(i -> inflateBlock(blocks[i], checksums[i], out,
+                i * BLOCK_SIZE, Math.min(BLOCK_SIZE, length - i * BLOCK_SIZE)));
+        return ByteBuffer.wrap(out);
+    }
+
+    private static void inflateBlock(ByteBuffer block, int checksum, byte[] out, int off, int len) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block);
+            int n = 0;
+            while (n < len) {
+                int inflated = inflater.inflate(out, off + n, len - n);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Compressed JBin block is truncated");
+                }
+                n += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed JBin block is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out, off, len);
+        if ((int) crc.getValue() != checksum) throw new IllegalArgumentException("Compressed JBin block is corrupt");
+    }
+
+    static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Writes a varint padded to the most bytes an int takes, so that it can be overwritten once its value is known
+     */
+    static void writePaddedVarint(ByteArrayOutputStream out, int value) {
+        for (int i = 0; i < PADDED_VARINT_SIZE - 1; i++) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static void writeVarlong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeHours(ByteArrayOutputStream out, double hours) {
+        double quarters = hours * 4;
+        if (quarters >= 0 && quarters <= Integer.MAX_VALUE >> 1 && quarters == Math.rint(quarters)) {
+            writeVarint(out, (int) quarters << 1);
+        } else {
+            writeVarint(out, 1);
+            long bits = Double.doubleToLongBits(hours);
+            writeInt(out, (int) (bits >>> 32));
+            writeInt(out, (int) bits);
+        }
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in JBin");
+    }
+
+    static long readVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in JBin");
+    }
+
+    static double readHours(ByteBuffer in) {
+        int value = readVarint(in);
+        if ((value & 1) == 0) return (value >>> 1) / 4.0;
+        return in.getDouble();
+    }
+
+    /**
+     * State carried between the sections of a binary JBin being processed
+     */
+    static class Decoding {
+        private final long savedDay;
+        private final Calendar calendar;
+        private final Queue<Task> tasks;
+        private final List<Event> events;
+        private final List<Card> cards;
+        private final List<Day> schedule;
+        private final int maxArchiveDays;
+        private final List<CheckList> checkLists = new ArrayList<>();
+        private final List<Task> taskList = new ArrayList<>();
+        private Strings strings = Strings.EMPTY;
+        private int eventId;
+        private SavedSchedule savedSchedule;
+        /** Rest of the SCHEDULE section, read alongside the DAY section */
+        private ByteBuffer scheduled;
+
+        Decoding(long savedDay, Queue<Task> tasks, List<Event> events, int eventId, List<Card> cards,
+                 List<Day> schedule, int maxArchiveDays) {
+            this.savedDay = savedDay;
+            this.calendar = Time.toCalendar(savedDay * Time.MINUTES_PER_DAY);
+            this.tasks = tasks;
+            this.events = events;
+            this.eventId = eventId;
+            this.cards = cards;
+            this.schedule = schedule;
+            this.maxArchiveDays = maxArchiveDays;
+        }
+
+        /**
+         * Uses a String table indexed ahead of time instead of decoding the STRINGS section
+         *
+         * @param strings String table
+         */
+        void setStrings(Strings strings) {
+            this.strings = strings;
+        }
+
+        /**
+         * Processes a section
+         *
+         * @param tag tag of the section
+         * @param payload buffer holding exactly the payload of the section
+         */
+        void section(int tag, ByteBuffer payload) {
+            switch (tag) {
+                case STRINGS:
+                    strings = Strings.decode(payload);
+                    break;
+                case CHECKLIST:
+                    readCheckLists(payload, strings, checkLists);
+                    break;
+                case TASK:
+                    readTasks(payload, strings, checkLists, taskList);
+                    break;
+                case EVENT:
+                    eventId = readEvents(payload, strings, events, eventId);
+                    break;
+                case CARD:
+                    readCards(payload, strings, cards, taskList, maxArchiveDays);
+                    break;
+                case SCHEDULE:
+                    savedSchedule = readSchedule(payload, savedDay);
+                    // the payload may be reused before the DAY section is read
+                    scheduled = ByteBuffer.allocate(payload.remaining()).put(payload);
+                    scheduled.flip();
+                    break;
+                case DAY:
+                    readDays(payload, calendar, taskList, schedule, scheduled);
+                    break;
+                default:
+                    // written by a newer version
+                    break;
+            }
+        }
+
+        /**
+         * Hands the Tasks which weren't archived to the Tasks holder
+         *
+         * @return details of the schedule if it was restored with the time of each SubTask, otherwise null
+         */
+        SavedSchedule finish() {
+            for (Task t : taskList) {
+                if (t != null) {
+                    tasks.add(t);
+                }
+            }
+            return scheduled == null ? null : savedSchedule;
+        }
+    }
+
+    /**
+     * String table of a binary JBin being read. The offsets of the Strings are indexed up front, and each String is
+     * either decoded right away (when the buffer is about to be reused) or the first time it is looked up.
+     */
+    static final class Strings {
+        /** Table with no Strings */
+        static final Strings EMPTY = new Strings(null, new int[0], new int[0]);
+
+        /** Payload of the STRINGS section (null once every String is decoded) */
+        private final ByteBuffer table;
+        /** Offset of each String within the payload */
+        private final int[] offsets;
+        /** Length of each String in bytes */
+        private final int[] lengths;
+        /** Strings decoded so far */
+        private final String[] decoded;
+
+        private Strings(ByteBuffer table, int[] offsets, int[] lengths) {
+            this.table = table;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.decoded = new String[offsets.length];
+        }
+
+        /**
+         * Indexes a STRINGS section whose Strings are decoded as they are looked up. The buffer must stay valid
+         * for as long as the table is used.
+         *
+         * @param payload payload of the STRINGS section
+         * @return lazily decoded table
+         */
+        static Strings index(ByteBuffer payload) {
+            ByteBuffer in = payload.duplicate();
+            int count = readVarint(in);
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                lengths[i] = readVarint(in);
+                offsets[i] = in.position();
+                in.position(offsets[i] + lengths[i]);
+            }
+            return new Strings(payload, offsets, lengths);
+        }
+
+        /**
+         * Decodes every String of a STRINGS section
+         *
+         * @param payload payload of the STRINGS section
+         * @return decoded table
+         */
+        static Strings decode(ByteBuffer payload) {
+            Strings lazy = index(payload);
+            Strings strings = new Strings(null, lazy.offsets, lazy.lengths);
+            for (int i = 0; i < strings.decoded.length; i++) {
+                strings.decoded[i] = lazy.get(i);
+            }
+            return strings;
+        }
+
+        /**
+         * Gets a String of the table
+         *
+         * @param idx index of the String
+         * @return String at the index
+         */
+        String get(int idx) {
+            String s = decoded[idx];
+            if (s == null) {
+                if (table.hasArray()) {
+                    s = new String(table.array(), table.arrayOffset() + offsets[idx], lengths[idx],
+                            StandardCharsets.UTF_8);
+                } else {
+                    byte[] bytes = new byte[lengths[idx]];
+                    ByteBuffer in = table.duplicate();
+                    in.position(offsets[idx]);
+                    in.get(bytes);
+                    s = new String(bytes, StandardCharsets.UTF_8);
+                }
+                decoded[idx] = s;
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Deduplicated table of Strings written ahead of the other sections
+     */
+    private static class StringTable {
+        /** Index of each String in the table */
+        private final Map<String, Integer> indices = new HashMap<>();
+        /** Strings in the order of their indices */
+        private final List<String> strings = new ArrayList<>();
+
+        /**
+         * Adds a String to the table if it is new
+         *
+         * @param s String that will be referenced
+         */
+        void add(String s) {
+            if (indices.putIfAbsent(s, strings.size()) == null) strings.add(s);
+        }
+
+        /**
+         * Gets the index of a String added to the table
+         *
+         * @param s String being referenced
+         * @return index of the String
+         */
+        int indexOf(String s) {
+            return indices.get(s);
+        }
+
+        /**
+         * Writes the table as the STRINGS section
+         *
+         * @param section writer of the sections
+         * @throws IOException if the destination could not be written to
+         */
+        void writeTo(SectionWriter section) throws IOException {
+            ByteArrayOutputStream payload = section.begin(STRINGS);
+            writeVarint(payload, strings.size());
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarint(payload, bytes.length);
+                payload.write(bytes, 0, bytes.length);
+                section.drain();
+            }
+            section.end();
+        }
+    }
+
+    /**
+     * Destination of a binary JBin. The length of a section is only known once it has been written, so it is
+     * patched in afterward.
+     */
+    private interface Destination {
+        void write(byte[] b, int off, int len) throws IOException;
+
+        long position() throws IOException;
+
+        void patch(long position, byte[] b) throws IOException;
+    }
+
+    /**
+     * Destination held in memory
+     */
+    private static final class ArrayDestination extends ByteArrayOutputStream implements Destination {
+        @Override
+        public long position() {
+            return count;
+        }
+
+        @Override
+        public void patch(long position, byte[] b) {
+            System.arraycopy(b, 0, buf, (int) position, b.length);
+        }
+    }
+
+    /**
+     * Destination written through a channel, such as a file
+     */
+    private static final class ChannelDestination implements Destination {
+        private final SeekableByteChannel channel;
+
+        ChannelDestination(SeekableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public void patch(long position, byte[] b) throws IOException {
+            long end = channel.position();
+            channel.position(position);
+            write(b, 0, b.length);
+            channel.position(end);
+        }
+    }
+
+    /**
+     * Payload of a section being encoded, which is passed on a block at a time
+     */
+    private static final class Payload extends ByteArrayOutputStream {
+        Payload() {
+            super(BLOCK_SIZE + 1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        /**
+         * Discards the bytes that were passed on
+         *
+         * @param n number of bytes at the start of the payload
+         */
+        void discard(int n) {
+            System.arraycopy(buf, n, buf, 0, count - n);
+            count -= n;
+        }
+    }
+
+    /**
+     * Streams the sections of a binary JBin to its destination. No more than a block and the record being encoded
+     * are held at once, and the lengths at the start of each section are filled in after its last block.
+     */
+    private static final class SectionWriter implements AutoCloseable {
+        private final Destination out;
+        /** Compresses the blocks (null if the sections are written as-is) */
+        private final Deflater deflater;
+        /** Part of the payload of the current section not yet written */
+        private final Payload payload = new Payload();
+        /** Compressed blocks waiting to be written */
+        private final Payload blocks = new Payload();
+        /** Position of the length of the current section */
+        private long start;
+        /** Uncompressed bytes of the current section written so far */
+        private int length;
+
+        SectionWriter(Destination out, boolean deflate) {
+            this.out = out;
+            this.deflater = deflate ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+        }
+
+        /**
+         * Starts a section, leaving room for its lengths
+         *
+         * @param tag tag of the section
+         * @return payload the section is encoded to
+         * @throws IOException if the destination could not be written to
+         */
+        ByteArrayOutputStream begin(int tag) throws IOException {
+            out.write(new byte[]{(byte) tag}, 0, 1);
+            start = out.position();
+            length = 0;
+            payload.reset();
+            byte[] lengths = new byte[deflater == null ? Integer.BYTES : Integer.BYTES + PADDED_VARINT_SIZE];
+            out.write(lengths, 0, lengths.length);
+            return payload;
+        }
+
+        /**
+         * Writes the payload encoded so far once it fills a block. Called after each record of a section.
+         *
+         * @throws IOException if the destination could not be written to
+         */
+        void drain() throws IOException {
+            if (payload.size() >= BLOCK_SIZE) write(false);
+        }
+
+        /**
+         * Writes the rest of the section and fills in its lengths
+         *
+         * @throws IOException if the destination could not be written to
+         */
+        void end() throws IOException {
+            write(true);
+            ByteArrayOutputStream lengths = new ByteArrayOutputStream(Integer.BYTES + PADDED_VARINT_SIZE);
+            writeInt(lengths, (int) (out.position() - start - Integer.BYTES));
+            if (deflater != null) writePaddedVarint(lengths, length);
+            out.patch(start, lengths.toByteArray());
+        }
+
+        private void write(boolean last) throws IOException {
+            int size = payload.size();
+            if (deflater == null) {
+                out.write(payload.array(), 0, size);
+                length += size;
+                payload.reset();
+                return;
+            }
+            int off = 0;
+            blocks.reset();
+            while (size - off >= BLOCK_SIZE || last && off < size) {
+                int len = Math.min(BLOCK_SIZE, size - off);
+                writeBlock(deflater, payload.array(), off, len, blocks);
+                off += len;
+            }
+            out.write(blocks.array(), 0, blocks.size());
+            length += off;
+            payload.discard(off);
+        }
+
+        @Override
+        public void close() {
+            if (deflater != null) deflater.end();
+        }
+    }
+}
@@ -1,35 +1,159 @@
 package com.planner.util;
 
 import com.planner.models.*;
+import com.planner.io.EventRecordLog;
+import com.planner.io.EventRecordLog.Action;
 import com.planner.schedule.day.Day;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.InputMismatchException;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Creates a cumulative log of all actions performed during each session
+ * <p>
+ * Reporting an action only copies its values into a pre-allocated record of a bounded ring buffer, so it takes
+ * constant time and allocates nothing. A background writer formats the records and appends them to
+ * {@code logs/system.log}, which is rolled into a compressed archive once it grows too large (and at the start of
+ * each session). Memory use no longer grows with the length of a session. The singleton writes to {@code logs}, while
+ * other instances (such as those of tests) can be given a directory of their own.
+ * <p>
+ * The writer also appends each action as a typed binary record to {@code logs/events} (see {@link EventRecordLog}),
+ * which can be queried offline with {@link com.planner.io.EventQuery}.
  *
  * @author Andrew Roe
  * @author Lucia Langaney
  * @author Abah Olotuche Gabriel
  */
-public class EventLog {
+public class EventLog implements Closeable {
 
     /** Singleton instance for EventLog */
     private static EventLog instance;
 
-    private StringBuilder sb = new StringBuilder();
+    /** Number of records in the ring buffer (a power of two) */
+    private static final int CAPACITY = 4096;
+    /** Size in characters after which the log file is rolled */
+    private static final long MAX_FILE_SIZE = 8L * 1024 * 1024;
+    /** Number of compressed logs kept */
+    private static final int MAX_ARCHIVES = 10;
+    /** Size in bytes after which a segment of the binary log is closed */
+    private static final long MAX_SEGMENT_SIZE = 4L * 1024 * 1024;
+    /** Number of binary log segments kept */
+    private static final int MAX_SEGMENTS = 32;
+    /** Name of the current log file */
+    private static final String LOG_NAME = "system.log";
+    /** Number of characters formatted before they are written out */
+    private static final int BATCH_SIZE = 16 * 1024;
+    /** Longest time the writer sleeps while there is nothing to write */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /** Longest time a flush waits for the writer */
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /** Lowest level of the actions being logged */
+    private Level level = Level.INFO;
+    /** Whether the actions of each category are logged */
+    private final boolean[] categories = {true, true, true, true};
+    /** Only one in this many scheduling actions below INFO is logged */
+    private int sampleRate = 1;
+    /** Number of scheduling actions below INFO reported since the last one logged */
+    private int sampled;
+
+    /** Directory holding the log files */
+    private final Path dir;
+    /** Size in characters after which the log file is rolled */
+    private final long maxFileSize;
+    /** Pre-allocated records, reused once written */
+    private final Record[] ring;
+    /** Mask turning a sequence number into an index of the ring */
+    private final int mask;
+    /** Next sequence number to be claimed by a producer */
+    private final AtomicLong next = new AtomicLong();
+    /** Sequence number of the next record to be written (every record before it is free to reuse) */
+    private volatile long drained;
+    /** Sequence number up to which records are flushed to the log file */
+    private volatile long flushed;
+    /** Background thread writing the records */
+    private final Thread writer;
+    /** Flushes the log when the JVM exits (removed once the log is closed) */
+    private final Thread shutdownHook;
+    /** Whether the log is closed, after which nothing more is logged */
+    private volatile boolean closed;
+    /** Guards the log files while the writer rolls them and while they are read back */
+    private final Object fileLock = new Object();
+
+    /** Binary log of every action written (only used by the writer) */
+    private EventRecordLog records;
+    /** Log file being written to (only used by the writer) */
+    private Writer out;
+    /** Number of characters in the current log file */
+    private long fileSize;
+    /** Number of the newest compressed log */
+    private int lastArchive;
+    /** Number of the first compressed log rolled during this session */
+    private int firstArchive;
+    /** Records formatted but not yet written out */
+    private final StringBuilder sb = new StringBuilder(BATCH_SIZE * 2);
+    /** Local time of the record being formatted */
+    private final Calendar local = Calendar.getInstance();
+    /** Fields of the epoch minute being formatted */
+    private final Calendar fields = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
 
     /**
      * Primary private constructor for EventLog
      */
     private EventLog() {
-//        output = new PrintStream("logs/system.log");
-        sb.append(new SimpleDateFormat("[dd-MM-yyyy]").format(Calendar.getInstance().getTime()))
-                .append(" Log of all activities from current session: \n\n");
+        this(Paths.get("logs"), CAPACITY, MAX_FILE_SIZE);
+    }
+
+    /**
+     * Constructs an EventLog writing to the given directory instead of {@code logs}
+     *
+     * @param dir directory holding the log files
+     */
+    public EventLog(Path dir) {
+        this(dir, CAPACITY, MAX_FILE_SIZE);
+    }
+
+    /**
+     * Constructs an EventLog writing to the given directory
+     *
+     * @param dir directory holding the log files
+     * @param capacity number of records in the ring buffer (rounded up to a power of two)
+     * @param maxFileSize size in characters after which the log file is rolled
+     */
+    EventLog(Path dir, int capacity, long maxFileSize) {
+        this.dir = dir;
+        this.maxFileSize = maxFileSize;
+        this.ring = new Record[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1)];
+        this.mask = ring.length - 1;
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Record(i - ring.length);
+        }
+        Record header = claim(Kind.HEADER, Level.INFO);
+        publish(header);
+        writer = new Thread(this::drain, "event-log");
+        writer.setDaemon(true);
+        writer.start();
+        shutdownHook = new Thread(this::flush, "event-log-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
     /**
@@ -45,6 +169,59 @@ public class EventLog {
         return instance;
     }
 
+    /**
+     * Sets which actions are logged from the level, categories and sampling rate of the UserConfig
+     *
+     * @param userConfig UserConfig holding the logging settings
+     * @throws IllegalArgumentException if a level or category is unknown, or the sampling rate is less than one
+     */
+    public void configure(UserConfig userConfig) {
+        Level newLevel;
+        boolean[] newCategories = new boolean[categories.length];
+        try {
+            newLevel = Level.valueOf(userConfig.getLogLevel().toUpperCase());
+            for (String category : userConfig.getLogCategories()) {
+                newCategories[Category.valueOf(category.toUpperCase()).ordinal()] = true;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid logging settings");
+        }
+        if (userConfig.getLogSampleRate() < 1) {
+            throw new IllegalArgumentException("Invalid log sampling rate");
+        }
+        level = newLevel;
+        System.arraycopy(newCategories, 0, categories, 0, categories.length);
+        sampleRate = userConfig.getLogSampleRate();
+        sampled = 0;
+    }
+
+    /**
+     * Checks whether actions of the given category and level are logged. Reports that are costly to put together
+     * can be skipped with it.
+     *
+     * @param category category of the action
+     * @param level level of the action
+     * @return true if the action would be logged (before any sampling)
+     */
+    public boolean isEnabled(Category category, Level level) {
+        return !closed && level.compareTo(this.level) >= 0 && categories[category.ordinal()];
+    }
+
+    /**
+     * Checks whether an action is logged, sampling the detailed scheduling actions
+     *
+     * @param category category of the action
+     * @param level level of the action
+     * @return true if the action is logged
+     */
+    private boolean isLogged(Category category, Level level) {
+        if (!isEnabled(category, level)) return false;
+        if (category != Category.SCHEDULING || level.compareTo(Level.INFO) >= 0 || sampleRate == 1) return true;
+        if (++sampled < sampleRate) return false;
+        sampled = 0;
+        return true;
+    }
+
     /**
      * Reports a given Task action
      *
@@ -52,24 +229,30 @@ public class EventLog {
      * @param type Action type (0=Add, 1=Remove, 2=EDIT, 3=ARCHIVE)
      */
     public void reportTaskAction(Task task, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        if(type == 0) {
-            sb.append(" ADD(TASK): ");
-        } else if(type == 1) {
-            sb.append(" REMOVE(TASK): ");
-        } else if (type == 2) {
-            sb.append(" EDIT(TASK): ");
-        } else {
-            sb.append(" ARCHIVE(TASK): ");
+        Level level = type == 3 ? Level.DEBUG : Level.INFO;
+        if (!isLogged(Category.SCHEDULING, level)) return;
+        Record r = claim(Kind.TASK, level);
+        try {
+            if(type == 0) {
+                r.s0 = " ADD(TASK): ";
+                r.action = Action.TASK_ADD;
+            } else if(type == 1) {
+                r.s0 = " REMOVE(TASK): ";
+                r.action = Action.TASK_REMOVE;
+            } else if (type == 2) {
+                r.s0 = " EDIT(TASK): ";
+                r.action = Action.TASK_EDIT;
+            } else {
+                r.s0 = " ARCHIVE(TASK): ";
+                r.action = Action.TASK_ARCHIVE;
+            }
+            r.i0 = task.getId();
+            r.s1 = task.getName();
+            r.d0 = task.getTotalHours();
+            r.l0 = Time.getEpochDay(task.getDueDate());
+        } finally {
+            publish(r);
         }
-        sb.append(" ID=").append(task.getId());
-        sb.append(", NAME=").append(task.getName());
-        sb.append(", HOURS=").append(task.getTotalHours());
-
-        SimpleDateFormat sdf2 = new SimpleDateFormat("MM-dd-yyyy");
-        sb.append(", DUE_DATE=").append(sdf2.format(task.getDueDate().getTime())).append("\n");
     }
 
     /**
@@ -79,31 +262,29 @@ public class EventLog {
      * @param type Action type (0=Add, 1=Remove, 2=EDIT)
      */
     public void reportEventAction(Event event, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-
-        if(type == 0)
-            sb.append(" ADD(EVENT): ");
-        else if(type == 1)
-            sb.append(" REMOVE(EVENT): ");
-        else if (type == 2)
-            sb.append(" EDIT(EVENT): ");
-
-        sb.append(" ID=").append(event.getId());
-        sb.append(", NAME=").append(event.getName());
-        sb.append(", TIME_SLOT=").append(event.getTimeStamp().toString());
-
-        SimpleDateFormat sdf2 = new SimpleDateFormat("MM-dd-yyyy");
-        sb.append(", DATE=").append(sdf2.format(event.getTimeStamp().getStart().getTime()));
-
-        sb.append(", RECURRENCE=").append(event.isRecurring());
-
-        if (event.isRecurring())
-            sb.append(", DAYS=").append(Arrays.toString(event.getDays()));
+        if (!isLogged(Category.SCHEDULING, Level.INFO)) return;
+        Record r = claim(Kind.EVENT, Level.INFO);
+        try {
+            if(type == 0) {
+                r.s0 = " ADD(EVENT): ";
+                r.action = Action.EVENT_ADD;
+            } else if(type == 1) {
+                r.s0 = " REMOVE(EVENT): ";
+                r.action = Action.EVENT_REMOVE;
+            } else if (type == 2) {
+                r.s0 = " EDIT(EVENT): ";
+                r.action = Action.EVENT_EDIT;
+            }
 
-        sb.append("\n");
+            r.i0 = event.getId();
+            r.s1 = event.getName();
+            r.l0 = event.getTimeStamp().getStartMinute();
+            r.l1 = event.getTimeStamp().getEndMinute();
+            r.b0 = event.isRecurring();
+            r.o0 = event.getDays();
+        } finally {
+            publish(r);
+        }
     }
 
     /**
@@ -113,21 +294,26 @@ public class EventLog {
      * @param type Action type (0=Card Created, 1=Task Added, 2=Task Removed)
      */
     public void reportCardAction(Card card, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-
-        if(type == 0) {
-            sb.append(" CREATE(CARD): ");
-        } else if(type == 1) {
-            sb.append(" ADD(TASK): ");
-        } else if(type == 2) {
-            sb.append(" REMOVE(TASK): ");
-        }
+        if (!isLogged(Category.SCHEDULING, Level.INFO)) return;
+        int id = card.getId(); //TODO: need to finish getId()
+        Record r = claim(Kind.CARD, Level.INFO);
+        try {
+            if(type == 0) {
+                r.s0 = " CREATE(CARD): ";
+                r.action = Action.CARD_CREATE;
+            } else if(type == 1) {
+                r.s0 = " ADD(TASK): ";
+                r.action = Action.CARD_ADD_TASK;
+            } else if(type == 2) {
+                r.s0 = " REMOVE(TASK): ";
+                r.action = Action.CARD_REMOVE_TASK;
+            }
 
-        sb.append(" ID=" + card.getId()); //TODO: need to finish getId()
-        sb.append(", TITLE=").append(card.getTitle());
-        sb.append("\n");
+            r.i0 = id;
+            r.s1 = card.getTitle();
+        } finally {
+            publish(r);
+        }
     }
 
 
@@ -137,11 +323,7 @@ public class EventLog {
      * @param cl CheckList created
      */
     public void reportCheckListCreation(CheckList cl) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CheckList ID=").append(cl.getId());
-        sb.append(", CREATED\n");
+        report(Category.SCHEDULING, Action.CHECKLIST_CREATE, " CheckList ID=", cl.getId(), ", CREATED");
     }
 
     /**
@@ -150,11 +332,7 @@ public class EventLog {
      * @param cl CheckList removed
      */
     public void reportCheckListRemoval(CheckList cl) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CheckList ID=").append(cl.getId());
-        sb.append(", REMOVED\n");
+        report(Category.SCHEDULING, Action.CHECKLIST_REMOVE, " CheckList ID=", cl.getId(), ", REMOVED");
     }
 
     /**
@@ -163,11 +341,7 @@ public class EventLog {
      * @param cl CheckList being reset
      */
     public void reportCheckListReset(CheckList cl) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CheckList ID=").append(cl.getId());
-        sb.append(", RESET\n");
+        report(Category.SCHEDULING, Action.CHECKLIST_RESET, " CheckList ID=", cl.getId(), ", RESET");
     }
 
     /**
@@ -178,22 +352,38 @@ public class EventLog {
      * @param action representing which action was performed on CheckList
      */
     public void reportCheckListAction(CheckList cl, int itemIdx, int action) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CheckList ID=").append(cl.getId());
-        if(action == 0) {
-            sb.append(", ITEM_REMOVED=").append(cl.getItem(itemIdx));
-        } else if(action == 1) {
-            sb.append(", ITEM_ADDED=").append(cl.getItem(itemIdx));
-        } else if(action == 2) {
-            sb.append(", ITEM=").append(cl.getItem(itemIdx)).append(", MARKED=COMPLETE");
-        } else if(action == 3) {
-            sb.append(", ITEM=").append(cl.getItem(itemIdx)).append(", MARKED=INCOMPLETE");
-        } else if(action == 4) {
-            sb.append(", ITEM=").append(cl.getItem(itemIdx)).append(", SHIFTED");
+        if (!isLogged(Category.SCHEDULING, Level.INFO)) return;
+        CheckList.Item item = action <= 4 ? cl.getItem(itemIdx) : null;
+        Record r = claim(Kind.CHECKLIST, Level.INFO);
+        try {
+            r.i0 = cl.getId();
+            if(action == 0) {
+                r.s0 = ", ITEM_REMOVED=";
+                r.action = Action.ITEM_REMOVE;
+            } else if(action == 1) {
+                r.s0 = ", ITEM_ADDED=";
+                r.action = Action.ITEM_ADD;
+            } else if(action == 2) {
+                r.s0 = ", ITEM=";
+                r.s2 = ", MARKED=COMPLETE";
+                r.action = Action.ITEM_COMPLETE;
+            } else if(action == 3) {
+                r.s0 = ", ITEM=";
+                r.s2 = ", MARKED=INCOMPLETE";
+                r.action = Action.ITEM_INCOMPLETE;
+            } else if(action == 4) {
+                r.s0 = ", ITEM=";
+                r.s2 = ", SHIFTED";
+                r.action = Action.ITEM_SHIFT;
+            }
+            if (item != null) {
+                r.s1 = item.getDescription();
+                r.b0 = item.isComplete();
+            }
+            r.i1 = cl.getPercentage();
+        } finally {
+            publish(r);
         }
-        sb.append(", PERCENTAGE_COMPLETE=").append(cl.getPercentage()).append("\n");
     }
 
     /**
@@ -204,11 +394,12 @@ public class EventLog {
      * @param global whether edit is standard or not
      */
     public void reportWeekEdit(Calendar date, int hours, boolean global) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EDIT(DAY): GLOBAL=").append(global);
-        sb.append(", HOURS=").append(hours).append("\n");
+        if (!isLogged(Category.CONFIG, Level.INFO)) return;
+        Record r = claim(Kind.WEEK_EDIT, Level.INFO);
+        r.action = Action.WEEK_EDIT;
+        r.b0 = global;
+        r.i0 = hours;
+        publish(r);
     }
 
     /**
@@ -219,35 +410,35 @@ public class EventLog {
      * @param nonOverflow overflow status for Day
      */
     public void reportDayAction(Day day, Task task, boolean nonOverflow) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" DAY_ID=").append(day.getId());
-        sb.append(", CAPACITY=").append(day.getCapacity());
-        sb.append(", HOURS_REMAINING=").append(day.getSpareHours());
-        sb.append(", HOURS_FILLED=").append(day.getHoursFilled());
-        sb.append(", TASK ADDED=").append(task.getId());
-        sb.append(", OVERFLOW=").append(!nonOverflow).append("\n");
+        // overflows are kept at INFO, so that they can be counted without logging every placement
+        Level level = nonOverflow ? Level.TRACE : Level.INFO;
+        if (!isLogged(Category.SCHEDULING, level)) return;
+        Record r = claim(Kind.DAY, level);
+        try {
+            r.action = nonOverflow ? Action.DAY_ASSIGN : Action.DAY_OVERFLOW;
+            r.i0 = day.getId();
+            r.d0 = day.getCapacity();
+            r.d1 = day.getSpareHours();
+            r.d2 = day.getHoursFilled();
+            r.i1 = task.getId();
+            r.b0 = !nonOverflow;
+        } finally {
+            publish(r);
+        }
     }
 
     /**
      * Reports the start of scheduling
      */
     public void reportSchedulingStart() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULING HAS BEGUN...\n");
+        report(Category.SCHEDULING, Action.SCHEDULING_START, " SCHEDULING HAS BEGUN...", null, null);
     }
 
     /**
      * Reports the end of scheduling
      */
     public void reportSchedulingFinish() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULING HAS FINISHED...\n");
+        report(Category.SCHEDULING, Action.SCHEDULING_FINISH, " SCHEDULING HAS FINISHED...", null, null);
     }
 
     /**
@@ -256,14 +447,16 @@ public class EventLog {
      * @param day Day being displayed to STDOUT
      */
     public void reportDisplayDaySchedule(Day day) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Display Day_Schedule: ");
-        sb.append("CAPACITY=").append(day.getCapacity());
-        sb.append(", HOURS_FILLED=").append(day.getHoursFilled());
-        sb.append(", NUM_TASKS=").append(day.getNumSubTasks()).append("\n");
-
+        if (!isLogged(Category.SCHEDULING, Level.DEBUG)) return;
+        Record r = claim(Kind.DISPLAY_DAY, Level.DEBUG);
+        try {
+            r.action = Action.DISPLAY_DAY;
+            r.d0 = day.getCapacity();
+            r.d1 = day.getHoursFilled();
+            r.i0 = day.getNumSubTasks();
+        } finally {
+            publish(r);
+        }
     }
 
     /**
@@ -274,23 +467,29 @@ public class EventLog {
      * @param status whether output is directed to STDOUT or not
      */
     public void reportDisplaySchedule(int days, int numTasks, boolean status) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Display Schedule: DAYS=").append(days);
-        sb.append(", NUM_TASKS=").append(numTasks);
-        sb.append(", STDOUT=").append(status).append("\n");
+        if (!isLogged(Category.SCHEDULING, Level.DEBUG)) return;
+        Record r = claim(Kind.DISPLAY_SCHEDULE, Level.DEBUG);
+        r.action = Action.DISPLAY_SCHEDULE;
+        r.i0 = days;
+        r.i1 = numTasks;
+        r.b0 = status;
+        publish(r);
     }
 
     /**
-     * Reports a given exception thrown
+     * Reports a given exception thrown (always logged while the log is open)
      *
      * @param e exception being reported
      */
     public void reportException(Exception e) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [ERROR] ").append(e.getMessage()).append("\n");
+        if (closed) return;
+        Record r = claim(Kind.ERROR, Level.WARN);
+        try {
+            r.action = Action.ERROR;
+            r.s0 = e.getMessage();
+        } finally {
+            publish(r);
+        }
     }
 
     /**
@@ -299,10 +498,7 @@ public class EventLog {
      * @param filename name of file that contains list of Tasks
      */
     public void reportProcessTasks(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Reading Tasks: FILE=").append(filename).append("\n");
+        report(Category.IO, Action.TASKS_READ, " Reading Tasks: FILE=", filename, null);
     }
 
 
@@ -312,10 +508,7 @@ public class EventLog {
      * @param filename name of Config file
      */
     public void reportProcessConfig(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Reading Config: FILE=").append(filename).append("\n");
+        report(Category.CONFIG, Action.CONFIG_READ, " Reading Config: FILE=", filename, null);
     }
 
     /**
@@ -337,70 +530,75 @@ public class EventLog {
      * @param value Object value now being utilized
      */
     public void reportConfigAction(int idx, Object value) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
+        String label;
         if(idx == 0) {
             if(value instanceof String) {
-                sb.append("EDIT(USER_CONFIG): USER_NAME=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): USER_NAME=";
             } else {
                 throw new InputMismatchException("Expected <String> for <USER_NAME>");
             }
         } else if(idx == 1) {
             if(value instanceof String) {
-                sb.append("EDIT(USER_CONFIG): EMAIL=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): EMAIL=";
             } else {
                 throw new InputMismatchException("Expected <String> for <EMAIL>");
             }
         } else if(idx == 2) {
             if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): DAY_HOURS=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): DAY_HOURS=";
             } else {
                 throw new InputMismatchException("Expected <Integer> for <DAY_HOURS>");
             }
         } else if(idx == 3) {
             if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): MAX_DAYS=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): MAX_DAYS=";
             } else {
                 throw new InputMismatchException("Expected <Integer> for <MAX_DAYS>");
             }
         } else if(idx == 4) {
             if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): ARCHIVE_DAYS=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): ARCHIVE_DAYS=";
             } else {
                 throw new InputMismatchException("Expected <Integer> for <ARCHIVE_DAYS>");
             }
         } else if(idx == 5) {
             if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): PRIORITY=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): PRIORITY=";
             } else {
                 throw new InputMismatchException("Expected <Boolean> for <PRIORITY>");
             }
         } else if(idx == 6) {
             if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): OVERFLOW=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): OVERFLOW=";
             } else {
                 throw new InputMismatchException("Expected <Boolean> for <OVERFLOW>");
             }
         } else if(idx == 7) {
             if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): FIT_SCHEDULE=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): FIT_SCHEDULE=";
             } else {
                 throw new InputMismatchException("Expected <Boolean> for <FIT_SCHEDULE>");
             }
         } else if(idx == 8) {
             if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): SCHEDULE_ALG=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): SCHEDULE_ALG=";
             } else {
                 throw new InputMismatchException("Expected <Integer> for <SCHEDULE_ALG>");
             }
         } else {
             if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): MIN_HOURS=").append(value).append("\n");
+                label = "EDIT(USER_CONFIG): MIN_HOURS=";
             } else {
                 throw new InputMismatchException("Expected <Integer> for <MIN_HOURS>");
             }
         }
+        if (!isLogged(Category.CONFIG, Level.INFO)) return;
+        Record r = claim(Kind.CONFIG, Level.INFO);
+        r.action = Action.CONFIG_EDIT;
+        r.i0 = idx;
+        r.s0 = label;
+        r.o0 = value;
+        publish(r);
     }
 
     /**
@@ -409,10 +607,7 @@ public class EventLog {
      * @param filename name of input file
      */
     public void reportReadJBinFile(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" READ(JBIN): FILE=").append(filename).append("\n");
+        report(Category.IO, Action.JBIN_READ, " READ(JBIN): FILE=", filename, null);
     }
 
     /**
@@ -421,40 +616,28 @@ public class EventLog {
      * @param filename name of output file
      */
     public void reportWriteJBinFile(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" WRITE(JBIN): FILE=").append(filename).append("\n");
+        report(Category.IO, Action.JBIN_WRITE, " WRITE(JBIN): FILE=", filename, null);
     }
 
     /**
      * Reports the creation of a JBin file
      */
     public void reportCreateJBin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" JBIN FILE CREATED...\n");
+        report(Category.IO, Action.JBIN_CREATE, " JBIN FILE CREATED...", null, null);
     }
 
     /**
      * Reports the processing of a JBin file
      */
     public void reportProcessJBin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" JBIN FILE PROCESSED...\n");
+        report(Category.IO, Action.JBIN_PROCESS, " JBIN FILE PROCESSED...", null, null);
     }
 
     /**
      * Reports the User's most recent login
      */
     public void reportUserLogin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CURRENT SESSION HAS BEGUN...\n");
+        report(Category.CONFIG, Action.SESSION_START, " CURRENT SESSION HAS BEGUN...", null, null);
     }
 
     /**
@@ -463,22 +646,22 @@ public class EventLog {
      * @param userConfig UserConfig attributes
      */
     public void reportUserConfigAttr(UserConfig userConfig) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" RANGE=").append(Arrays.toString(userConfig.getRange()));
-        sb.append(", WEEK_HOURS=").append(Arrays.toString(userConfig.getWeek()));
-        sb.append(", MAX_DAYS=").append(userConfig.getMaxDays());
-        sb.append(", ARCHIVE_DAYS=").append(userConfig.getArchiveDays());
-        sb.append(", PRIORITY=").append(userConfig.isPriority());
-        sb.append(", OVERFLOW=").append(userConfig.isOverflow());
-        sb.append(", FIT_SCHEDULE=").append(userConfig.isFitDay());
-        sb.append(", SCHEDULE_ALGO=").append(userConfig.getSchedulingAlgorithm());
-        sb.append(", MIN_HOURS=").append(userConfig.getMinHours());
-        sb.append(", OPTIMIZE_DAY=").append(userConfig.isOptimizeDay());
-        sb.append(", DEFAULT_AT_START=").append(userConfig.isDefaultAtStart());
-        sb.append(", LOCAL_SCHEDULE_COLORS=").append(userConfig.isLocalScheduleColors()).append("\n");
-
+        if (!isLogged(Category.CONFIG, Level.INFO)) return;
+        // only reported once per session, so it is formatted right away
+        StringBuilder attr = new StringBuilder();
+        attr.append(" RANGE=").append(Arrays.toString(userConfig.getRange()));
+        attr.append(", WEEK_HOURS=").append(Arrays.toString(userConfig.getWeek()));
+        attr.append(", MAX_DAYS=").append(userConfig.getMaxDays());
+        attr.append(", ARCHIVE_DAYS=").append(userConfig.getArchiveDays());
+        attr.append(", PRIORITY=").append(userConfig.isPriority());
+        attr.append(", OVERFLOW=").append(userConfig.isOverflow());
+        attr.append(", FIT_SCHEDULE=").append(userConfig.isFitDay());
+        attr.append(", SCHEDULE_ALGO=").append(userConfig.getSchedulingAlgorithm());
+        attr.append(", MIN_HOURS=").append(userConfig.getMinHours());
+        attr.append(", OPTIMIZE_DAY=").append(userConfig.isOptimizeDay());
+        attr.append(", DEFAULT_AT_START=").append(userConfig.isDefaultAtStart());
+        attr.append(", LOCAL_SCHEDULE_COLORS=").append(userConfig.isLocalScheduleColors());
+        report(Category.CONFIG, Action.USER_CONFIG, attr.toString(), null, null);
     }
 
     /**
@@ -488,12 +671,8 @@ public class EventLog {
      * @param isStartOfScript whether the script has begun or ended
      */
     public void reportScriptInstance(String filename, boolean isStartOfScript) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCRIPT_NAME=").append(filename);
-        if(isStartOfScript) sb.append(", SCRIPT INSTANCE HAS BEGUN...\n");
-        else sb.append(", SCRIPT INSTANCE HAS ENDED...\n");
+        report(Category.SCRIPTER, isStartOfScript ? Action.SCRIPT_START : Action.SCRIPT_END, " SCRIPT_NAME=", filename, isStartOfScript ? ", SCRIPT INSTANCE HAS BEGUN..."
+                : ", SCRIPT INSTANCE HAS ENDED...");
     }
 
     public void reportJsonActions() {
@@ -501,66 +680,516 @@ public class EventLog {
     }
 
     public void reportExcelFileNameChange(String newName) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EXCEL FILE NAME HAS BEEN CHANGED TO '").append(newName).append(".xlsx'...\n");
+        report(Category.IO, Action.EXCEL_RENAME, " EXCEL FILE NAME HAS BEEN CHANGED TO '", newName, ".xlsx'...");
     }
 
     public void reportExcelFileCreation() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EXCEL FILE CREATION PROCESSED...\n");
+        report(Category.IO, Action.EXCEL_CREATE, " EXCEL FILE CREATION PROCESSED...", null, null);
     }
 
     public void reportExcelExportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE EXPORTED TO EXCEL FILE...\n");
+        report(Category.IO, Action.EXCEL_EXPORT, " SCHEDULE EXPORTED TO EXCEL FILE...", null, null);
     }
 
     public void reportGoogleCalendarAuthorization() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" GOOGLE CALENDAR AUTHORIZATION PROCESSED...\n");
+        report(Category.IO, Action.GOOGLE_AUTHORIZE, " GOOGLE CALENDAR AUTHORIZATION PROCESSED...", null, null);
     }
 
     public void reportGoogleCalendarCleanSchedule(int numTasksDeleted) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" ").append(numTasksDeleted).append(" TASKS REMOVED FROM GOOGLE CALENDAR...\n");
+        report(Category.IO, Action.GOOGLE_CLEAN, " ", numTasksDeleted, " TASKS REMOVED FROM GOOGLE CALENDAR...");
     }
 
     public void reportGoogleCalendarExportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE EXPORTED TO GOOGLE CALENDAR...\n");
+        report(Category.IO, Action.GOOGLE_EXPORT, " SCHEDULE EXPORTED TO GOOGLE CALENDAR...", null, null);
     }
 
     public void reportGoogleCalendarImportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE IMPORTED FROM GOOGLE CALENDAR...\n");
+        report(Category.IO, Action.GOOGLE_IMPORT, " SCHEDULE IMPORTED FROM GOOGLE CALENDAR...", null, null);
     }
 
     /**
      * Reports that current session has ended
      */
     public void reportExitSession() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CURRENT SESSION HAS ENDED...\n");
+        report(Category.CONFIG, Action.SESSION_END, " CURRENT SESSION HAS ENDED...", null, null);
+    }
+
+    /**
+     * Blocks until every action reported so far is written to the log file (or the writer stops responding)
+     */
+    public void flush() {
+        long target = next.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (flushed < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
     }
 
+    /**
+     * Writes out every action reported so far and stops the writer, closing the log files. Nothing is logged once
+     * the log is closed.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(FLUSH_TIMEOUT_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // already shutting down
+        }
+    }
+
+    /**
+     * Gets the log of the current session, as far as its log files are kept: the logs rolled during the session
+     * (up to the number of compressed logs kept), followed by the current log file
+     *
+     * @return contents of the log files
+     */
     @Override
     public String toString() {
-        return sb.toString();
+        flush();
+        StringBuilder log = new StringBuilder();
+        synchronized (fileLock) {
+            for (int i = Math.max(firstArchive, lastArchive - MAX_ARCHIVES + 1); i <= lastArchive; i++) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(archivePath(i)))) {
+                    log.append(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    // skipped like the rest of a log that couldn't be written
+                }
+            }
+            try {
+                log.append(Files.readString(dir.resolve(LOG_NAME)));
+            } catch (IOException e) {
+                // nothing written yet
+            }
+        }
+        return log.toString();
+    }
+
+    /**
+     * Reports an action made up of a message with an optional value and suffix
+     *
+     * @param category category of the action
+     * @param action action stored in the binary log
+     * @param message start of the message
+     * @param value value following the message, or null
+     * @param suffix end of the message, or null
+     */
+    private void report(Category category, Action action, String message, String value, String suffix) {
+        if (!isLogged(category, Level.INFO)) return;
+        Record r = claim(Kind.INFO, Level.INFO);
+        r.action = action;
+        r.s0 = message;
+        r.s1 = value;
+        r.s2 = suffix;
+        publish(r);
+    }
+
+    /**
+     * Reports an action made up of a message with a number and a suffix
+     *
+     * @param category category of the action
+     * @param action action stored in the binary log
+     * @param message start of the message
+     * @param value number following the message
+     * @param suffix end of the message
+     */
+    private void report(Category category, Action action, String message, int value, String suffix) {
+        if (!isLogged(category, Level.INFO)) return;
+        Record r = claim(Kind.INFO_NUMBER, Level.INFO);
+        r.action = action;
+        r.s0 = message;
+        r.i0 = value;
+        r.s2 = suffix;
+        publish(r);
+    }
+
+    /**
+     * Claims the next record of the ring, waiting for the writer if the ring is full
+     *
+     * @param kind kind of action reported by the record
+     * @param level level of the action
+     * @return record to be filled in and published
+     */
+    private Record claim(Kind kind, Level level) {
+        long seq = next.getAndIncrement();
+        while (seq - drained >= ring.length) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        Record r = ring[(int) seq & mask];
+        r.claimed = seq;
+        r.kind = kind;
+        r.level = level;
+        r.action = Action.MESSAGE;
+        r.time = System.currentTimeMillis();
+        return r;
+    }
+
+    /**
+     * Hands a filled in record over to the writer
+     *
+     * @param r record being published
+     */
+    private void publish(Record r) {
+        r.published = r.claimed;
+    }
+
+    /**
+     * Writes the records as they are published (run by the writer thread)
+     */
+    private void drain() {
+        synchronized (fileLock) {
+            try {
+                openLog();
+            } catch (IOException e) {
+                out = null;
+            }
+            // the log of the previous session was archived by now
+            firstArchive = lastArchive + 1;
+        }
+        try {
+            records = new EventRecordLog(dir.resolve("events"), MAX_SEGMENT_SIZE, MAX_SEGMENTS);
+        } catch (IOException e) {
+            records = null;
+        }
+        long seq = 0;
+        while (true) {
+            Record r = ring[(int) seq & mask];
+            if (r.published != seq) {
+                // nothing left to write for now
+                writeOut(seq);
+                if (closed) break;
+                LockSupport.parkNanos(this, IDLE_NANOS);
+                continue;
+            }
+            int length = sb.length();
+            try {
+                format(r);
+                if (records != null && r.kind != Kind.HEADER) append(r);
+            } catch (RuntimeException e) {
+                // a record that can't be formatted is dropped rather than stopping the log
+                sb.setLength(length);
+            } catch (IOException e) {
+                records = null;
+            }
+            r.clear();
+            drained = ++seq;
+            if (sb.length() >= BATCH_SIZE) writeOut(seq);
+        }
+        synchronized (fileLock) {
+            try {
+                if (records != null) records.close();
+                if (out != null) out.close();
+            } catch (IOException e) {
+                // everything was already written out
+            }
+            records = null;
+            out = null;
+        }
+    }
+
+    /**
+     * Writes the formatted records to the log file, rolling it once it is too large
+     *
+     * @param seq sequence number of the next record to be formatted
+     */
+    private void writeOut(long seq) {
+        if (records != null) {
+            try {
+                records.flush();
+            } catch (IOException e) {
+                records = null;
+            }
+        }
+        if (sb.length() > 0 && out != null) {
+            synchronized (fileLock) {
+                try {
+                    out.append(sb);
+                    out.flush();
+                    fileSize += sb.length();
+                    if (fileSize >= maxFileSize) openLog();
+                } catch (IOException e) {
+                    // logging never interrupts the session, so the records are dropped
+                    out = null;
+                }
+            }
+        }
+        sb.setLength(0);
+        flushed = seq;
+    }
+
+    /**
+     * Appends a record to the binary log, keeping the IDs and numbers of the action
+     *
+     * @param r record being appended
+     * @throws IOException if the binary log could not be written
+     */
+    private void append(Record r) throws IOException {
+        switch (r.kind) {
+            case TASK:
+                records.append(r.time, r.action, false, r.i0, (int) r.l0, r.d0);
+                break;
+            case EVENT:
+                records.append(r.time, r.action, r.b0, r.i0, 0, r.l0);
+                break;
+            case CHECKLIST:
+                records.append(r.time, r.action, r.b0, r.i0, r.i1, 0);
+                break;
+            case WEEK_EDIT:
+            case DISPLAY_DAY:
+                records.append(r.time, r.action, r.b0, 0, r.i0, r.d1);
+                break;
+            case DAY:
+                records.append(r.time, r.action, r.b0, r.i0, r.i1, r.d2);
+                break;
+            case CONFIG:
+                double value = r.o0 instanceof Number ? ((Number) r.o0).doubleValue()
+                        : Boolean.TRUE.equals(r.o0) ? 1 : 0;
+                records.append(r.time, r.action, false, r.i0, 0, value);
+                break;
+            case INFO:
+            case ERROR:
+                records.append(r.time, r.action, false, 0, 0, 0);
+                break;
+            default:
+                // CARD, INFO_NUMBER and DISPLAY_SCHEDULE
+                records.append(r.time, r.action, r.b0, r.i0, r.i1, 0);
+                break;
+        }
+    }
+
+    /**
+     * Archives the current log file (if it has anything in it) and starts a new one
+     *
+     * @throws IOException if the log files could not be written
+     */
+    private void openLog() throws IOException {
+        if (out != null) {
+            out.close();
+        } else {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> archives = Files.newDirectoryStream(dir, "system-*.log.gz")) {
+                for (Path archive : archives) {
+                    String name = archive.getFileName().toString();
+                    try {
+                        lastArchive = Math.max(lastArchive,
+                                Integer.parseInt(name.substring(7, name.length() - ".log.gz".length())));
+                    } catch (NumberFormatException e) {
+                        // not one of ours
+                    }
+                }
+            }
+        }
+        Path log = dir.resolve(LOG_NAME);
+        if (Files.exists(log) && Files.size(log) > 0) {
+            lastArchive++;
+            try (InputStream in = Files.newInputStream(log);
+                 OutputStream gz = new GZIPOutputStream(Files.newOutputStream(archivePath(lastArchive)))) {
+                in.transferTo(gz);
+            }
+            Files.deleteIfExists(archivePath(lastArchive - MAX_ARCHIVES));
+        }
+        out = Files.newBufferedWriter(log, StandardCharsets.UTF_8);
+        fileSize = 0;
+    }
+
+    private Path archivePath(int archive) {
+        return dir.resolve("system-" + archive + ".log.gz");
+    }
+
+    /**
+     * Formats a record the same way every action has always been logged
+     *
+     * @param r record being formatted
+     */
+    private void format(Record r) {
+        if (r.kind == Kind.HEADER) {
+            local.setTimeInMillis(r.time);
+            sb.append('[');
+            appendTwoDigits(local.get(Calendar.DAY_OF_MONTH)).append('-');
+            appendTwoDigits(local.get(Calendar.MONTH) + 1).append('-');
+            sb.append(local.get(Calendar.YEAR)).append("] Log of all activities from current session: \n\n");
+            return;
+        }
+        appendTime(r.time);
+        if (r.kind == Kind.ERROR) {
+            sb.append(" [ERROR] ").append(r.s0).append('\n');
+            return;
+        }
+        sb.append(" [").append(r.level).append(']');
+        switch (r.kind) {
+            case INFO:
+                sb.append(r.s0);
+                if (r.s1 != null) sb.append(r.s1);
+                if (r.s2 != null) sb.append(r.s2);
+                break;
+            case INFO_NUMBER:
+                sb.append(r.s0).append(r.i0).append(r.s2);
+                break;
+            case TASK:
+                sb.append(r.s0);
+                sb.append(" ID=").append(r.i0);
+                sb.append(", NAME=").append(r.s1);
+                sb.append(", HOURS=").append(r.d0);
+                sb.append(", DUE_DATE=");
+                fields.setTimeInMillis(r.l0 * Time.MINUTES_PER_DAY * 60_000L);
+                appendTwoDigits(fields.get(Calendar.MONTH) + 1).append('-');
+                appendTwoDigits(fields.get(Calendar.DAY_OF_MONTH)).append('-');
+                sb.append(fields.get(Calendar.YEAR));
+                break;
+            case EVENT:
+                if (r.s0 != null) sb.append(r.s0);
+                Time.TimeStamp timeStamp = new Time.TimeStamp(r.l0, r.l1);
+                sb.append(" ID=").append(r.i0);
+                sb.append(", NAME=").append(r.s1);
+                sb.append(", TIME_SLOT=").append(timeStamp);
+                sb.append(", DATE=");
+                fields.setTimeInMillis(r.l0 * 60_000L);
+                appendTwoDigits(fields.get(Calendar.MONTH) + 1).append('-');
+                appendTwoDigits(fields.get(Calendar.DAY_OF_MONTH)).append('-');
+                sb.append(fields.get(Calendar.YEAR));
+                sb.append(", RECURRENCE=").append(r.b0);
+                if (r.b0) sb.append(", DAYS=").append(Arrays.toString((Object[]) r.o0));
+                break;
+            case CARD:
+                if (r.s0 != null) sb.append(r.s0);
+                sb.append(" ID=").append(r.i0);
+                sb.append(", TITLE=").append(r.s1);
+                break;
+            case CHECKLIST:
+                sb.append(" CheckList ID=").append(r.i0);
+                if (r.s0 != null) {
+                    sb.append(r.s0).append(r.s1);
+                    if (r.b0) sb.append("✅");
+                    if (r.s2 != null) sb.append(r.s2);
+                }
+                sb.append(", PERCENTAGE_COMPLETE=").append(r.i1);
+                break;
+            case WEEK_EDIT:
+                sb.append(" EDIT(DAY): GLOBAL=").append(r.b0);
+                sb.append(", HOURS=").append(r.i0);
+                break;
+            case DAY:
+                sb.append(" DAY_ID=").append(r.i0);
+                sb.append(", CAPACITY=").append(r.d0);
+                sb.append(", HOURS_REMAINING=").append(r.d1);
+                sb.append(", HOURS_FILLED=").append(r.d2);
+                sb.append(", TASK ADDED=").append(r.i1);
+                sb.append(", OVERFLOW=").append(r.b0);
+                break;
+            case DISPLAY_DAY:
+                sb.append(" Display Day_Schedule: ");
+                sb.append("CAPACITY=").append(r.d0);
+                sb.append(", HOURS_FILLED=").append(r.d1);
+                sb.append(", NUM_TASKS=").append(r.i0);
+                break;
+            case DISPLAY_SCHEDULE:
+                sb.append(" Display Schedule: DAYS=").append(r.i0);
+                sb.append(", NUM_TASKS=").append(r.i1);
+                sb.append(", STDOUT=").append(r.b0);
+                break;
+            case CONFIG:
+                sb.append(r.s0).append(r.o0);
+                break;
+            default:
+                break;
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Appends a local time as [HH:mm:ss]
+     *
+     * @param millis time in milliseconds
+     */
+    private void appendTime(long millis) {
+        local.setTimeInMillis(millis);
+        sb.append('[');
+        appendTwoDigits(local.get(Calendar.HOUR_OF_DAY)).append(':');
+        appendTwoDigits(local.get(Calendar.MINUTE)).append(':');
+        appendTwoDigits(local.get(Calendar.SECOND)).append(']');
+    }
+
+    private StringBuilder appendTwoDigits(int value) {
+        if (value < 10) sb.append('0');
+        return sb.append(value);
+    }
+
+    /**
+     * Levels of detail an action is reported at, from the most to the least detailed
+     */
+    public enum Level { TRACE, DEBUG, INFO, WARN }
+
+    /**
+     * Parts of the system an action is reported by
+     */
+    public enum Category { SCHEDULING, IO, SCRIPTER, CONFIG }
+
+    /**
+     * Kinds of actions held by a record
+     */
+    private enum Kind {
+        HEADER, INFO, INFO_NUMBER, ERROR, TASK, EVENT, CARD, CHECKLIST, WEEK_EDIT, DAY, DISPLAY_DAY,
+        DISPLAY_SCHEDULE, CONFIG
+    }
+
+    /**
+     * Slot of the ring holding the values of a reported action until it is written. What each field holds depends
+     * on the kind of action.
+     */
+    private static final class Record {
+        /** Sequence number the record was last published under */
+        private volatile long published;
+        /** Sequence number the record is being filled in under */
+        private long claimed;
+        private Kind kind;
+        private Level level;
+        private Action action;
+        private long time;
+        private String s0;
+        private String s1;
+        private String s2;
+        private Object o0;
+        private int i0;
+        private int i1;
+        private long l0;
+        private long l1;
+        private double d0;
+        private double d1;
+        private double d2;
+        private boolean b0;
+
+        Record(long published) {
+            this.published = published;
+        }
+
+        /**
+         * Resets the values held, so that nothing is kept alive by a record waiting to be reused and no value is
+         * carried over into the next action
+         */
+        void clear() {
+            s0 = null;
+            s1 = null;
+            s2 = null;
+            o0 = null;
+            i0 = 0;
+            i1 = 0;
+            l0 = 0;
+            l1 = 0;
+            d0 = 0;
+            d1 = 0;
+            d2 = 0;
+            b0 = false;
+        }
     }
-}
\ No newline at end of file
+}
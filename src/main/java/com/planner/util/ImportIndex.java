@@ -0,0 +1,280 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+
+import java.util.*;
+
+/**
+ * Content-hash index of the Tasks, Cards and Events in the system, whether brought in by JBin imports or created
+ * directly, so that importing a file again (or a file overlapping an earlier one, such as an export of the board)
+ * reuses what is already in the system instead of duplicating it. Tasks are matched
+ * by name, due date, hours and a digest of their CheckList, Cards by title and color, and Events by name, color, time
+ * and the days they recur on.
+ * <p>
+ * Tasks (and Events) with the same content within one file are distinct: the n-th of them is matched to the n-th
+ * earlier one with that content, and only the ones beyond it are new.
+ *
+ * @author Andrew Roe
+ */
+public class ImportIndex {
+
+    /** Starting value of a 64-bit FNV-1a digest */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    /** Multiplier of a 64-bit FNV-1a digest */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Imported Tasks by their content */
+    private final Map<TaskKey, List<Task>> tasks = new HashMap<>();
+    /** Content each imported Task was indexed under */
+    private final Map<Task, TaskKey> keys = new IdentityHashMap<>();
+    /** Cards by their title and color */
+    private final Map<String, Card> cards = new HashMap<>();
+    /** Number of imported Events with each content */
+    private final Map<EventKey, Integer> events = new HashMap<>();
+
+    /**
+     * Matches the Tasks of an import against the ones already indexed, indexing the Tasks that are new
+     *
+     * @param imported Tasks of the import
+     * @return the Task each imported Task is replaced with (itself if it is new)
+     */
+    public Map<Task, Task> addTasks(Collection<Task> imported) {
+        Map<Task, Task> resolved = new IdentityHashMap<>(imported.size());
+        Map<TaskKey, Integer> matched = new HashMap<>();
+        for (Task t : imported) {
+            TaskKey key = new TaskKey(t);
+            List<Task> existing = tasks.computeIfAbsent(key, k -> new ArrayList<>(1));
+            int n = matched.merge(key, 1, Integer::sum) - 1;
+            if (n < existing.size()) {
+                resolved.put(t, existing.get(n));
+            } else {
+                existing.add(t);
+                keys.put(t, key);
+                resolved.put(t, t);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Indexes a Task created in the system, so that importing it later reuses it
+     *
+     * @param task Task being indexed
+     */
+    public void addTask(Task task) {
+        TaskKey key = new TaskKey(task);
+        tasks.computeIfAbsent(key, k -> new ArrayList<>(1)).add(task);
+        keys.put(task, key);
+    }
+
+    /**
+     * Indexes a Task again under its current content, once its CheckList changed
+     *
+     * @param task Task whose content changed
+     */
+    public void updateTask(Task task) {
+        if (!keys.containsKey(task)) return;
+        removeTask(task);
+        addTask(task);
+    }
+
+    /**
+     * Removes a Task from the index, so that importing it again brings it back
+     *
+     * @param task Task being removed
+     */
+    public void removeTask(Task task) {
+        TaskKey key = keys.remove(task);
+        if (key == null) return;
+        List<Task> existing = tasks.get(key);
+        for (int i = 0; i < existing.size(); i++) {
+            if (existing.get(i) == task) {
+                existing.remove(i);
+                break;
+            }
+        }
+        if (existing.isEmpty()) tasks.remove(key);
+    }
+
+    /**
+     * Gets the Card with the given title and color
+     *
+     * @param title title of the Card
+     * @param color color of the Card
+     * @return indexed Card, or null if there is none
+     */
+    public Card getCard(String title, Card.Colors color) {
+        return cards.get(cardKey(title, color));
+    }
+
+    /**
+     * Indexes a Card, unless one with the same title and color is already indexed
+     *
+     * @param card Card being indexed
+     */
+    public void addCard(Card card) {
+        cards.putIfAbsent(cardKey(card.getTitle(), card.getColorId()), card);
+    }
+
+    /**
+     * Matches the Events of an import against the ones already indexed, indexing the Events that are new
+     *
+     * @param imported Events of the import
+     * @return the imported Events which are new, in their original order
+     */
+    public List<Event> addEvents(Collection<Event> imported) {
+        List<Event> added = new ArrayList<>();
+        Map<EventKey, Integer> matched = new HashMap<>();
+        for (Event e : imported) {
+            EventKey key = new EventKey(e);
+            int n = matched.merge(key, 1, Integer::sum);
+            if (n > events.getOrDefault(key, 0)) {
+                events.put(key, n);
+                added.add(e);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Indexes an Event created in the system, so that importing it later reuses it
+     *
+     * @param event Event being indexed
+     */
+    public void addEvent(Event event) {
+        events.merge(new EventKey(event), 1, Integer::sum);
+    }
+
+    /**
+     * Gets the number of Tasks indexed
+     *
+     * @return number of Tasks
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    private static String cardKey(String title, Card.Colors color) {
+        return color.name() + ' ' + title;
+    }
+
+    /**
+     * Adds a String to a 64-bit FNV-1a digest
+     */
+    private static long digest(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        // separates one String from the next
+        return (h ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    /**
+     * Adds the bytes of a long to a 64-bit FNV-1a digest
+     */
+    private static long digest(long h, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            h = (h ^ (value >>> shift & 0xFF)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Content of a Task that identifies it across imports
+     */
+    private static final class TaskKey {
+        private final String name;
+        private final long dueDay;
+        private final double hours;
+        private final long checkListDigest;
+        private final int hash;
+
+        TaskKey(Task task) {
+            this.name = task.getName();
+            this.dueDay = Time.getEpochDay(task.getDueDate());
+            this.hours = task.getTotalHours();
+            this.checkListDigest = digest(task.getCheckList());
+            this.hash = Objects.hash(name, dueDay, hours, checkListDigest);
+        }
+
+        /**
+         * Digests the name and items of a CheckList (64-bit FNV-1a)
+         *
+         * @param checkList CheckList being digested, or null
+         * @return digest of the CheckList (0 if there is none)
+         */
+        private static long digest(CheckList checkList) {
+            if (checkList == null) return 0;
+            long h = FNV_OFFSET;
+            h = ImportIndex.digest(h, checkList.getName());
+            for (CheckList.Item item : checkList.getItems()) {
+                h = ImportIndex.digest(h, item.getDescription());
+                h = (h ^ (item.isComplete() ? 1 : 0)) * FNV_PRIME;
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TaskKey)) return false;
+            TaskKey key = (TaskKey) o;
+            return dueDay == key.dueDay && Double.compare(hours, key.hours) == 0
+                    && checkListDigest == key.checkListDigest && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Content of an Event that identifies it across imports, hashed with a 64-bit FNV-1a digest
+     */
+    private static final class EventKey {
+        private final String name;
+        private final Card.Colors color;
+        private final long start;
+        private final long end;
+        /** Bit for each day of the week the Event recurs on (0 for an individual Event) */
+        private final int days;
+        private final long digest;
+
+        EventKey(Event event) {
+            this.name = event.getName();
+            this.color = event.getColor();
+            this.start = event.getTimeStamp().getStartMinute();
+            this.end = event.getTimeStamp().getEndMinute();
+            int days = 0;
+            if (event.isRecurring()) {
+                for (Event.DayOfWeek dayOfWeek : event.getDays()) {
+                    days |= 1 << dayOfWeek.ordinal();
+                }
+            }
+            this.days = days;
+            long h = digest(FNV_OFFSET, name);
+            h = digest(h, color.name());
+            h = digest(h, start);
+            h = digest(h, end);
+            this.digest = digest(h, days);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EventKey)) return false;
+            EventKey key = (EventKey) o;
+            return digest == key.digest && start == key.start && end == key.end && days == key.days
+                    && color == key.color && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(digest);
+        }
+    }
+}
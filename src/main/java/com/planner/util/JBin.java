@@ -1,13 +1,20 @@
 package com.planner.util;
 
+import com.planner.io.JBinReader;
 import com.planner.models.Card;
 import com.planner.models.CheckList;
 import com.planner.models.Event;
 import com.planner.models.Task;
-import com.planner.manager.ScheduleManager;
 import com.planner.schedule.day.Day;
 import com.planner.scripter.exception.InvalidGrammarException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -26,9 +33,31 @@ public class JBin {
      * Creates a Java Binary Serialization string to be later passed or stored
      *
      * @param cards all Cards in System
+     * @param schedule schedule being saved
      * @return JBin String
      */
-    public static String createJBin(List<Card> cards) {
+    public static String createJBin(List<Card> cards, List<Day> schedule) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJBin(cards, schedule, writer);
+        } catch (IOException e) {
+            // writing to a String never fails
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the Java Binary Serialization of the system straight to a Writer. Tasks are numbered through an
+     * identity map, so the time taken is linear in the size of the board and nothing but the Task numbering is held
+     * in memory.
+     *
+     * @param cards all Cards in System
+     * @param schedule schedule being saved
+     * @param out destination of the JBin
+     * @throws IOException if the destination could not be written to
+     */
+    public static void writeJBin(List<Card> cards, List<Day> schedule, Writer out) throws IOException {
 
         /* NOTES:
         1. Create Label section (with ID, not associated with system)
@@ -68,123 +97,127 @@ public class JBin {
         NOTE: Try working from bottom to top (might be able to save on efficiency and storage)
          */
         Calendar calendar = Time.getFormattedCalendarInstance(0);
-        StringBuilder calendarSB = new StringBuilder();
-        if(calendar.get(Calendar.DAY_OF_MONTH) < 10) {
-            calendarSB.append("0").append(calendar.get(Calendar.DAY_OF_MONTH));
-        } else {
-            calendarSB.append(calendar.get(Calendar.DAY_OF_MONTH));
-        }
-        calendarSB.append("-");
-        if(calendar.get(Calendar.MONTH) < 10) {
-            calendarSB.append("0").append(calendar.get(Calendar.MONTH) + 1);
-        } else {
-            calendarSB.append(calendar.get(Calendar.MONTH));
-        }
-        calendarSB.append("-").append(calendar.get(Calendar.YEAR)).append("\n\n");
-        StringBuilder cardSB = new StringBuilder();
+        // Calendar.MONTH is zero-indexed
+        out.write(String.format("%02d-%02d-%d\n\n", calendar.get(Calendar.DAY_OF_MONTH),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.YEAR)));
+
+        // Tasks are numbered in the order they first appear on a Card
         List<Task> taskList = new ArrayList<>();
-        List<CheckList> checkListList = new ArrayList<>();
-        if(!cards.isEmpty()) {
-            cardSB.append("CARD {\n");
-            for(Card c : cards) {
-                String title = c.getTitle();
-                cardSB.append("  ").append(title);
-                cardSB.append(", ").append(c.getColorId());
-                for(Task t : c.getTask()) {
-                    if(!taskList.contains(t)) {
-                        taskList.add(t);
-                        cardSB.append(", T").append(taskList.size() - 1);
-                    } else {
-                        cardSB.append(", T").append(taskList.indexOf(t));
-                    }
+        Map<Task, Integer> taskIdx = new IdentityHashMap<>();
+        boolean hasCheckList = false;
+        for(Card c : cards) {
+            for(Task t : c.getTask()) {
+                if(taskIdx.putIfAbsent(t, taskList.size()) == null) {
+                    taskList.add(t);
+                    hasCheckList |= t.getCheckList() != null;
                 }
-                cardSB.append("\n");
             }
-            cardSB.append("}\n");
         }
-        StringBuilder taskSB = new StringBuilder();
-        if(!taskList.isEmpty()) {
-            taskSB.append("TASK {\n");
+
+        if(hasCheckList) {
+            out.write("CHECKLIST {\n");
             for(Task t : taskList) {
-                String name = t.getName();
-                double totalHours = t.getTotalHours();
-                //int remainingHours = t.getSubTotalHoursRemaining();
-                taskSB.append("  ")
-                        .append(name)
-                        .append(", ")
-                        .append(totalHours)
-                        .append(", ")
-                        .append(Time.differenceOfDays(t.getDueDate(), calendar));
                 CheckList cl = t.getCheckList();
-                if(cl != null) {
-                    checkListList.add(cl);
-                    taskSB.append(", CL").append(checkListList.size() - 1);
+                if(cl == null) continue;
+                out.write("  ");
+                out.write(cl.getName());
+                for(CheckList.Item i : cl.getItems()) {
+                    out.write(", ");
+                    out.write(i.getDescription());
+                    if(i.isComplete()) out.write('+');
                 }
-                taskSB.append("\n");
+                out.write('\n');
             }
-            taskSB.append("}\n");
+            out.write("}\n\n");
         }
-        StringBuilder clSB = new StringBuilder();
-        if(!checkListList.isEmpty()) {
-            clSB.append("CHECKLIST {\n");
-            for(CheckList cl : checkListList) {
-                clSB.append("  ").append(cl.getName());
-                for(CheckList.Item i : cl.getItems()) {
-                    clSB.append(", ").append(i);
+
+        if(!taskList.isEmpty()) {
+            out.write("TASK {\n");
+            int clIdx = 0;
+            for(Task t : taskList) {
+                out.write("  ");
+                out.write(t.getName());
+                out.write(", ");
+                out.write(String.valueOf(t.getTotalHours()));
+                out.write(", ");
+                out.write(String.valueOf(Time.differenceOfDays(t.getDueDate(), calendar)));
+                if(t.getCheckList() != null) {
+                    out.write(", CL");
+                    out.write(String.valueOf(clIdx++));
                 }
-                clSB.append("\n");
+                out.write('\n');
             }
-            clSB.append("}\n\n");
+            out.write("}\n");
         }
-        StringBuilder daySB = new StringBuilder();
-        ScheduleManager sm = ScheduleManager.getScheduleManager();
-        if(!sm.scheduleIsEmpty()) {
-            daySB.append("DAY {\n");
-            for(Day d : sm.getSchedule()) {
-                boolean flag = false;
-                daySB.append("  ");
-                if (d.getNumSubTasks() == 0) {
-                    daySB.append("N/A");
-                } else {
-                    for(Task.SubTask st : d.getSubTasks()) {
-                        if(flag) {
-                            daySB.append(", ");
-                        }
-                        Task task = st.getParentTask();
-                        int i = -1;
-                        for(Task t : taskList) {
-                            i++;
-                            if(task == t) {
-                                break;
-                            }
-                        }
-                        daySB.append("T")
-                                .append(i)
-                                .append(" ")
-                                .append(st.getSubTaskHours());
-                        flag = true;
-                    }
+        out.write('\n');
+
+        if(!cards.isEmpty()) {
+            out.write("CARD {\n");
+            for(Card c : cards) {
+                out.write("  ");
+                out.write(c.getTitle());
+                out.write(", ");
+                out.write(c.getColorId().name());
+                for(Task t : c.getTask()) {
+                    out.write(", T");
+                    out.write(String.valueOf(taskIdx.get(t)));
                 }
-                daySB.append("\n");
+                out.write('\n');
             }
-            daySB.append("}\n");
+            out.write("}\n");
         }
-        StringBuilder eventSB = new StringBuilder();
-        if (!sm.getIndivEvents().isEmpty()) {
+        out.write('\n');
 
+        if(!schedule.isEmpty()) {
+            out.write("DAY {\n");
+            for(Day d : schedule) {
+                out.write("  ");
+                boolean flag = false;
+                for(Task.SubTask st : d.getSubTasks()) {
+                    // SubTasks of Tasks no longer on a Card can't be referenced
+                    Integer i = taskIdx.get(st.getParentTask());
+                    if(i == null) continue;
+                    if(flag) {
+                        out.write(", ");
+                    }
+                    out.write("T");
+                    out.write(String.valueOf(i));
+                    out.write(" ");
+                    out.write(String.valueOf(st.getSubTaskHours()));
+                    flag = true;
+                }
+                if(!flag) {
+                    out.write("N/A");
+                }
+                out.write('\n');
+            }
+            out.write("}\n");
         }
-        if (!sm.getRecurringEvents().isEmpty()) {
+        out.flush();
+    }
 
+    /**
+     * Processes the contents of a JBin file to update the current system, detecting whether it is in the binary
+     * format of {@link BinaryJBin} or the text format
+     *
+     * @param data contents of the JBin file
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is (only binary JBins have them), otherwise
+     * null
+     */
+    public static SavedSchedule processJBin(byte[] data, Queue<Task> tasks, List<Event> events, int eventId,
+                                            List<Card> cards, List<Day> schedule, int maxArchiveDays) {
+        if (BinaryJBin.isBinary(data)) {
+            return BinaryJBin.processJBin(data, tasks, events, eventId, cards, schedule, maxArchiveDays);
         }
-        //now go from top to bottom with all the data you now have
-        return calendarSB
-                .append(clSB)
-                .append(taskSB)
-                .append("\n")
-                .append(cardSB)
-                .append("\n")
-                .append(daySB)
-                .toString();
+        processJBin(new String(data, StandardCharsets.UTF_8), tasks, events, eventId, cards, schedule,
+                maxArchiveDays);
+        return null;
     }
 
     /**
@@ -196,14 +229,63 @@ public class JBin {
      * @param schedule set of Days for the given schedule being processed
      * @param maxArchiveDays maximum number of past Days to include
      */
-    public static void processJBin(String data, PriorityQueue<Task> tasks, List<Event> events, int eventId,
+    public static void processJBin(String data, Queue<Task> tasks, List<Event> events, int eventId,
                                    List<Card> cards, List<Day> schedule, int maxArchiveDays) {
+        BufferedReader reader = new BufferedReader(new StringReader(data));
+        try {
+            processLines(reader::readLine, tasks, events, eventId, cards, schedule, maxArchiveDays);
+        } catch (IOException e) {
+            // reading from a String never fails
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Processes a JBin file as it is streamed, detecting whether it is in the binary format of {@link BinaryJBin}
+     * or the text format. Only the current line (or binary section) is held in memory.
+     *
+     * @param reader reader of the JBin file
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is (only binary JBins have them), otherwise
+     * null
+     * @throws IOException if the JBin file could not be read
+     */
+    public static SavedSchedule processJBin(JBinReader reader, Queue<Task> tasks, List<Event> events, int eventId,
+                                            List<Card> cards, List<Day> schedule, int maxArchiveDays)
+            throws IOException {
+        if (BinaryJBin.isBinary(reader)) {
+            return BinaryJBin.processJBin(reader, tasks, events, eventId, cards, schedule, maxArchiveDays);
+        }
+        processLines(reader::readLine, tasks, events, eventId, cards, schedule, maxArchiveDays);
+        return null;
+    }
+
+    /**
+     * Source of the lines of a text JBin
+     */
+    private interface LineSource {
+        /**
+         * Reads the next line
+         *
+         * @return next line, or null once there are no more lines
+         * @throws IOException if the line could not be read
+         */
+        String readLine() throws IOException;
+    }
+
+    private static void processLines(LineSource lines, Queue<Task> tasks, List<Event> events, int eventId,
+                                     List<Card> cards, List<Day> schedule, int maxArchiveDays) throws IOException {
         //NOTE: When processing, you should work from top to bottom (use ArrayLists to easily locate data by index value)
-        Scanner jbinScanner = new Scanner(data);
         LocalDate ld = null;
-        if(jbinScanner.hasNextLine()) {
+        String header = lines.readLine();
+        if(header != null) {
             DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-            ld = LocalDate.parse(jbinScanner.nextLine(), df);
+            ld = LocalDate.parse(header, df);
         }
 
         Calendar calendar = Time.getFormattedCalendarInstance(0);
@@ -226,34 +308,20 @@ public class JBin {
         List<CheckList> checkLists = new ArrayList<>();
         List<Task> taskList = new ArrayList<>();
 
-        while(jbinScanner.hasNextLine()) {
-            String type = jbinScanner.nextLine();
+        String type;
+        while((type = lines.readLine()) != null) {
             String[] tokens = type.split("\\s");
             if(!checklistOpen && tokens.length == 2 && "CHECKLIST".equals(tokens[0]) && "{".equals(tokens[1])) {
                 checklistOpen = true;
-                while(jbinScanner.hasNextLine()) {
-                    type = jbinScanner.nextLine();
+                while((type = lines.readLine()) != null) {
                     tokens = type.split(",");
                     if(tokens.length == 0) {
                         throw new InputMismatchException();
                     } else if("}".equals(tokens[0].trim()) && tokens.length == 1) {
                         checklistClosed = true;
                         break;
-                    } else if(tokens.length == 1) {
-                        checkLists.add(new CheckList(checkLists.size(), tokens[0].trim()));
                     } else {
-                        checkLists.add(new CheckList(checkLists.size(), tokens[0].trim()));
-                        int itemId = 0;
-                        for(int i = 1; i < tokens.length; i++) {
-                            String item = tokens[i];
-                            boolean complete = false;
-                            if(item.charAt(item.length() - 1) == '+') {
-                                complete = true;
-                                item = item.substring(0, item.length() - 1);
-                            }
-                            checkLists.get(checkLists.size() - 1).addItem(item.trim());
-                            checkLists.get(checkLists.size() - 1).markItemById(itemId++, complete);
-                        }
+                        checkLists.add(parseCheckList(tokens, checkLists.size()));
                     }
                 }
 
@@ -262,30 +330,19 @@ public class JBin {
                 }
             } else if(!taskOpen && tokens.length == 2 && "TASK".equals(tokens[0]) && "{".equals(tokens[1])) {
                 taskOpen = true;
-                while(jbinScanner.hasNextLine()) {
-                    type = jbinScanner.nextLine();
+                while((type = lines.readLine()) != null) {
                     tokens = type.split(",");
                     if(tokens.length == 0) {
                         throw new InputMismatchException();
                     } else if("}".equals(tokens[0].trim()) && tokens.length == 1) {
                         taskClosed = true;
                         break;
-                    } else if(tokens.length == 3) {
-                        taskList.add(new Task(taskList.size(), tokens[0].trim(), Double.parseDouble(tokens[1].trim()),
-                                Time.getFormattedCalendarInstance(calendar, Integer.parseInt(tokens[2].trim()))));
-                    } else if(tokens.length > 3) {
-                        taskList.add(new Task(taskList.size(), tokens[0].trim(), Double.parseDouble(tokens[1].trim()),
-                                Time.getFormattedCalendarInstance(calendar, Integer.parseInt(tokens[2].trim()))));
+                    } else {
+                        Task task = parseTask(tokens, taskList.size(), calendar);
+                        taskList.add(task);
                         for(int i = 3; i < tokens.length; i++) {
-                            String item = tokens[i].trim();
-                            if(item.length() > 2 && item.charAt(0) == 'C' && item.charAt(1) == 'L') {
-                                taskList.get(taskList.size() - 1).addCheckList(checkLists.get(Integer.parseInt(item.substring(2))));
-                            } else {
-                                throw new InputMismatchException();
-                            }
+                            task.addCheckList(checkLists.get(parseCheckListRef(tokens[i])));
                         }
-                    } else {
-                        throw new InputMismatchException();
                     }
                 }
 
@@ -297,8 +354,8 @@ public class JBin {
             else if(!eventOpen && tokens.length == 2 && "EVENT".equals(tokens[0]) && "{".equals(tokens[1])) {
                 eventOpen = true;
 
-                while(jbinScanner.hasNextLine()) {
-                    tokens = jbinScanner.nextLine().split(",");
+                while((type = lines.readLine()) != null) {
+                    tokens = type.split(",");
 
                     if(tokens.length == 0)
                         throw new InputMismatchException();
@@ -308,76 +365,8 @@ public class JBin {
                         break;
                     }
 
-                    else if(tokens.length == 5 || tokens.length == 4) {
-                        String name = tokens[0].trim();
-                        Card.Colors color = parseColor(tokens[1].trim().toUpperCase());
-                        boolean recurring = Boolean.parseBoolean(tokens[2].trim());
-
-                        String startString = tokens[3].split("-")[0];
-                        String endString = tokens[3].split("-")[1];
-
-                        Calendar start = recurring ? getEventCalendar(null, startString) : getEventCalendar(tokens[4], startString);
-                        Calendar end = recurring ? getEventCalendar(null, endString) : getEventCalendar(tokens[4], endString);
-                        String[] days = recurring ? tokens[4].trim().split(" ") : null;
-
-                        Event.DayOfWeek[] week = null;
-                        if (days != null) {
-                            week = new Event.DayOfWeek[days.length];
-                            int count = 0;
-                            for (String s : days) {
-                                // since this is a jbin file, all the days should be fully and properly spelled
-                                switch (s.toUpperCase()) {
-                                    case "SUN":
-                                        week[count++] = Event.DayOfWeek.SUN;
-                                        break;
-                                    case "MON":
-                                        week[count++] = Event.DayOfWeek.MON;
-                                        break;
-                                    case "TUE":
-                                        week[count++] = Event.DayOfWeek.TUE;
-                                        break;
-                                    case "WED":
-                                        week[count++] = Event.DayOfWeek.WED;
-                                        break;
-                                    case "THU":
-                                        week[count++] = Event.DayOfWeek.THU;
-                                        break;
-                                    case "FRI":
-                                        week[count++] = Event.DayOfWeek.FRI;
-                                        break;
-                                    case "SAT":
-                                        week[count++] = Event.DayOfWeek.SAT;
-                                        break;
-                                    default:
-                                        throw new InvalidGrammarException("Invalid recurrent day was passed to Event");
-                                }
-                            }
-                        }
-
-                        if (recurring) {
-                            events.add(
-                                    new Event(
-                                            eventId++,
-                                            name,
-                                            color,
-                                            new Time.TimeStamp(start, end),
-                                            week
-                                    )
-                            );
-                        } else {
-                            events.add(
-                                    new Event(
-                                            eventId++,
-                                            name,
-                                            color,
-                                            new Time.TimeStamp(start, end)
-                                    )
-                            );
-                        }
-                    }
-
                     else
-                        throw new InputMismatchException();
+                        events.add(parseEvent(tokens, eventId++));
                 }
 
                 if(!eventClosed)
@@ -388,8 +377,7 @@ public class JBin {
                 cardOpen = true;
                 Calendar currDay = Time.getFormattedCalendarInstance(0);
                 boolean firstCard = true;
-                while(jbinScanner.hasNextLine()) {
-                    type = jbinScanner.nextLine();
+                while((type = lines.readLine()) != null) {
                     tokens = type.split(",");
                     if(tokens.length == 0) {
                         throw new InputMismatchException();
@@ -445,10 +433,9 @@ public class JBin {
                 Calendar currDay = Time.getFormattedCalendarInstance(0);
                 int dayIdx = 0;
                 int dayCount = 0;
-                while (jbinScanner.hasNextLine()) {
+                while ((type = lines.readLine()) != null) {
                     Calendar scheduleDay = Time.getFormattedCalendarInstance(calendar, dayIdx++);
 
-                    type = jbinScanner.nextLine();
                     tokens = type.split(",");
 
                     if(tokens.length == 0)
@@ -498,6 +485,121 @@ public class JBin {
         }
     }
 
+    /**
+     * Parses a line of the CHECKLIST section
+     *
+     * @param tokens comma separated tokens of the line
+     * @param id ID of the CheckList
+     * @return CheckList with its items
+     */
+    static CheckList parseCheckList(String[] tokens, int id) {
+        CheckList checkList = new CheckList(id, tokens[0].trim());
+        int itemId = 0;
+        for(int i = 1; i < tokens.length; i++) {
+            String item = tokens[i];
+            boolean complete = false;
+            if(item.charAt(item.length() - 1) == '+') {
+                complete = true;
+                item = item.substring(0, item.length() - 1);
+            }
+            checkList.addItem(item.trim());
+            checkList.markItemById(itemId++, complete);
+        }
+        return checkList;
+    }
+
+    /**
+     * Parses a line of the TASK section without linking its CheckList
+     *
+     * @param tokens comma separated tokens of the line
+     * @param id ID of the Task
+     * @param calendar day the JBin was saved on, which due dates are relative to
+     * @return Task without its CheckList
+     */
+    static Task parseTask(String[] tokens, int id, Calendar calendar) {
+        if(tokens.length < 3) {
+            throw new InputMismatchException();
+        }
+        return new Task(id, tokens[0].trim(), Double.parseDouble(tokens[1].trim()),
+                Time.getFormattedCalendarInstance(calendar, Integer.parseInt(tokens[2].trim())));
+    }
+
+    /**
+     * Parses a CheckList reference of a TASK line
+     *
+     * @param token CheckList reference such as "CL3"
+     * @return index of the CheckList
+     */
+    static int parseCheckListRef(String token) {
+        String item = token.trim();
+        if(item.length() > 2 && item.charAt(0) == 'C' && item.charAt(1) == 'L') {
+            return Integer.parseInt(item.substring(2));
+        }
+        throw new InputMismatchException();
+    }
+
+    /**
+     * Parses a line of the EVENT section
+     *
+     * @param tokens comma separated tokens of the line
+     * @param eventId ID of the Event
+     * @return Event
+     */
+    static Event parseEvent(String[] tokens, int eventId) {
+        if(tokens.length != 5 && tokens.length != 4) {
+            throw new InputMismatchException();
+        }
+        String name = tokens[0].trim();
+        Card.Colors color = parseColor(tokens[1].trim().toUpperCase());
+        boolean recurring = Boolean.parseBoolean(tokens[2].trim());
+
+        String startString = tokens[3].split("-")[0];
+        String endString = tokens[3].split("-")[1];
+
+        Calendar start = recurring ? getEventCalendar(null, startString) : getEventCalendar(tokens[4], startString);
+        Calendar end = recurring ? getEventCalendar(null, endString) : getEventCalendar(tokens[4], endString);
+        String[] days = recurring ? tokens[4].trim().split(" ") : null;
+
+        Event.DayOfWeek[] week = null;
+        if (days != null) {
+            week = new Event.DayOfWeek[days.length];
+            int count = 0;
+            for (String s : days) {
+                // since this is a jbin file, all the days should be fully and properly spelled
+                switch (s.toUpperCase()) {
+                    case "SUN":
+                        week[count++] = Event.DayOfWeek.SUN;
+                        break;
+                    case "MON":
+                        week[count++] = Event.DayOfWeek.MON;
+                        break;
+                    case "TUE":
+                        week[count++] = Event.DayOfWeek.TUE;
+                        break;
+                    case "WED":
+                        week[count++] = Event.DayOfWeek.WED;
+                        break;
+                    case "THU":
+                        week[count++] = Event.DayOfWeek.THU;
+                        break;
+                    case "FRI":
+                        week[count++] = Event.DayOfWeek.FRI;
+                        break;
+                    case "SAT":
+                        week[count++] = Event.DayOfWeek.SAT;
+                        break;
+                    default:
+                        throw new InvalidGrammarException("Invalid recurrent day was passed to Event");
+                }
+            }
+        }
+
+        if (recurring) {
+            return new Event(eventId, name, color, new Time.TimeStamp(start, end), week);
+        }
+        return new Event(eventId, name, color, new Time.TimeStamp(start, end));
+    }
+
     private static Calendar getEventCalendar(String dateString, String timeString) {
         Calendar calendar = Calendar.getInstance();
 
@@ -520,7 +622,7 @@ public class JBin {
         return calendar;
     }
 
-    private static Card.Colors parseColor(String s) {
+    static Card.Colors parseColor(String s) {
         switch (s) {
             case "RED":
                 return Card.Colors.RED;
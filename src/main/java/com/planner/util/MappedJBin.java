@@ -0,0 +1,206 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Binary JBin held in a (usually memory-mapped) buffer and parsed in place. Opening one only walks the section
+ * headers to index where each section starts, so a single section such as the Tasks or Events can be read without
+ * decoding the rest of the file. Strings are decoded the first time they are looked up, and compressed sections are
+ * decompressed the first time they are read.
+ *
+ * @author Andrew Roe
+ */
+public class MappedJBin {
+
+    /** Highest section tag that is indexed */
+    private static final int MAX_TAG = BinaryJBin.SCHEDULE;
+
+    /** Buffer holding the whole JBin */
+    private final ByteBuffer data;
+    /** Epoch day the JBin was saved on */
+    private final long savedDay;
+    /** Whether the section payloads are compressed */
+    private final boolean deflated;
+    /** Offset of the payload of each section by tag (-1 if missing) */
+    private final int[] offsets = new int[MAX_TAG + 1];
+    /** Length of the payload of each section by tag */
+    private final int[] lengths = new int[MAX_TAG + 1];
+    /** Compressed sections by tag, decompressed the first time they are needed */
+    private final ByteBuffer[] inflated = new ByteBuffer[MAX_TAG + 1];
+    /** String table, indexed the first time it is needed */
+    private BinaryJBin.Strings strings;
+
+    /**
+     * Indexes the sections of a binary JBin
+     *
+     * @param data buffer holding the whole JBin
+     */
+    public MappedJBin(ByteBuffer data) {
+        this.data = data.duplicate();
+        Arrays.fill(offsets, -1);
+        ByteBuffer in = data.duplicate();
+        try {
+            this.deflated = BinaryJBin.isDeflated(in);
+            this.savedDay = BinaryJBin.readHeader(in);
+            int tag;
+            while ((tag = in.get()) != BinaryJBin.END) {
+                int length = in.getInt();
+                if (length < 0 || length > in.remaining()) {
+                    throw new IllegalArgumentException("JBin section overruns the file");
+                }
+                if (tag > 0 && tag <= MAX_TAG) {
+                    offsets[tag] = in.position();
+                    lengths[tag] = length;
+                }
+                in.position(in.position() + length);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+    }
+
+    /**
+     * Gets the epoch day the JBin was saved on
+     *
+     * @return epoch day of the save
+     */
+    public long getSavedDay() {
+        return savedDay;
+    }
+
+    /**
+     * Gets the number of Tasks held, reading only the start of the TASK section
+     *
+     * @return number of Tasks
+     */
+    public int getTaskCount() {
+        ByteBuffer section = section(BinaryJBin.TASK);
+        return section == null ? 0 : BinaryJBin.readVarint(section);
+    }
+
+    /**
+     * Gets the number of Events held, reading only the start of the EVENT section
+     *
+     * @return number of Events
+     */
+    public int getEventCount() {
+        ByteBuffer section = section(BinaryJBin.EVENT);
+        return section == null ? 0 : BinaryJBin.readVarint(section);
+    }
+
+    /**
+     * Reads the CheckLists
+     *
+     * @return CheckLists in the order they were saved
+     */
+    public List<CheckList> getCheckLists() {
+        List<CheckList> checkLists = new ArrayList<>();
+        ByteBuffer section = section(BinaryJBin.CHECKLIST);
+        try {
+            if (section != null) BinaryJBin.readCheckLists(section, strings(), checkLists);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+        return checkLists;
+    }
+
+    /**
+     * Reads the Tasks without their CheckLists, so that the CHECKLIST section is never touched
+     *
+     * @return Tasks in the order they were saved
+     */
+    public List<Task> getTasks() {
+        List<Task> tasks = new ArrayList<>();
+        ByteBuffer section = section(BinaryJBin.TASK);
+        try {
+            if (section != null) BinaryJBin.readTasks(section, strings(), null, tasks);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the Events
+     *
+     * @param eventId ID of the first Event
+     * @return Events in the order they were saved
+     */
+    public List<Event> getEvents(int eventId) {
+        List<Event> events = new ArrayList<>();
+        ByteBuffer section = section(BinaryJBin.EVENT);
+        try {
+            if (section != null) BinaryJBin.readEvents(section, strings(), events, eventId);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+        return events;
+    }
+
+    /**
+     * Processes the whole JBin to update the current system, the same way as
+     * {@link BinaryJBin#processJBin(ByteBuffer, Queue, List, int, List, List, int)}
+     *
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @return details of the saved schedule if it can be restored as-is, otherwise null
+     */
+    public SavedSchedule processJBin(Queue<Task> tasks, List<Event> events, int eventId, List<Card> cards,
+                                     List<Day> schedule, int maxArchiveDays) {
+        BinaryJBin.Decoding decoding = new BinaryJBin.Decoding(savedDay, tasks, events, eventId, cards, schedule,
+                maxArchiveDays);
+        try {
+            decoding.setStrings(strings());
+            // sections are processed in the order they depend on each other
+            for (int tag : new int[]{BinaryJBin.CHECKLIST, BinaryJBin.TASK, BinaryJBin.EVENT, BinaryJBin.CARD,
+                    BinaryJBin.SCHEDULE, BinaryJBin.DAY}) {
+                ByteBuffer section = section(tag);
+                if (section != null) decoding.section(tag, section);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("JBin data is truncated or corrupt", e);
+        }
+        return decoding.finish();
+    }
+
+    /**
+     * Gets the payload of a section
+     *
+     * @param tag tag of the section
+     * @return buffer over exactly the payload, or null if the JBin has no such section
+     */
+    ByteBuffer section(int tag) {
+        if (offsets[tag] < 0) return null;
+        if (inflated[tag] != null) return inflated[tag].duplicate();
+        ByteBuffer section = data.duplicate();
+        section.position(offsets[tag]);
+        section = section.slice();
+        section.limit(lengths[tag]);
+        if (!deflated) return section;
+        inflated[tag] = BinaryJBin.inflate(section);
+        return inflated[tag].duplicate();
+    }
+
+    private BinaryJBin.Strings strings() {
+        if (strings == null) {
+            ByteBuffer section = section(BinaryJBin.STRINGS);
+            strings = section == null ? BinaryJBin.Strings.EMPTY : BinaryJBin.Strings.index(section);
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,313 @@
+package com.planner.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the counters, latency histograms and gauges kept while the planner runs. Recording a value is a few
+ * uncontended atomic additions, so timing a hot path costs next to nothing. The registry can be written out as
+ * Prometheus text and is exposed over JMX by {@link com.planner.io.MetricsExporter}.
+ *
+ * @author Andrew Roe
+ */
+public class Metrics {
+
+    /** Singleton instance for Metrics */
+    private static Metrics instance;
+
+    /** Prefix of every metric name */
+    private static final String PREFIX = "planner_";
+    /** Quantiles written out for every histogram */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /** Every metric by name, in the order registered */
+    private final Map<String, Metric> metrics = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Constructs an empty registry
+     */
+    Metrics() {
+    }
+
+    /**
+     * Gets a singleton of Metrics
+     *
+     * @return singleton of Metrics
+     */
+    public static synchronized Metrics getMetrics() {
+        if (instance == null) {
+            instance = new Metrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the counter with the given name, registering it if there is none
+     *
+     * @param name name of the counter (without the planner_ prefix or _total suffix)
+     * @param help description of the counter
+     * @return counter with the given name
+     * @throws IllegalArgumentException if the name belongs to another kind of metric
+     */
+    public Counter counter(String name, String help) {
+        return register(name, Counter.class, () -> new Counter(name, help));
+    }
+
+    /**
+     * Gets the latency histogram with the given name, registering it if there is none
+     *
+     * @param name name of the histogram (without the planner_ prefix or _seconds suffix)
+     * @param help description of the histogram
+     * @return histogram with the given name
+     * @throws IllegalArgumentException if the name belongs to another kind of metric
+     */
+    public Histogram histogram(String name, String help) {
+        return register(name, Histogram.class, () -> new Histogram(name, help));
+    }
+
+    /**
+     * Registers a gauge reading its value from a supplier, replacing any gauge with the same name
+     *
+     * @param name name of the gauge (without the planner_ prefix)
+     * @param help description of the gauge
+     * @param value supplies the current value of the gauge
+     * @throws IllegalArgumentException if the name belongs to another kind of metric
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        synchronized (metrics) {
+            Metric metric = metrics.get(name);
+            if (metric != null && !(metric instanceof Gauge)) {
+                throw new IllegalArgumentException("Metric is already registered: " + name);
+            }
+            metrics.put(name, new Gauge(name, help, value));
+        }
+    }
+
+    /**
+     * Gets every registered metric
+     *
+     * @return copy of the registered metrics, in the order registered
+     */
+    public Collection<Metric> getAll() {
+        synchronized (metrics) {
+            return List.copyOf(metrics.values());
+        }
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format. Histograms are written as summaries of their
+     * 0.5, 0.9 and 0.99 quantiles.
+     *
+     * @param out destination of the text
+     * @throws IOException if the text could not be written
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        for (Metric metric : getAll()) {
+            String name = PREFIX + metric.getName();
+            if (metric instanceof Counter) {
+                name += "_total";
+                writeHeader(out, name, metric.getHelp(), "counter");
+                out.append(name).append(' ').append(Long.toString(((Counter) metric).get())).append('\n');
+            } else if (metric instanceof Gauge) {
+                writeHeader(out, name, metric.getHelp(), "gauge");
+                out.append(name).append(' ').append(Long.toString(((Gauge) metric).get())).append('\n');
+            } else {
+                Histogram histogram = (Histogram) metric;
+                name += "_seconds";
+                writeHeader(out, name, metric.getHelp(), "summary");
+                for (double q : QUANTILES) {
+                    out.append(name).append("{quantile=\"").append(Double.toString(q)).append("\"} ")
+                            .append(seconds(histogram.getPercentile(q))).append('\n');
+                }
+                out.append(name).append("_sum ").append(seconds(histogram.getSum())).append('\n');
+                out.append(name).append("_count ").append(Long.toString(histogram.getCount())).append('\n');
+            }
+        }
+    }
+
+    private static void writeHeader(Appendable out, String name, String help, String type) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private <T extends Metric> T register(String name, Class<T> type, Supplier<T> factory) {
+        synchronized (metrics) {
+            Metric metric = metrics.computeIfAbsent(name, n -> factory.get());
+            if (!type.isInstance(metric)) {
+                throw new IllegalArgumentException("Metric is already registered: " + name);
+            }
+            return type.cast(metric);
+        }
+    }
+
+    /**
+     * Named metric with a description
+     */
+    public abstract static class Metric {
+
+        private final String name;
+        private final String help;
+
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+    }
+
+    /**
+     * Count of how often something happened, striped across threads
+     */
+    public static final class Counter extends Metric {
+
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, String help) {
+            super(name, help);
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long n) {
+            count.add(n);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Value read whenever the metrics are exported
+     */
+    public static final class Gauge extends Metric {
+
+        private final LongSupplier value;
+
+        Gauge(String name, String help, LongSupplier value) {
+            super(name, help);
+            this.value = value;
+        }
+
+        public long get() {
+            return value.getAsLong();
+        }
+    }
+
+    /**
+     * Histogram of durations in nanoseconds with log-linear buckets (as in HdrHistogram). Every power of two is split
+     * into 32 buckets, so a recorded duration is known to within about 3% while the whole range of a long takes
+     * fewer than 2000 buckets.
+     */
+    public static final class Histogram extends Metric {
+
+        /** Bits of each value kept exactly */
+        private static final int SUB_BITS = 5;
+        /** Number of buckets for each power of two */
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        /** Number of buckets covering every positive long */
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(String name, String help) {
+            super(name, help);
+        }
+
+        /**
+         * Records a duration
+         *
+         * @param nanos duration in nanoseconds (negative durations count as zero)
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketOf(value));
+            count.increment();
+            sum.add(value);
+            if (value > max.get()) max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Records the time elapsed since a start time
+         *
+         * @param startNanos start time from {@link System#nanoTime()}
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Gets the duration below which the given share of the recorded durations fall
+         *
+         * @param quantile share of the durations, from 0 to 1
+         * @return highest duration in nanoseconds of the bucket holding the quantile (0 if nothing was recorded)
+         */
+        public long getPercentile(double quantile) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestOf(i), getMax());
+            }
+            return getMax();
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+        }
+
+        static long highestOf(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int shift = bucket / SUB_BUCKETS - 1;
+            long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+            return ((top + 1) << shift) - 1;
+        }
+    }
+}
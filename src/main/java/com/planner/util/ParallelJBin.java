@@ -0,0 +1,399 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Text JBin parsed across a ForkJoinPool. A quick sequential pass finds where each section starts and ends, the lines
+ * are then split into ranges that are parsed in parallel into arrays indexed by line, and a final sequential pass links
+ * the CL# and T# references, archives old Tasks and builds the Days. The result is the same as
+ * {@link JBin#processJBin(String, Queue, List, int, List, List, int)}, except that sections may appear in any order.
+ *
+ * @author Andrew Roe
+ */
+public class ParallelJBin {
+
+    /** Largest number of lines parsed by a single task of the pool */
+    private static final int CHUNK = 512;
+    /** Names of the sections, in the order they are linked */
+    private static final String[] SECTIONS = {"CHECKLIST", "TASK", "EVENT", "CARD", "DAY"};
+    private static final int CHECKLIST = 0;
+    private static final int TASK = 1;
+    private static final int EVENT = 2;
+    private static final int CARD = 3;
+    private static final int DAY = 4;
+    /** Marks lines outside of any section */
+    private static final byte NONE = -1;
+
+    /** Whole JBin */
+    private final String data;
+    /** Offset of the start of each line */
+    private int[] starts = new int[1024];
+    /** Offset of the end of each line (excluding the line break) */
+    private int[] ends = new int[1024];
+    /** Number of lines */
+    private int lineCount;
+    /** Section each line belongs to */
+    private byte[] sectionOf;
+    /** First line of each section (-1 if the section is missing) */
+    private final int[] firstLine = new int[SECTIONS.length];
+    /** Number of lines in each section */
+    private final int[] lineTotals = new int[SECTIONS.length];
+
+    /** Day the JBin was saved on */
+    private Calendar calendar;
+    /** Day the JBin is processed on */
+    private final Calendar currDay = Time.getFormattedCalendarInstance(0);
+    /** ID of the first Event created */
+    private final int eventId;
+
+    private CheckList[] checkLists;
+    private Task[] taskList;
+    /** CheckList references of each Task */
+    private int[][] checkListRefs;
+    private Event[] eventList;
+    private CardLine[] cardLines;
+    private DayLine[] dayLines;
+
+    private ParallelJBin(String data, int eventId) {
+        this.data = data;
+        this.eventId = eventId;
+        Arrays.fill(firstLine, -1);
+    }
+
+    /**
+     * Processes the text JBin to update the current system, parsing its lines on the common pool
+     *
+     * @param data JBin
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     */
+    public static void processJBin(String data, Queue<Task> tasks, List<Event> events, int eventId,
+                                   List<Card> cards, List<Day> schedule, int maxArchiveDays) {
+        processJBin(data, tasks, events, eventId, cards, schedule, maxArchiveDays, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Processes the text JBin to update the current system, parsing its lines on the given pool
+     *
+     * @param data JBin
+     * @param tasks Tasks holder
+     * @param events Events holder
+     * @param eventId ID of the first Event created
+     * @param cards Cards holder
+     * @param schedule set of Days for the given schedule being processed
+     * @param maxArchiveDays maximum number of past Days to include
+     * @param pool pool the lines are parsed on
+     */
+    public static void processJBin(String data, Queue<Task> tasks, List<Event> events, int eventId,
+                                   List<Card> cards, List<Day> schedule, int maxArchiveDays, ForkJoinPool pool) {
+        ParallelJBin jbin = new ParallelJBin(data, eventId);
+        jbin.scanLines();
+        jbin.scanSections();
+        jbin.allocate();
+        pool.invoke(new ParseLines(jbin, 1, jbin.lineCount));
+        jbin.link(tasks, events, cards, schedule, maxArchiveDays);
+    }
+
+    /**
+     * Records where each line starts and ends, treating "\n", "\r" and "\r\n" as line breaks
+     */
+    private void scanLines() {
+        int start = 0;
+        int length = data.length();
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c == '\n' || c == '\r') {
+                addLine(start, i);
+                if (c == '\r' && i + 1 < length && data.charAt(i + 1) == '\n') i++;
+                start = i + 1;
+            }
+        }
+        if (start < length) addLine(start, length);
+    }
+
+    private void addLine(int start, int end) {
+        if (lineCount == starts.length) {
+            starts = Arrays.copyOf(starts, lineCount * 2);
+            ends = Arrays.copyOf(ends, lineCount * 2);
+        }
+        starts[lineCount] = start;
+        ends[lineCount++] = end;
+    }
+
+    private String line(int line) {
+        return data.substring(starts[line], ends[line]);
+    }
+
+    /**
+     * Reads the header and finds the lines of each section, failing the same way as a sequential parse would
+     */
+    private void scanSections() {
+        LocalDate ld = null;
+        if (lineCount > 0) {
+            DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+            ld = LocalDate.parse(line(0), df);
+        }
+
+        calendar = Time.getFormattedCalendarInstance(0);
+        assert ld != null;
+
+        // Calendar.MONTH is zero-indexed
+        calendar.set(ld.getYear(), ld.getMonthValue() - 1, ld.getDayOfMonth());
+        // computes the time up front so that the Calendars are only ever read by the pool
+        calendar.getTimeInMillis();
+        currDay.getTimeInMillis();
+
+        sectionOf = new byte[lineCount];
+        Arrays.fill(sectionOf, NONE);
+        int line = 1;
+        while (line < lineCount) {
+            String type = line(line);
+            int section = sectionHeader(type);
+            if (section == NONE || firstLine[section] >= 0) {
+                if (!type.isEmpty()) throw new InputMismatchException();
+                line++;
+                continue;
+            }
+            int first = ++line;
+            while (line < lineCount && !isClosing(line)) {
+                sectionOf[line++] = (byte) section;
+            }
+            if (line == lineCount) throw new IllegalArgumentException();
+            firstLine[section] = first;
+            lineTotals[section] = line++ - first;
+        }
+    }
+
+    private void allocate() {
+        checkLists = new CheckList[lineTotals[CHECKLIST]];
+        taskList = new Task[lineTotals[TASK]];
+        checkListRefs = new int[lineTotals[TASK]][];
+        eventList = new Event[lineTotals[EVENT]];
+        cardLines = new CardLine[lineTotals[CARD]];
+        dayLines = new DayLine[lineTotals[DAY]];
+    }
+
+    private static int sectionHeader(String type) {
+        String[] tokens = type.split("\\s");
+        if (tokens.length == 2 && "{".equals(tokens[1])) {
+            for (int i = 0; i < SECTIONS.length; i++) {
+                if (SECTIONS[i].equals(tokens[0])) return i;
+            }
+        }
+        return NONE;
+    }
+
+    private boolean isClosing(int line) {
+        int i = starts[line];
+        while (i < ends[line] && data.charAt(i) <= ' ') i++;
+        // only lines starting with a brace need splitting like a sequential parse does
+        if (i == ends[line] || data.charAt(i) != '}') return false;
+        String[] tokens = line(line).split(",");
+        return tokens.length == 1 && "}".equals(tokens[0].trim());
+    }
+
+    /**
+     * Parses a single line of a section into the slot of its section's array
+     *
+     * @param line index of the line
+     */
+    private void parseLine(int line) {
+        int section = sectionOf[line];
+        if (section == NONE) return;
+        int idx = line - firstLine[section];
+        String[] tokens = line(line).split(",");
+        if (tokens.length == 0) throw new InputMismatchException();
+
+        switch (section) {
+            case CHECKLIST:
+                checkLists[idx] = JBin.parseCheckList(tokens, idx);
+                break;
+            case TASK:
+                taskList[idx] = JBin.parseTask(tokens, idx, calendar);
+                int[] refs = new int[tokens.length - 3];
+                for (int i = 3; i < tokens.length; i++) {
+                    refs[i - 3] = JBin.parseCheckListRef(tokens[i]);
+                }
+                checkListRefs[idx] = refs;
+                break;
+            case EVENT:
+                eventList[idx] = JBin.parseEvent(tokens, eventId + idx);
+                break;
+            case CARD:
+                cardLines[idx] = new CardLine(tokens);
+                break;
+            default:
+                dayLines[idx] = new DayLine(tokens, Time.getFormattedCalendarInstance(calendar, idx), currDay);
+        }
+    }
+
+    /**
+     * Links the parsed lines in the order the sections depend on each other
+     */
+    private void link(Queue<Task> tasks, List<Event> events, List<Card> cards, List<Day> schedule,
+                      int maxArchiveDays) {
+        for (int i = 0; i < taskList.length; i++) {
+            for (int ref : checkListRefs[i]) {
+                taskList[i].addCheckList(checkLists[ref]);
+            }
+        }
+
+        events.addAll(Arrays.asList(eventList));
+
+        boolean firstCard = true;
+        for (CardLine line : cardLines) {
+            Card card;
+            if (firstCard && line.title.equals(cards.get(0).getTitle())) {
+                card = cards.get(0);
+            } else {
+                card = new Card(cards.size(), line.title, line.color);
+                cards.add(card);
+            }
+            firstCard = false;
+            for (int idx : line.taskRefs) {
+                Task tempTask = taskList[idx];
+                if (tempTask != null) {
+                    int numDays = Time.differenceOfDays(tempTask.getDueDate(), currDay);
+                    if (numDays >= -1 * maxArchiveDays) {
+                        card.addTask(tempTask);
+                        if (tempTask.getColor() == null) {
+                            tempTask.setColor(card.getColorId());
+                        }
+                    } else taskList[idx] = null;
+                }
+            }
+        }
+
+        boolean[] table = new boolean[taskList.length];
+        int dayCount = 0;
+        for (DayLine line : dayLines) {
+            if (line.past) continue;
+            Day day = new Day(dayCount++, 8, line.date);
+            double totalHours = 0.0;
+            for (int i = 0; i < line.taskRefs.length; i++) {
+                int taskIdx = line.taskRefs[i];
+                double hours = line.hours[i];
+                totalHours += hours;
+                if (!table[taskIdx]) {
+                    taskList[taskIdx].setTotalHours(hours);
+                    table[taskIdx] = true;
+                } else {
+                    taskList[taskIdx].setTotalHours(hours + taskList[taskIdx].getTotalHours());
+                }
+                day.addSubTask(taskList[taskIdx], hours, totalHours > 8);
+            }
+            schedule.add(day);
+        }
+
+        for (Task t : taskList) {
+            if (t != null) {
+                tasks.add(t);
+            }
+        }
+    }
+
+    /**
+     * Parses a range of lines, splitting it in half until it is small enough
+     */
+    private static class ParseLines extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ParallelJBin jbin;
+        private final int from;
+        private final int to;
+
+        ParseLines(ParallelJBin jbin, int from, int to) {
+            this.jbin = jbin;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                for (int line = from; line < to; line++) {
+                    jbin.parseLine(line);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseLines(jbin, from, mid), new ParseLines(jbin, mid, to));
+            }
+        }
+    }
+
+    /**
+     * Line of the CARD section with its Task references
+     */
+    private static class CardLine {
+
+        private final String title;
+        private final Card.Colors color;
+        private final int[] taskRefs;
+
+        CardLine(String[] tokens) {
+            if (tokens.length < 2) throw new IllegalArgumentException();
+            title = tokens[0].trim();
+            color = JBin.parseColor(tokens[1].trim());
+            taskRefs = new int[tokens.length - 2];
+            for (int i = 2; i < tokens.length; i++) {
+                String item = tokens[i].trim();
+                int idx = Integer.parseInt(item.substring(1));
+                if (item.length() > 1 && item.charAt(0) == 'T') {
+                    taskRefs[i - 2] = idx;
+                } else {
+                    throw new InputMismatchException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Line of the DAY section with the hours of each Task
+     */
+    private static class DayLine {
+
+        private final Calendar date;
+        /** Whether the Day has already passed, in which case it is skipped */
+        private final boolean past;
+        private final int[] taskRefs;
+        private final double[] hours;
+
+        DayLine(String[] tokens, Calendar date, Calendar currDay) {
+            this.date = date;
+            past = Time.differenceOfDays(date, currDay) < 0;
+            if (past || "N/A".equals(tokens[0].trim()) && tokens.length == 1) {
+                taskRefs = new int[0];
+                hours = new double[0];
+                return;
+            }
+            taskRefs = new int[tokens.length];
+            hours = new double[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                String[] pair = tokens[i].trim().split("\\s");
+                if (pair.length == 2 && pair[0].charAt(0) == 'T') {
+                    taskRefs[i] = Integer.parseInt(pair[0].substring(1));
+                    hours[i] = Double.parseDouble(pair[1]);
+                } else throw new InputMismatchException();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.planner.util;
+
+import com.planner.models.UserConfig;
+
+/**
+ * Details of a schedule restored from a JBin, used to tell whether it can be shown as-is or has to be rebuilt
+ *
+ * @author Andrew Roe
+ */
+public class SavedSchedule {
+
+    /** Epoch day the schedule was built on */
+    private final long savedDay;
+    /** Fingerprint of the scheduling settings the schedule was built with */
+    private final int fingerprint;
+    /** Number of Tasks that could not be scheduled in time */
+    private final int errorCount;
+
+    /**
+     * Primary constructor for SavedSchedule
+     *
+     * @param savedDay epoch day the schedule was built on
+     * @param fingerprint fingerprint of the scheduling settings
+     * @param errorCount number of Tasks that could not be scheduled in time
+     */
+    public SavedSchedule(long savedDay, int fingerprint, int errorCount) {
+        this.savedDay = savedDay;
+        this.fingerprint = fingerprint;
+        this.errorCount = errorCount;
+    }
+
+    public long getSavedDay() {
+        return savedDay;
+    }
+
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Determines whether the schedule is still what the Scheduler would build, which is the case when it was built
+     * today with the same scheduling settings
+     *
+     * @param userConfig current user settings
+     * @return boolean value for whether the schedule is current
+     */
+    public boolean isCurrent(UserConfig userConfig) {
+        return savedDay == Time.getEpochDay(Time.getFormattedCalendarInstance(0))
+                && fingerprint == userConfig.getScheduleFingerprint();
+    }
+}
@@ -6,16 +6,130 @@ import com.planner.schedule.day.Day;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
  * Handles all time operations involving Calendar instances
+ * <p>
+ * Scheduling operations work with "epoch minutes", which are the number of local (wall-clock) minutes since
+ * 01-01-1970 00:00. This allows the scheduler to compare and align times as primitive values, with Calendar
+ * instances only being created when a time needs to be displayed or exported.
  *
  * @author Andrew Roe
  * @author Abah Olotuche Gabriel
  */
 public class Time {
 
+    /** Number of minutes in an hour */
+    public static final int MINUTES_PER_HOUR = 60;
+    /** Number of minutes in a day */
+    public static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    /** Number of milliseconds in a minute */
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+    /** Time zone used for breaking epoch minutes back down into their date fields */
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    /**
+     * Converts a Calendar instance into its local epoch minute (seconds and milliseconds are dropped)
+     *
+     * @param date Calendar instance being converted
+     * @return local epoch minute of the Calendar instance
+     */
+    public static long toEpochMinute(Calendar date) {
+        long millis = date.getTimeInMillis() + date.get(Calendar.ZONE_OFFSET) + date.get(Calendar.DST_OFFSET);
+        return Math.floorDiv(millis, MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Creates a new Calendar instance from a local epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return new Calendar instance representing the local epoch minute
+     */
+    public static Calendar toCalendar(long epochMinute) {
+        Calendar fields = new GregorianCalendar(UTC);
+        fields.setTimeInMillis(epochMinute * MILLIS_PER_MINUTE);
+        Calendar date = Calendar.getInstance();
+        date.clear();
+        date.set(fields.get(Calendar.YEAR), fields.get(Calendar.MONTH), fields.get(Calendar.DAY_OF_MONTH),
+                fields.get(Calendar.HOUR_OF_DAY), fields.get(Calendar.MINUTE));
+        return date;
+    }
+
+    /**
+     * Gets the local epoch day (number of days since 01-01-1970) of a Calendar instance
+     *
+     * @param date Calendar instance being converted
+     * @return local epoch day of the Calendar instance
+     */
+    public static long getEpochDay(Calendar date) {
+        return Math.floorDiv(toEpochMinute(date), (long) MINUTES_PER_DAY);
+    }
+
+    /**
+     * Gets the local epoch day of the given epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return local epoch day
+     */
+    public static long getEpochDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, (long) MINUTES_PER_DAY);
+    }
+
+    /**
+     * Gets the local epoch minute for the start of the day (12:00 AM) of the given epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return local epoch minute at the start of that day
+     */
+    public static long getStartOfDay(long epochMinute) {
+        return epochMinute - getMinuteOfDay(epochMinute);
+    }
+
+    /**
+     * Gets the number of minutes passed since the start of the day for the given epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return minute of the day (0-1439)
+     */
+    public static int getMinuteOfDay(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) MINUTES_PER_DAY);
+    }
+
+    /**
+     * Gets the hour of the day (0-23) for the given epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return hour of the day
+     */
+    public static int getHourOfDay(long epochMinute) {
+        return getMinuteOfDay(epochMinute) / MINUTES_PER_HOUR;
+    }
+
+    /**
+     * Gets the minute of the hour (0-59) for the given epoch minute
+     *
+     * @param epochMinute local epoch minute
+     * @return minute of the hour
+     */
+    public static int getMinuteOfHour(long epochMinute) {
+        return getMinuteOfDay(epochMinute) % MINUTES_PER_HOUR;
+    }
+
+    /**
+     * Converts a number of hours (whole or half) into minutes
+     *
+     * @param hours number of hours
+     * @return number of minutes
+     */
+    public static int toMinutes(double hours) {
+        int taskHours = (int) hours;
+        int taskMin = hours % 1 == 0.5 ? 30 : 0;
+        return taskHours * MINUTES_PER_HOUR + taskMin;
+    }
+
     /**
      * Determines the difference of days between two Calendar instances
      *
@@ -106,17 +220,32 @@ public class Time {
         return clone;
     }
 
+    /**
+     * Determines the closest available epoch minute within a quarter of an hour (above or below)
+     *
+     * @param epochMinute current epoch minute being measured
+     * @param isAbove whether epoch minute will be above or below to nearest quarter
+     * @return epoch minute to nearest quarter
+     */
+    public static long getNearestQuarterOfHour(long epochMinute, boolean isAbove) {
+        int offset = getMinuteOfHour(epochMinute) % 15;
+        if (offset == 0) return epochMinute;
+        return isAbove ? epochMinute + (15 - offset) : epochMinute - offset;
+    }
+
     // [COMPLETE]
     public static double getTimeInterval(Calendar curr, Calendar event) {
+        return getTimeInterval(toEpochMinute(curr), toEpochMinute(event));
+    }
+
+    // [COMPLETE]
+    public static double getTimeInterval(long curr, long event) {
         // determine how many hours or minutes exist between current time and upcoming event
         //   if the minutes is less than 30, return 0
         //     e.g. 1 hour and 27 minutes --> 1 hour
         //     e.g. 1 hour and 40 minutes --> 1.5 hours
         //   we can safely assume that the event is properly aligned within the quarter period of the day (0, 15, 30, 45)
-        Calendar currTemp = cloneAndResetSecMillis(curr);
-        Calendar eventTemp = cloneAndResetSecMillis(event);
-        long milliseconds = Math.abs(currTemp.getTimeInMillis() - eventTemp.getTimeInMillis());
-        int min = (int) Math.round(milliseconds / 1000.0 / 60.0);
+        int min = (int) Math.abs(curr - event);
         double hours = (int) (min / 60.0);
         min %= 60;
         hours += min >= 30 ? 0.5 : 0;
@@ -124,71 +253,33 @@ public class Time {
     }
 
     // [COMPLETE]
-    public static Calendar getFirstAvailableTimeInDay(List<TimeStamp> taskTimeStamps, List<TimeStamp> eventTimeStamps, UserConfig userConfig, Calendar time, boolean isToday) {
-        Calendar startTime;
-        if (isToday && time.get(Calendar.HOUR_OF_DAY) >= userConfig.getRange()[0] && taskTimeStamps.isEmpty() && !userConfig.isDefaultAtStart()) {
-            startTime = Time.getNearestQuarterOfHour(time, true);
-        } else if (taskTimeStamps.isEmpty()) {
-            startTime = Time.getFormattedCalendarInstance(time, 0);
-            startTime.set(Calendar.HOUR_OF_DAY, userConfig.getRange()[0]);
-            startTime.set(Calendar.MINUTE, 0);
-        } else {
-            TimeStamp ts = taskTimeStamps.get(taskTimeStamps.size() - 1);
-            startTime = (Calendar) ts.getEnd().clone();
-        }
-
-        if (eventTimeStamps.isEmpty()) {
-            return startTime;
-        }
-
-        /*
-        Steps for determining correct start time with events throughout day:
-        1. Check whether startTime interferes with the event
-        2. If it does, assign the end of the event to startTime
-            a. If no more events, loop will break with correct value (so, do nothing here)
-            b. If there are events, simply continue (so, do nothing here)
-        3. If it doesn't, check whether it is before or after startTime
-            a. If it's before, continue (if no more events, no changes to startTime)
-            b. If it's after, check how much time there is between
-                i. If enough, break
-                ii. If not enough, assign end of event to startTime and loop again
-         */
-        for (TimeStamp eTS : eventTimeStamps) {
-            if (isInsideEventBlock(startTime, eTS)) startTime = eTS.getEnd();
-            else {
-                if (isPastEvent(startTime, eTS.getEnd())) {
-                    // do nothing here
-                } else {
-                    double hours = getTimeInterval(startTime, eTS.getStart());
-                    if (hours > 0) break;
-                    else startTime = eTS.getEnd();
-                }
-            }
-        }
-
-        // todo need to think about whether we should have startTime configured with getNearestQuarterOfHour() (at most, we're losing 14 minutes, but that could theoretically cost us 30 min due to formatting)
-        // todo might need another config option to allow tasks to be scheduled with 'unclean' times around events (not an issue without events, at most you'd be losing is 14 minutes)
-        // todo would need to update line 162
-        return startTime;
+    public static boolean isInsideEventBlock(Calendar startTime, TimeStamp eventTimeStamp) {
+        return isInsideEventBlock(toEpochMinute(startTime), eventTimeStamp);
     }
 
     // [COMPLETE]
-    public static boolean isInsideEventBlock(Calendar startTime, TimeStamp eventTimeStamp) {
-        return !isPastEvent(startTime, eventTimeStamp.getEnd()) && !isBeforeEvent(startTime, eventTimeStamp.getStart());
+    public static boolean isInsideEventBlock(long startTime, TimeStamp eventTimeStamp) {
+        return !isPastEvent(startTime, eventTimeStamp.getEndMinute()) && !isBeforeEvent(startTime, eventTimeStamp.getStartMinute());
     }
 
     // [COMPLETE]
     public static boolean isPastEvent(Calendar startTime, Calendar eventEnd) {
-        Calendar startTemp = cloneAndResetSecMillis(startTime);
-        Calendar eventTemp = cloneAndResetSecMillis(eventEnd);
-        return startTemp.compareTo(eventTemp) >= 0;
+        return isPastEvent(toEpochMinute(startTime), toEpochMinute(eventEnd));
+    }
+
+    // [COMPLETE]
+    public static boolean isPastEvent(long startTime, long eventEnd) {
+        return startTime >= eventEnd;
     }
 
     // [COMPLETE]
     public static boolean isBeforeEvent(Calendar startTime, Calendar eventStart) {
-        Calendar startTemp = cloneAndResetSecMillis(startTime);
-        Calendar eventTemp = cloneAndResetSecMillis(eventStart);
-        return startTemp.compareTo(eventTemp) < 0;
+        return isBeforeEvent(toEpochMinute(startTime), toEpochMinute(eventStart));
+    }
+
+    // [COMPLETE]
+    public static boolean isBeforeEvent(long startTime, long eventStart) {
+        return startTime < eventStart;
     }
 
     // [COMPLETE]
@@ -201,20 +292,20 @@ public class Time {
 
     // [COMPLETE]
     public static boolean isConflictingEvent(Event curr, Event other) {
-        Calendar currStart = cloneAndResetSecMillis(curr.getTimeStamp().getStart());
-        Calendar currEnd = cloneAndResetSecMillis(curr.getTimeStamp().getEnd());
-        Calendar otherStart = cloneAndResetSecMillis(other.getTimeStamp().getEnd());
-        Calendar otherEnd = cloneAndResetSecMillis(other.getTimeStamp().getEnd());
+        long currStart = curr.getTimeStamp().getStartMinute();
+        long currEnd = curr.getTimeStamp().getEndMinute();
+        long otherStart = other.getTimeStamp().getEndMinute();
+        long otherEnd = other.getTimeStamp().getEndMinute();
 
-        if (currStart.compareTo(otherStart) >= 0 && currStart.compareTo(otherEnd) < 0) return true;
-        else return currEnd.compareTo(otherStart) > 0 && currEnd.compareTo(otherEnd) < 0;
+        if (currStart >= otherStart && currStart < otherEnd) return true;
+        else return currEnd > otherStart && currEnd < otherEnd;
     }
 
     // [COMPLETE]
     public static List<Double> computeTimeBlocks(Day day) {
         List<Double> intervals = new ArrayList<>();
         for (TimeStamp taskTimeStamp : day.getTaskTimeStamps()) {
-            intervals.add(Time.getTimeInterval(taskTimeStamp.getStart(), taskTimeStamp.getEnd()));
+            intervals.add(Time.getTimeInterval(taskTimeStamp.getStartMinute(), taskTimeStamp.getEndMinute()));
         }
         return intervals;
     }
@@ -223,43 +314,67 @@ public class Time {
      * Manages the creation of a time interval along with properly formatting its display.
      * <p>
      * Example: 12:30pm-4:15pm
+     * <p>
+     * Both ends of the interval are held as local epoch minutes. Calendar views are only created
+     * when {@link #getStart()} or {@link #getEnd()} are called (i.e. for rendering or exporting).
      *
      * @author Andrew Roe
      */
     public static class TimeStamp implements Comparable<TimeStamp> {
-        private final Calendar start;
-        private final Calendar end;
+        private final long start;
+        private final long end;
         private String strStamp;
 
         public TimeStamp(Calendar start, Calendar end) {
-            if (start.compareTo(end) >= 0) throw new IllegalArgumentException("Start time is greater than or equal to end time");
+            this(toEpochMinute(start), toEpochMinute(end));
+        }
+
+        public TimeStamp(long start, long end) {
+            if (start >= end) throw new IllegalArgumentException("Start time is greater than or equal to end time");
             this.start = start;
             this.end = end;
-            buildStamp();
         }
 
+        /**
+         * Gets a new Calendar instance for the start of the TimeStamp
+         *
+         * @return Calendar instance for the start time
+         */
         public Calendar getStart() {
-            return start;
+            return toCalendar(start);
         }
 
+        /**
+         * Gets a new Calendar instance for the end of the TimeStamp
+         *
+         * @return Calendar instance for the end time
+         */
         public Calendar getEnd() {
+            return toCalendar(end);
+        }
+
+        public long getStartMinute() {
+            return start;
+        }
+
+        public long getEndMinute() {
             return end;
         }
 
         public int getStartHour() {
-            return start.get(Calendar.HOUR_OF_DAY);
+            return getHourOfDay(start);
         }
 
         public int getStartMin() {
-            return start.get(Calendar.MINUTE);
+            return getMinuteOfHour(start);
         }
 
         public int getEndHour() {
-            return end.get(Calendar.HOUR_OF_DAY);
+            return getHourOfDay(end);
         }
 
         public int getEndMin() {
-            return end.get(Calendar.MINUTE);
+            return getMinuteOfHour(end);
         }
 
         private void buildStamp() {
@@ -300,16 +415,14 @@ public class Time {
 
         @Override
         public String toString() {
+            // built lazily since most TimeStamps created during scheduling are never displayed
+            if (strStamp == null) buildStamp();
             return strStamp;
         }
 
         @Override
         public int compareTo(TimeStamp o) {
-            if (this.getStartHour() < o.getStartHour()) return -1;
-            else if (this.getStartHour() > o.getStartHour()) return 1;
-            else {
-                return Integer.compare(this.getStartMin(), o.getStartMin());
-            }
+            return Integer.compare(getMinuteOfDay(this.start), getMinuteOfDay(o.start));
         }
     }
 
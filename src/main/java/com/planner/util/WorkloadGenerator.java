@@ -0,0 +1,380 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Generates seeded, reproducible boards as JBin files and smpl scripts for benchmarks and capacity tests. The same
+ * seed and settings always produce the same output (relative to the current date).
+ * <p>
+ * Can be run from the command line, e.g.
+ * {@code WorkloadGenerator --tasks=100000 --cards=50 --checklists=1000 --jbin=data/jbin/large.jbin}
+ *
+ * @author Andrew Roe
+ */
+public class WorkloadGenerator {
+
+    /** Colors understood by both JBin files and smpl scripts */
+    private static final Card.Colors[] COLORS = {
+            Card.Colors.RED, Card.Colors.ORANGE, Card.Colors.YELLOW, Card.Colors.GREEN,
+            Card.Colors.BLUE, Card.Colors.INDIGO, Card.Colors.VIOLET
+    };
+    /** Abbreviations of the days of the week as written in JBin files */
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    /**
+     * Distribution of Task due dates over the horizon
+     */
+    public enum DueDates {
+        /** Every day is equally likely */
+        UNIFORM,
+        /** Most Tasks are due soon */
+        FRONT_LOADED,
+        /** Most Tasks are due near the end of the horizon */
+        BACK_LOADED,
+        /** Tasks are due around the end of each week */
+        CLUSTERED
+    }
+
+    /** Seed for the generated board */
+    private final long seed;
+    /** Number of Cards (including the default Card) */
+    private int cards;
+    /** Number of Tasks */
+    private int tasks;
+    /** Number of Tasks holding a CheckList */
+    private int checklists;
+    /** Number of Items per CheckList */
+    private int items;
+    /** Number of recurring Events */
+    private int recurringEvents;
+    /** Number of individual Events */
+    private int individualEvents;
+    /** Number of days Tasks and Events are spread over */
+    private int horizon;
+    /** Distribution of Task due dates */
+    private DueDates dueDates;
+
+    /**
+     * Constructs a WorkloadGenerator with a small board by default
+     *
+     * @param seed seed for the generated board
+     */
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+        setCards(5);
+        setTasks(100);
+        setCheckLists(10);
+        setItems(4);
+        setRecurringEvents(5);
+        setIndividualEvents(5);
+        setHorizon(14);
+        setDueDates(DueDates.UNIFORM);
+    }
+
+    public void setCards(int cards) {
+        if (cards < 1) throw new IllegalArgumentException("Board needs at least the default Card");
+        this.cards = cards;
+    }
+
+    public void setTasks(int tasks) {
+        if (tasks < 0) throw new IllegalArgumentException("Invalid number of Tasks");
+        this.tasks = tasks;
+    }
+
+    public void setCheckLists(int checklists) {
+        if (checklists < 0) throw new IllegalArgumentException("Invalid number of CheckLists");
+        this.checklists = checklists;
+    }
+
+    public void setItems(int items) {
+        if (items < 0) throw new IllegalArgumentException("Invalid number of CheckList Items");
+        this.items = items;
+    }
+
+    public void setRecurringEvents(int recurringEvents) {
+        if (recurringEvents < 0) throw new IllegalArgumentException("Invalid number of recurring Events");
+        this.recurringEvents = recurringEvents;
+    }
+
+    public void setIndividualEvents(int individualEvents) {
+        if (individualEvents < 0) throw new IllegalArgumentException("Invalid number of individual Events");
+        this.individualEvents = individualEvents;
+    }
+
+    public void setHorizon(int horizon) {
+        if (horizon < 1) throw new IllegalArgumentException("Invalid horizon for generated board");
+        this.horizon = horizon;
+    }
+
+    public void setDueDates(DueDates dueDates) {
+        if (dueDates == null) throw new IllegalArgumentException("Invalid due date distribution");
+        this.dueDates = dueDates;
+    }
+
+    /**
+     * Creates the board as a JBin String
+     *
+     * @return JBin String
+     */
+    public String createJBin() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeJBin(sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the board in the JBin format
+     *
+     * @param out destination of the JBin data
+     * @throws IOException if the destination could not be written to
+     */
+    public void writeJBin(Appendable out) throws IOException {
+        Random random = new Random(seed);
+        Calendar today = Time.getFormattedCalendarInstance(0);
+        out.append(String.format("%02d-%02d-%04d%n%n", today.get(Calendar.DAY_OF_MONTH),
+                today.get(Calendar.MONTH) + 1, today.get(Calendar.YEAR)));
+
+        if (checklists > 0) {
+            out.append("CHECKLIST {\n");
+            for (int i = 0; i < Math.min(checklists, tasks); i++) {
+                out.append("  CL").append(String.valueOf(i));
+                for (int j = 0; j < items; j++) {
+                    out.append(", Item ").append(String.valueOf(j));
+                    // roughly a third of the Items are already complete
+                    if (random.nextInt(3) == 0) out.append('+');
+                }
+                out.append('\n');
+            }
+            out.append("}\n\n");
+        }
+
+        if (tasks > 0) {
+            out.append("TASK {\n");
+            for (int i = 0; i < tasks; i++) {
+                out.append("  T").append(String.valueOf(i)).append(", ").append(String.valueOf(randomHours(random)))
+                        .append(", ").append(String.valueOf(randomDueDay(random)));
+                if (i < checklists) out.append(", CL").append(String.valueOf(i));
+                out.append('\n');
+            }
+            out.append("}\n\n");
+        }
+
+        // Tasks are dealt out to the Cards in turn
+        out.append("CARD {\n");
+        for (int c = 0; c < cards; c++) {
+            out.append("  ").append(c == 0 ? "Default" : "Card " + c).append(", ").append(COLORS[c % COLORS.length].name());
+            for (int t = c; t < tasks; t += cards) {
+                out.append(", T").append(String.valueOf(t));
+            }
+            out.append('\n');
+        }
+        out.append("}\n\n");
+
+        if (recurringEvents + individualEvents > 0) {
+            out.append("EVENT {\n");
+            for (int i = 0; i < recurringEvents; i++) {
+                out.append("  R").append(String.valueOf(i)).append(", ").append(COLORS[i % COLORS.length].name())
+                        .append(", true, ").append(randomTimes(random)).append(", ").append(randomDays(random)).append('\n');
+            }
+            for (int i = 0; i < individualEvents; i++) {
+                Calendar date = Time.getFormattedCalendarInstance(random.nextInt(horizon));
+                out.append("  E").append(String.valueOf(i)).append(", ").append(COLORS[i % COLORS.length].name())
+                        .append(", false, ").append(randomTimes(random))
+                        .append(String.format(", %02d-%02d-%04d%n", date.get(Calendar.DAY_OF_MONTH),
+                                date.get(Calendar.MONTH) + 1, date.get(Calendar.YEAR)));
+            }
+            out.append("}\n");
+        }
+    }
+
+    /**
+     * Creates the board as an smpl script that creates every Card and Task and then builds the schedule. Scripts
+     * have no way of creating Events without user input, so Events are only part of JBin files.
+     *
+     * @return smpl script
+     */
+    public String createScript() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeScript(sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the board as an smpl script
+     *
+     * @param out destination of the script
+     * @throws IOException if the destination could not be written to
+     */
+    public void writeScript(Appendable out) throws IOException {
+        Random random = new Random(seed);
+        out.append("include: __CURR_CONFIG__\n\n");
+        out.append("# generated board (seed ").append(String.valueOf(seed)).append(")\n");
+        for (int c = 1; c < cards; c++) {
+            out.append("c").append(String.valueOf(c)).append(": card(\"Card ").append(String.valueOf(c)).append("\", \"")
+                    .append(COLORS[c % COLORS.length].name()).append("\")\n");
+        }
+        for (int t = 0; t < tasks; t++) {
+            // script Tasks only take whole hours and can't be past due
+            out.append("t").append(String.valueOf(t)).append(": task(\"T").append(String.valueOf(t)).append("\", ")
+                    .append(String.valueOf((int) Math.ceil(randomHours(random)))).append(", ")
+                    .append(String.valueOf(Math.max(0, randomDueDay(random)))).append(")\n");
+            if (t % cards != 0) {
+                out.append("add_task_card(t").append(String.valueOf(t)).append(", c")
+                        .append(String.valueOf(t % cards)).append(")\n");
+            }
+        }
+        out.append("\nbuild()\n");
+    }
+
+    /**
+     * Picks the number of hours for a Task (0.5 to 12 in half hours)
+     *
+     * @param random source of randomness
+     * @return number of hours
+     */
+    private double randomHours(Random random) {
+        return (1 + random.nextInt(24)) / 2.0;
+    }
+
+    /**
+     * Picks the number of days until a Task is due following the due date distribution
+     *
+     * @param random source of randomness
+     * @return number of days from today
+     */
+    private int randomDueDay(Random random) {
+        double r = random.nextDouble();
+        switch (dueDates) {
+            case FRONT_LOADED:
+                return (int) (r * r * horizon);
+            case BACK_LOADED:
+                return (int) ((1 - r * r) * horizon);
+            case CLUSTERED:
+                int weeks = Math.max(1, horizon / 7);
+                int day = 7 * random.nextInt(weeks) + 5 + (int) Math.round(random.nextGaussian());
+                return Math.max(0, Math.min(horizon - 1, day));
+            default:
+                return (int) (r * horizon);
+        }
+    }
+
+    /**
+     * Picks a 30 minute to 2 hour time block starting on a quarter-hour between 8am and 6pm
+     *
+     * @param random source of randomness
+     * @return time block in the JBin format (HH:mm-HH:mm)
+     */
+    private static String randomTimes(Random random) {
+        int start = 8 * 60 + 15 * random.nextInt(40);
+        int end = start + 30 + 15 * random.nextInt(7);
+        return String.format("%d:%02d-%d:%02d", start / 60, start % 60, end / 60, end % 60);
+    }
+
+    /**
+     * Picks one to three days of the week
+     *
+     * @param random source of randomness
+     * @return days of the week in the JBin format
+     */
+    private static String randomDays(Random random) {
+        int first = random.nextInt(7);
+        int count = 1 + random.nextInt(3);
+        StringBuilder sb = new StringBuilder(DAYS[first]);
+        for (int i = 1; i < count; i++) {
+            sb.append(' ').append(DAYS[(first + 2 * i) % 7]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates a board from the command line. Options are given as {@code --name=value}: seed, cards, tasks,
+     * checklists, items, recurring, individual, horizon, due (UNIFORM, FRONT_LOADED, BACK_LOADED, CLUSTERED),
+     * jbin (output file) and smpl (output file).
+     *
+     * @param args command line options
+     * @throws IOException if an output file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        long seed = 0;
+        String jbin = null;
+        String smpl = null;
+        // the seed is needed before anything else is set
+        for (String arg : args) {
+            if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        for (String arg : args) {
+            int idx = arg.indexOf('=');
+            if (!arg.startsWith("--") || idx < 0) throw new IllegalArgumentException("Invalid option: " + arg);
+            String value = arg.substring(idx + 1);
+            switch (arg.substring(2, idx)) {
+                case "seed":
+                    break;
+                case "cards":
+                    generator.setCards(Integer.parseInt(value));
+                    break;
+                case "tasks":
+                    generator.setTasks(Integer.parseInt(value));
+                    break;
+                case "checklists":
+                    generator.setCheckLists(Integer.parseInt(value));
+                    break;
+                case "items":
+                    generator.setItems(Integer.parseInt(value));
+                    break;
+                case "recurring":
+                    generator.setRecurringEvents(Integer.parseInt(value));
+                    break;
+                case "individual":
+                    generator.setIndividualEvents(Integer.parseInt(value));
+                    break;
+                case "horizon":
+                    generator.setHorizon(Integer.parseInt(value));
+                    break;
+                case "due":
+                    generator.setDueDates(DueDates.valueOf(value.toUpperCase()));
+                    break;
+                case "jbin":
+                    jbin = value;
+                    break;
+                case "smpl":
+                    smpl = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+        }
+        if (jbin == null && smpl == null) {
+            System.out.print(generator.createJBin());
+            return;
+        }
+        if (jbin != null) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(jbin), StandardCharsets.UTF_8)) {
+                generator.writeJBin(writer);
+            }
+        }
+        if (smpl != null) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(smpl), StandardCharsets.UTF_8)) {
+                generator.writeScript(writer);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.planner.io;
+
+import com.planner.io.EventRecordLog.Action;
+import com.planner.io.EventRecordLog.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all EventRecordLog and EventQuery methods
+ *
+ * @author Andrew Roe
+ */
+class EventRecordLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void scan() throws IOException {
+        // room for three records per segment
+        long segmentSize = EventRecordLog.HEADER_SIZE + 3 * EventRecordLog.RECORD_SIZE;
+        EventRecordLog log = new EventRecordLog(dir, segmentSize, 2);
+        for (int i = 0; i < 8; i++) {
+            log.append(1000 + i, Action.TASK_ADD, i % 2 == 0, i, -i, i * 1.5);
+        }
+        log.close();
+        // only the newest two segments are kept
+        assertFalse(Files.exists(dir.resolve("events-1.bin")));
+        assertTrue(Files.exists(dir.resolve("events-3.bin")));
+
+        // a record cut short by a crash is ignored
+        Files.write(dir.resolve("events-3.bin"), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        List<Entry> entries = new ArrayList<>();
+        EventRecordLog.scan(dir, 1004, 1007, entries::add);
+        assertEquals(3, entries.size());
+        Entry entry = entries.get(1);
+        assertEquals(1005, entry.getTime());
+        assertEquals(Action.TASK_ADD, entry.getAction());
+        assertFalse(entry.getFlag());
+        assertEquals(5, entry.getTaskId());
+        assertEquals(-5, entry.getRef());
+        assertEquals(7.5, entry.getValue());
+
+        // a new session starts a new segment
+        log = new EventRecordLog(dir, segmentSize, 2);
+        log.append(2000, Action.SESSION_START, false, 0, 0, 0);
+        log.close();
+        assertTrue(Files.exists(dir.resolve("events-4.bin")));
+        assertFalse(Files.exists(dir.resolve("events-2.bin")));
+    }
+
+    @Test
+    void query() throws IOException {
+        EventRecordLog log = new EventRecordLog(dir, 1 << 20, 4);
+        log.append(100, Action.DAY_ASSIGN, false, 1, 7, 2);
+        log.append(200, Action.DAY_OVERFLOW, true, 1, 8, 9);
+        log.append(300, Action.DAY_OVERFLOW, true, 2, 7, 10);
+        log.append(400, Action.TASK_ARCHIVE, false, 7, 0, 3);
+        log.close();
+
+        EventQuery query = new EventQuery(dir);
+        query.setActions(EnumSet.of(Action.DAY_OVERFLOW));
+        assertEquals(Map.of(Action.DAY_OVERFLOW, 2), query.countByAction());
+
+        query.setActions(null);
+        query.setTaskId(7);
+        Map<Action, Integer> counts = query.countByAction();
+        assertEquals(3, counts.size());
+        assertEquals(1, (int) counts.get(Action.DAY_OVERFLOW));
+
+        query.setTo(300);
+        assertEquals(1, query.countByDay().size());
+        assertEquals(Map.of(Action.DAY_ASSIGN, 1), query.countByDay().values().iterator().next());
+    }
+}
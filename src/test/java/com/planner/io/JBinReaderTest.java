@@ -0,0 +1,89 @@
+package com.planner.io;
+
+import com.planner.models.Card;
+import com.planner.models.Task;
+import com.planner.util.JBin;
+import com.planner.util.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all JBinReader methods
+ *
+ * @author Andrew Roe
+ */
+class JBinReaderTest {
+
+    private static JBinReader reader(byte[] data) {
+        return new JBinReader(Channels.newChannel(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    void readLine() throws IOException {
+        // the multi-byte character straddles the end of the read buffer
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 64 * 1024 - 1; i++) {
+            sb.append('a');
+        }
+        String longLine = sb.append('é').toString();
+        String text = "CARD {\r\n  Café, RED\r}\n\n" + longLine + "\nlast";
+        JBinReader reader = reader(text.getBytes(StandardCharsets.UTF_8));
+        assertFalse(reader.startsWith(new byte[]{'J', 'B', 'I', 'N'}));
+        assertEquals("CARD {", reader.readLine());
+        assertEquals("  Café, RED", reader.readLine());
+        assertEquals("}", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertEquals(longLine, reader.readLine());
+        assertEquals("last", reader.readLine());
+        assertNull(reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void readBytes() throws IOException {
+        byte[] data = new byte[200 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        JBinReader reader = reader(data);
+        assertTrue(reader.startsWith(new byte[]{0, 1, 2}));
+        ByteBuffer small = reader.readBytes(10);
+        assertEquals(10, small.remaining());
+        assertEquals(9, small.get(9));
+
+        // reads larger than the read buffer
+        ByteBuffer large = reader.readBytes(100 * 1024);
+        assertEquals(100 * 1024, large.remaining());
+        assertEquals((byte) 10, large.get());
+        assertEquals((byte) (100 * 1024 + 9), large.get(100 * 1024 - 1));
+        assertEquals((byte) (100 * 1024 + 10), reader.readBytes(1).get());
+        assertThrows(EOFException.class, () -> reader.readBytes(data.length));
+    }
+
+    @Test
+    void processJBin() throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(3);
+        generator.setTasks(500);
+        generator.setCheckLists(50);
+        Queue<Task> tasks = new PriorityQueue<>();
+        List<Card> cards = new ArrayList<>();
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        try (JBinReader reader = reader(generator.createJBin().getBytes(StandardCharsets.UTF_8))) {
+            JBin.processJBin(reader, tasks, new ArrayList<>(), 0, cards, new ArrayList<>(), 0);
+        }
+        assertEquals(500, tasks.size());
+        assertEquals(5, cards.size());
+    }
+}
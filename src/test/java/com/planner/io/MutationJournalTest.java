@@ -0,0 +1,121 @@
+package com.planner.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all MutationJournal methods
+ *
+ * @author Andrew Roe
+ */
+class MutationJournalTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal");
+    }
+
+    @Test
+    void recover() throws IOException {
+        MutationJournal journal = new MutationJournal(dir);
+        assertNull(journal.getSnapshot());
+        assertTrue(journal.recover().isEmpty());
+        journal.append(MutationJournal.Op.ADD_TASK, 4, "HW", 3, 20000L);
+        journal.append(MutationJournal.Op.MARK_ITEM, 4, 1, true);
+        journal.append(MutationJournal.Op.ADD_EVENT, "Lecture", "RED", 540L, 600L, new int[]{1, 3});
+        journal.close();
+
+        // a record cut short by a crash is dropped
+        Files.write(dir.resolve("journal-0.log"), new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        journal = new MutationJournal(dir);
+        List<MutationJournal.Entry> entries = journal.recover();
+        assertEquals(3, entries.size());
+        assertEquals(MutationJournal.Op.ADD_TASK, entries.get(0).getOp());
+        assertEquals("HW", entries.get(0).getString(1));
+        assertEquals(20000L, entries.get(0).getLong(3));
+        assertTrue(entries.get(1).getBoolean(2));
+        assertArrayEquals(new int[]{1, 3}, entries.get(2).getInts(4));
+
+        // appends continue after the last complete record
+        journal.append(MutationJournal.Op.REMOVE_TASK, 4);
+        journal.close();
+        journal = new MutationJournal(dir);
+        assertEquals(4, journal.recover().size());
+        journal.close();
+
+        // a torn length near Integer.MAX_VALUE ends the log rather than failing the recovery
+        Files.write(dir.resolve("journal-0.log"), new byte[]{0x7f, -1, -1, -3, 1, 2, 3, 4},
+                StandardOpenOption.APPEND);
+        journal = new MutationJournal(dir);
+        assertEquals(4, journal.recover().size());
+        journal.close();
+    }
+
+    @Test
+    void append() throws IOException, InterruptedException {
+        MutationJournal journal = new MutationJournal(dir);
+        journal.recover();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            int thread = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 50; j++) {
+                        journal.append(MutationJournal.Op.REMOVE_TASK, thread * 100 + j);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // every append has returned, so every record is in the log without closing the journal
+        MutationJournal reopened = new MutationJournal(dir);
+        List<MutationJournal.Entry> entries = reopened.recover();
+        assertEquals(200, entries.size());
+        for (int i = 0; i < threads.length; i++) {
+            int next = i * 100;
+            for (MutationJournal.Entry entry : entries) {
+                if (entry.getInt(0) / 100 == i) assertEquals(next++, entry.getInt(0));
+            }
+            assertEquals(i * 100 + 50, next);
+        }
+        reopened.close();
+        journal.close();
+    }
+
+    @Test
+    void compact() throws IOException {
+        MutationJournal journal = new MutationJournal(dir);
+        journal.recover();
+        journal.append(MutationJournal.Op.REMOVE_TASK, 4);
+        journal.compact(channel -> channel.write(ByteBuffer.wrap(new byte[]{'J', 'B', 'I', 'N'})), new int[]{7, 9});
+        journal.append(MutationJournal.Op.REMOVE_TASK, 9);
+        journal.close();
+
+        journal = new MutationJournal(dir);
+        assertEquals(dir.resolve("snapshot-1.jbin"), journal.getSnapshot());
+        List<MutationJournal.Entry> entries = journal.recover();
+        assertEquals(2, entries.size());
+        assertEquals(MutationJournal.Op.BASE, entries.get(0).getOp());
+        assertArrayEquals(new int[]{7, 9}, entries.get(0).getInts(0));
+        assertEquals(9, entries.get(1).getInt(0));
+        // the old generation is gone
+        assertFalse(Files.exists(dir.resolve("journal-0.log")));
+        journal.close();
+    }
+}
@@ -0,0 +1,357 @@
+package com.planner.manager;
+
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import com.planner.util.BinaryJBin;
+import com.planner.util.EventLog;
+import com.planner.util.Metrics;
+import com.planner.util.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the state ScheduleManager keeps up to date matches one built from scratch, whether by a full rebuild
+ * of the schedule or by replaying the journal
+ *
+ * @author Andrew Roe
+ */
+class ScheduleManagerTest {
+
+    /** Directory the managers log to */
+    @TempDir
+    Path logDir;
+    private EventLog log;
+    private ScheduleManager manager;
+    /** Receives the same changes as the manager, but always rebuilds its schedule from scratch */
+    private ScheduleManager rebuilt;
+
+    @BeforeEach
+    void setUp() {
+        log = new EventLog(logDir);
+        manager = new ScheduleManager(log, false);
+        rebuilt = new ScheduleManager(log, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.close();
+    }
+
+    @Test
+    void updateSchedule() {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        List<Task> rebuiltTasks = new ArrayList<>();
+        for (int step = 0; step < 150; step++) {
+            if (tasks.isEmpty() || random.nextInt(3) > 0) {
+                String name = "T" + step;
+                int hours = 1 + random.nextInt(6);
+                int days = random.nextInt(12);
+                tasks.add(manager.addTask(name, hours, days));
+                rebuiltTasks.add(rebuilt.addTask(name, hours, days));
+            } else {
+                int idx = random.nextInt(tasks.size());
+                assertTrue(manager.removeTask(tasks.remove(idx)));
+                assertTrue(rebuilt.removeTask(rebuiltTasks.remove(idx)));
+            }
+            // the next change is made part way through building the schedule as often as not
+            if (random.nextBoolean()) {
+                Iterator<Day> days = manager.scheduleIterator();
+                for (int i = random.nextInt(4); i > 0 && days.hasNext(); i--) {
+                    days.next();
+                }
+                continue;
+            }
+            manager.updateSchedule();
+            rebuilt.buildSchedule();
+            assertEquals(describe(rebuilt), describe(manager), "step " + step);
+        }
+    }
+
+    @Test
+    void resumeFromCheckpoint() {
+        Metrics.Counter resumes = Metrics.getMetrics().counter("schedule_resumes",
+                "Schedules rebuilt from a checkpoint");
+        addTasks(30);
+        manager.updateSchedule();
+        long resumed = resumes.get();
+        // a Task due late only affects the Days toward the end of the schedule
+        both(m -> m.addTask("Late", 3, 11));
+        manager.updateSchedule();
+        assertEquals(resumed + 1, resumes.get());
+        rebuilt.buildSchedule();
+        assertEquals(describe(rebuilt), describe(manager));
+
+        both(m -> m.removeTask(m.getTask(20)));
+        manager.updateSchedule();
+        rebuilt.buildSchedule();
+        assertEquals(describe(rebuilt), describe(manager));
+    }
+
+    @Test
+    void scheduleIterator() {
+        addTasks(30);
+        Iterator<Day> days = manager.scheduleIterator();
+        for (int i = 0; i < 3; i++) {
+            days.next();
+        }
+        assertEquals(3, manager.getSchedule().size());
+        both(m -> m.addTask("Urgent", 5, 1));
+        assertThrows(ConcurrentModificationException.class, days::hasNext);
+
+        List<Day> iterated = new ArrayList<>();
+        manager.scheduleIterator().forEachRemaining(iterated::add);
+        assertEquals(manager.getSchedule(), iterated);
+        assertTrue(manager.scheduleIsCurrent());
+        rebuilt.buildSchedule();
+        assertEquals(describe(rebuilt), describe(manager));
+    }
+
+    @Test
+    void scheduleStream() {
+        addTasks(30);
+        // only the first Day is scheduled
+        assertTrue(manager.scheduleStream().findFirst().isPresent());
+        assertEquals(1, manager.getSchedule().size());
+        both(m -> m.removeTask(m.getTask(3)));
+        assertEquals(2, manager.scheduleStream().limit(2).count());
+
+        rebuilt.buildSchedule();
+        assertEquals(rebuilt.getSchedule().size(), manager.scheduleStream().count());
+        assertTrue(manager.scheduleIsCurrent());
+        assertEquals(describe(rebuilt), describe(manager));
+    }
+
+    @Test
+    void addEvent() {
+        addTasks(30);
+        Iterator<Day> days = manager.scheduleIterator();
+        days.next();
+        days.next();
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0)) * Time.MINUTES_PER_DAY;
+        // one individual Event on a Day already scheduled, one on a Day that isn't yet, and a recurring one
+        both(m -> m.addEvent("Exam", Card.Colors.RED, new Time.TimeStamp(today + Time.MINUTES_PER_DAY + 600,
+                today + Time.MINUTES_PER_DAY + 780), false, null));
+        both(m -> m.addEvent("Trip", Card.Colors.GREEN, new Time.TimeStamp(today + 5 * Time.MINUTES_PER_DAY + 480,
+                today + 5 * Time.MINUTES_PER_DAY + 960), false, null));
+        both(m -> m.addEvent("Gym", Card.Colors.BLUE, new Time.TimeStamp(today + 1020, today + 1140), true,
+                new Event.DayOfWeek[]{Event.DayOfWeek.TUE, Event.DayOfWeek.THU}));
+
+        manager.updateSchedule();
+        rebuilt.buildSchedule();
+        assertEquals(describe(rebuilt), describe(manager));
+        assertTrue(describe(manager).contains("*Trip\n"));
+    }
+
+    @Test
+    void replayJournal(@TempDir Path dir) {
+        manager.recoverJournal(dir);
+        Card school = new Card(1, "School", Card.Colors.RED);
+        manager.addCard(school);
+        Task hw = manager.addTask("HW", 3, 2);
+        manager.addTaskToCard(manager.addTask("Exam", 5, 6), school);
+        List<Task> listed = List.of(new Task(manager.getLastTaskId(), "Essay", 4, 5),
+                new Task(manager.getLastTaskId() + 1, "Lab", 2, 3));
+        manager.addTaskList(listed);
+        CheckList steps = new CheckList(0, "Steps");
+        steps.addItem("Outline");
+        steps.addItem("Draft");
+        steps.markItemById(0, true);
+        assertTrue(manager.addTaskCheckList(listed.get(0), steps));
+        manager.createTaskCheckList(hw, "Problems");
+        manager.addTaskCheckListItem(hw, "1a");
+        manager.markTaskItem(hw, 0, true);
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0)) * Time.MINUTES_PER_DAY;
+        manager.addEvent("Gym", Card.Colors.BLUE, new Time.TimeStamp(today + 1020, today + 1140), true,
+                new Event.DayOfWeek[]{Event.DayOfWeek.TUE, Event.DayOfWeek.THU});
+        manager.addEvent("Exam", Card.Colors.RED, new Time.TimeStamp(today + 600, today + 780), false, null);
+        manager.removeTask(manager.addTask("Dropped", 1, 1));
+        manager.closeJournal();
+
+        rebuilt.recoverJournal(dir);
+        rebuilt.closeJournal();
+        assertEquals(state(manager), state(rebuilt));
+        assertTrue(state(rebuilt).contains("Steps"));
+        assertFalse(state(rebuilt).contains("Dropped"));
+        assertEquals(scheduled(manager), scheduled(rebuilt));
+        assertEquals(describe(manager), describe(rebuilt));
+    }
+
+    @Test
+    void recoverJournalRepeatedly(@TempDir Path dir) {
+        manager.recoverJournal(dir);
+        manager.addTask("Keep", 3, 2);
+        manager.removeTask(manager.addTask("Gone", 2, 4));
+        manager.closeJournal();
+        // every recovery compacts the journal into a snapshot, which the next one starts from
+        for (int session = 1; session <= 3; session++) {
+            ScheduleManager recovered = new ScheduleManager(log, false);
+            recovered.recoverJournal(dir);
+            recovered.closeJournal();
+            assertEquals(List.of("Keep"), scheduled(recovered), "session " + session);
+        }
+    }
+
+    @Test
+    void importJBinFile(@TempDir Path dir) throws IOException {
+        addTasks(10);
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0)) * Time.MINUTES_PER_DAY;
+        both(m -> m.addEvent("Gym", Card.Colors.BLUE, new Time.TimeStamp(today + 1020, today + 1140), true,
+                new Event.DayOfWeek[]{Event.DayOfWeek.TUE, Event.DayOfWeek.THU}));
+        both(m -> m.addEvent("Exam", Card.Colors.RED, new Time.TimeStamp(today + 600, today + 780), false, null));
+        both(m -> m.addEvent("Exam", Card.Colors.RED, new Time.TimeStamp(today + 600, today + 780), false, null));
+        Path file = dir.resolve("board.jbin");
+        Files.write(file, BinaryJBin.createJBin(manager.getCards(), manager.getEvents(), manager.getSchedule(), null));
+
+        ScheduleManager imported = new ScheduleManager(log, false);
+        imported.importJBinFile(file.toString());
+        // the gauges read the newest manager
+        Metrics.Gauge tasks = (Metrics.Gauge) Metrics.getMetrics().getAll().stream()
+                .filter(m -> m.getName().equals("tasks")).findFirst().orElseThrow();
+        assertEquals(10, tasks.get());
+        for (Card c : imported.getCards()) {
+            for (Task t : c.getTask()) {
+                assertSame(t, imported.getTask(t.getId()));
+            }
+        }
+        String once = state(imported);
+        assertEquals(state(manager), once);
+        assertEquals(3, imported.getEvents().size());
+        imported.importJBinFile(file.toString());
+        assertEquals(once, state(imported));
+        assertEquals(2, imported.getIndivEvents().size());
+        assertEquals(1, imported.getRecurringEvents().get(Event.DayOfWeek.TUE.ordinal()).size());
+    }
+
+    @Test
+    void importExportedBoard(@TempDir Path dir) {
+        addTasks(5);
+        Task hw = manager.addTask("HW", 3, 2);
+        manager.createTaskCheckList(hw, "Problems");
+        manager.addTaskCheckListItem(hw, "1a");
+        manager.markTaskItem(hw, 0, true);
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0)) * Time.MINUTES_PER_DAY;
+        manager.addEvent("Exam", Card.Colors.RED, new Time.TimeStamp(today + 600, today + 780), false, null);
+        String before = state(manager);
+        // Tasks and Events created in this session are already in the system, so importing them adds nothing
+        Path file = dir.resolve("board.jbin");
+        manager.exportJBinFile(file.toString());
+        manager.importJBinFile(file.toString());
+        assertEquals(before, state(manager));
+    }
+
+    @Test
+    void importKeepsTaskIds(@TempDir Path dir) {
+        Path file = dir.resolve("empty.jbin");
+        rebuilt.exportJBinFile(file.toString());
+        Path journalDir = dir.resolve("journal");
+        manager.recoverJournal(journalDir);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(manager.addTask("T" + i, 2, 3 + i));
+        }
+        manager.removeTask(tasks.get(0));
+        manager.removeTask(tasks.get(1));
+        // an import that brings no Tasks mustn't hand out the IDs of the ones still in the system
+        manager.importJBinFile(file.toString());
+        Task added = manager.addTask("Y", 2, 4);
+        assertTrue(added.getId() >= 5);
+        assertSame(tasks.get(3), manager.getTask(3));
+        manager.removeTask(tasks.get(3));
+        manager.closeJournal();
+
+        ScheduleManager recovered = new ScheduleManager(log, false);
+        recovered.recoverJournal(journalDir);
+        recovered.closeJournal();
+        assertEquals(List.of("T2", "T4", "Y"), scheduled(recovered));
+    }
+
+    /**
+     * Adds the same random Tasks to both managers
+     */
+    private void addTasks(int count) {
+        Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            String name = "T" + i;
+            int hours = 1 + random.nextInt(6);
+            int days = random.nextInt(12);
+            both(m -> m.addTask(name, hours, days));
+        }
+    }
+
+    private void both(Consumer<ScheduleManager> change) {
+        change.accept(manager);
+        change.accept(rebuilt);
+    }
+
+    /**
+     * Describes every Card with its Tasks and their CheckLists, along with every Event. IDs are left out, since the
+     * Tasks are renumbered when a snapshot is imported.
+     */
+    private static String state(ScheduleManager manager) {
+        StringBuilder sb = new StringBuilder();
+        for (Card c : manager.getCards()) {
+            sb.append(c.getTitle()).append(' ').append(c.getColorId()).append('\n');
+            for (Task t : c.getTask()) {
+                sb.append("  ").append(t.getName()).append(' ').append(t.getTotalHours()).append(' ')
+                        .append(Time.getEpochDay(t.getDueDate())).append(' ').append(t.getCheckList()).append('\n');
+            }
+        }
+        for (Event e : manager.getEvents()) {
+            sb.append(e.getName()).append(' ').append(e.getColor()).append(' ')
+                    .append(e.getTimeStamp().getStartMinute()).append('-').append(e.getTimeStamp().getEndMinute())
+                    .append(' ')
+                    .append(e.isRecurring() ? Arrays.toString(e.getDays()) : "once").append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lists the names of the Tasks a schedule is built from, once the schedule is rebuilt from scratch
+     */
+    private static List<String> scheduled(ScheduleManager manager) {
+        manager.buildSchedule();
+        Set<String> names = new TreeSet<>();
+        for (Day day : manager.getSchedule()) {
+            for (int i = 0; i < day.getNumSubTasks(); i++) {
+                names.add(day.getParentTask(i).getName());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Describes every Day of a schedule along with its SubTasks. Times are left out, since the Days kept from an
+     * earlier update were scheduled from an earlier time of day.
+     */
+    static String describe(ScheduleManager manager) {
+        StringBuilder sb = new StringBuilder();
+        for (Day day : manager.getSchedule()) {
+            sb.append(day.formattedString()).append(day.getCapacity()).append('\n');
+            for (Event e : day.getEventList()) {
+                sb.append('*').append(e.getName()).append('\n');
+            }
+        }
+        return sb.append("errors=").append(manager.getErrorCount()).toString();
+    }
+}
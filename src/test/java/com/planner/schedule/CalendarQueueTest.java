@@ -0,0 +1,116 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all CalendarQueue methods
+ *
+ * @author Andrew Roe
+ */
+class CalendarQueueTest {
+
+    @Test
+    void poll() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(new Task(i, "T" + i, 1 + (i * 7) % 5, (i * 3) % 40));
+        }
+        CalendarQueue queue = new CalendarQueue(tasks);
+        assertEquals(30, queue.size());
+
+        Task prev = null;
+        while (!queue.isEmpty()) {
+            Task task = queue.remove();
+            if (prev != null) assertTrue(prev.compareTo(task) <= 0, prev + " was after " + task);
+            prev = task;
+        }
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void requeue() {
+        Task t1 = new Task(0, "Read Ch4", 4, 1);
+        Task t2 = new Task(1, "Finish HW3", 3, 1);
+        Task t3 = new Task(2, "Apply for jobs", 2, 0);
+        CalendarQueue queue = new CalendarQueue();
+        queue.add(t1);
+        queue.add(t2);
+        // earlier due day than anything else in the queue
+        queue.add(t3);
+
+        assertSame(t3, queue.remove());
+        assertSame(t1, queue.remove());
+        // t1 now has fewer remaining hours than t2
+        t1.addSubTask(2, false, null);
+        queue.add(t1);
+        assertSame(t2, queue.peek());
+        assertSame(t2, queue.remove());
+        assertSame(t1, queue.remove());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void horizon() {
+        Task t1 = new Task(0, "Read Ch4", 4, 1);
+        Task t2 = new Task(1, "Finish HW3", 3, 5);
+        CalendarQueue queue = new CalendarQueue();
+        queue.add(t1);
+        queue.add(t2);
+        assertEquals(Long.MIN_VALUE, queue.getHorizon());
+        queue.remove();
+        assertEquals(Time.getEpochDay(t1.getDueDate()), queue.getHorizon());
+        // polling the last task means any later task could have been polled as well
+        queue.remove();
+        assertEquals(Long.MAX_VALUE, queue.getHorizon());
+        queue.resetHorizon();
+        assertEquals(Long.MIN_VALUE, queue.getHorizon());
+    }
+
+    @Test
+    void remove() {
+        Task t1 = new Task(0, "Read Ch4", 4, 1);
+        Task t2 = new Task(1, "Finish HW3", 3, 1);
+        Task t3 = new Task(2, "Apply for jobs", 2, 5);
+        CalendarQueue queue = new CalendarQueue(List.of(t1, t2, t3));
+        assertTrue(queue.contains(t2));
+        assertTrue(queue.remove(t2));
+        assertFalse(queue.contains(t2));
+        assertFalse(queue.remove(t2));
+        // due before and after every bucket
+        assertFalse(queue.contains(new Task(3, "Old", 1, -3)));
+        assertFalse(queue.remove(new Task(4, "Later", 1, 90)));
+        assertEquals(2, queue.size());
+        assertSame(t1, queue.remove());
+        assertSame(t3, queue.remove());
+        assertFalse(queue.contains(t3));
+    }
+
+    @Test
+    void clear() {
+        CalendarQueue queue = new CalendarQueue(List.of(new Task(0, "Read Ch4", 4, 1)));
+        queue.remove();
+        assertEquals(Long.MAX_VALUE, queue.getHorizon());
+        queue.clear();
+        assertEquals(Long.MIN_VALUE, queue.getHorizon());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void comparator() {
+        Task t1 = new Task(0, "Read Ch4", 4, 1);
+        Task t2 = new Task(1, "Finish HW3", 3, 1);
+        CalendarQueue queue = new CalendarQueue(new ShortOrderComparator());
+        queue.add(t1);
+        queue.add(t2);
+        assertSame(t2, queue.remove());
+        assertSame(t1, queue.remove());
+    }
+}
@@ -0,0 +1,84 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all CheckpointRing and Checkpoint methods
+ *
+ * @author Andrew Roe
+ */
+class CheckpointRingTest {
+
+    private CheckpointRing ring;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        ring = new CheckpointRing(3);
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new Task(i, "T" + i, 4, i));
+        }
+    }
+
+    @Test
+    void add() {
+        for (int i = 1; i <= 5; i++) {
+            ring.add(new Checkpoint(i, 0, tasks));
+        }
+        assertEquals(3, ring.size());
+        // the oldest checkpoints were overwritten
+        assertNull(ring.floor(2));
+        assertEquals(3, ring.floor(3).getDay());
+        assertEquals(5, ring.floor(10).getDay());
+        assertThrows(IllegalArgumentException.class, () -> ring.add(new Checkpoint(5, 0, tasks)));
+    }
+
+    @Test
+    void discardFrom() {
+        ring.add(new Checkpoint(2, 0, tasks));
+        ring.add(new Checkpoint(4, 1, tasks));
+        ring.add(new Checkpoint(6, 2, tasks));
+        ring.discardFrom(4);
+        assertEquals(1, ring.size());
+        assertEquals(2, ring.floor(5).getDay());
+        ring.clear();
+        assertEquals(0, ring.size());
+        assertNull(ring.floor(5));
+    }
+
+    @Test
+    void restore() {
+        TaskQueue all = new TaskQueue(tasks);
+        tasks.get(2).addSubTask(1, false, null);
+        Checkpoint checkpoint = new Checkpoint(1, 3, tasks.subList(1, 4));
+        ring.add(checkpoint);
+
+        // scheduling continues after the checkpoint
+        tasks.get(2).addSubTask(2, false, null);
+        tasks.get(3).addSubTask(4, false, null);
+        // a task is removed and another one is created
+        all.remove(tasks.get(1));
+        Task added = new Task(4, "T4", 2, 5);
+        all.add(added);
+        ring.addTask(added);
+
+        TaskQueue complete = new TaskQueue();
+        CalendarQueue queue = new CalendarQueue();
+        ring.floor(1).restore(all, complete, queue);
+        assertEquals(3, checkpoint.getErrorCount());
+        assertEquals(3, queue.size());
+        assertEquals(1, complete.size());
+        assertTrue(complete.contains(tasks.get(0)));
+        assertEquals(3, tasks.get(2).getSubTotalHoursRemaining());
+        assertEquals(4, tasks.get(3).getSubTotalHoursRemaining());
+        assertEquals(2, added.getSubTotalHoursRemaining());
+    }
+}
@@ -0,0 +1,90 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all TaskQueue methods
+ *
+ * @author Andrew Roe
+ */
+class TaskQueueTest {
+
+    private TaskQueue queue;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        queue = new TaskQueue();
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(new Task(i, "T" + i, 1 + (i * 7) % 5, (i * 3) % 8));
+        }
+    }
+
+    private static void assertSorted(TaskQueue queue) {
+        Task prev = null;
+        while (!queue.isEmpty()) {
+            Task task = queue.remove();
+            if (prev != null) assertTrue(prev.compareTo(task) <= 0, prev + " was after " + task);
+            prev = task;
+        }
+    }
+
+    @Test
+    void offer() {
+        for (Task t : tasks) assertTrue(queue.offer(t));
+        assertEquals(20, queue.size());
+        // the same task cannot be held twice
+        assertFalse(queue.offer(tasks.get(0)));
+        assertEquals(20, queue.size());
+        assertSorted(queue);
+    }
+
+    @Test
+    void heapify() {
+        queue = new TaskQueue(tasks);
+        assertEquals(20, queue.size());
+        assertSorted(queue);
+    }
+
+    @Test
+    void remove() {
+        queue.addAll(tasks);
+        assertTrue(queue.contains(tasks.get(5)));
+        assertTrue(queue.remove(tasks.get(5)));
+        assertFalse(queue.contains(tasks.get(5)));
+        assertFalse(queue.remove(tasks.get(5)));
+        assertEquals(19, queue.size());
+
+        // an equal (but different) task is not held by the queue
+        assertFalse(queue.contains(new Task(6, "T6", tasks.get(6).getTotalHours(), tasks.get(6).getDueDate())));
+        assertSorted(queue);
+    }
+
+    @Test
+    void update() {
+        queue.addAll(tasks);
+        Task task = tasks.get(12);
+        task.setTotalHours(task.getTotalHours() + 30);
+        assertTrue(queue.update(task));
+        assertSorted(queue);
+        assertFalse(queue.update(task));
+    }
+
+    @Test
+    void poll() {
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+        queue.add(tasks.get(0));
+        assertSame(tasks.get(0), queue.peek());
+        assertSame(tasks.get(0), queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.planner.schedule.day;
+
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.util.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all EventTemplate methods and their adoption by a Day
+ *
+ * @author Andrew Roe
+ */
+class EventTemplateTest {
+
+    private Event lecture;
+    private Event lab;
+
+    @BeforeEach
+    void setUp() {
+        lecture = recurring(0, "Lecture", 13, 14);
+        lab = recurring(1, "Lab", 9, 11);
+    }
+
+    private static Event recurring(int id, String name, int startHour, int endHour) {
+        Calendar start = Time.getFormattedCalendarInstance(0);
+        start.set(Calendar.HOUR_OF_DAY, startHour);
+        Calendar end = Time.getFormattedCalendarInstance(0);
+        end.set(Calendar.HOUR_OF_DAY, endHour);
+        return new Event(id, name, Card.Colors.RED, new Time.TimeStamp(start, end),
+                new Event.DayOfWeek[]{Event.DayOfWeek.MON});
+    }
+
+    @Test
+    void compile() {
+        EventTemplate template = new EventTemplate(List.of(lecture, lab));
+        assertEquals(2, template.size());
+        assertFalse(template.isEmpty());
+        assertTrue(EventTemplate.EMPTY.isEmpty());
+        // 9am-11am and 1pm-2pm
+        assertEquals(12, template.getOccupancy().busySlots());
+        assertTrue(template.getOccupancy().isBusy(36, 37));
+        assertTrue(template.getOccupancy().isBusy(52, 53));
+    }
+
+    @Test
+    void adoptTemplate() {
+        EventTemplate template = new EventTemplate(List.of(lecture, lab));
+        Day day = new Day(0, 8, 3);
+        day.adoptTemplate(template);
+        assertSame(template.getOccupancy(), day.getOccupancy());
+        assertEquals(2, day.getNumEvents());
+
+        // occurrences take place on the Day, in order of their start time
+        List<Event> events = day.getEventList();
+        assertEquals("Lab", events.get(0).getName());
+        assertEquals("Lecture", events.get(1).getName());
+        assertEquals(day.getDateMinute(), Time.getStartOfDay(events.get(0).getTimeStamp().getStartMinute()));
+
+        // adding to the Day copies the occupancy instead of modifying the template
+        Calendar start = Time.getFormattedCalendarInstance(3);
+        start.set(Calendar.HOUR_OF_DAY, 16);
+        Calendar end = Time.getFormattedCalendarInstance(3);
+        end.set(Calendar.HOUR_OF_DAY, 17);
+        assertTrue(day.addEvent(new Event(2, "Meeting", Card.Colors.BLUE, new Time.TimeStamp(start, end))));
+        assertEquals(3, day.getNumEvents());
+        assertEquals(16, day.getOccupancy().busySlots());
+        assertEquals(12, template.getOccupancy().busySlots());
+
+        assertThrows(IllegalArgumentException.class, () -> day.adoptTemplate(template));
+    }
+}
@@ -0,0 +1,88 @@
+package com.planner.schedule.day;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all Occupancy methods
+ *
+ * @author Andrew Roe
+ */
+class OccupancyTest {
+
+    private Occupancy occupancy;
+
+    @BeforeEach
+    void setUp() {
+        occupancy = new Occupancy();
+    }
+
+    @Test
+    void mark() {
+        assertEquals(0, occupancy.busySlots());
+        occupancy.mark(40, 46);
+        assertEquals(6, occupancy.busySlots());
+        assertTrue(occupancy.isBusy(45, 50));
+        assertFalse(occupancy.isBusy(46, 50));
+
+        // crosses the boundary between the two words
+        occupancy.mark(60, 70);
+        assertEquals(16, occupancy.busySlots());
+        assertTrue(occupancy.isBusy(63, 64));
+        assertTrue(occupancy.isBusy(64, 65));
+
+        // clipped to the day
+        occupancy.mark(94, 200);
+        assertEquals(18, occupancy.busySlots());
+    }
+
+    @Test
+    void nextBusy() {
+        assertEquals(Occupancy.SLOTS, occupancy.nextBusy(0));
+        occupancy.mark(70, 72);
+        assertEquals(70, occupancy.nextBusy(0));
+        assertEquals(71, occupancy.nextBusy(71));
+        assertEquals(Occupancy.SLOTS, occupancy.nextBusy(72));
+    }
+
+    @Test
+    void nextFree() {
+        assertEquals(10, occupancy.nextFree(10));
+        occupancy.mark(0, 80);
+        assertEquals(80, occupancy.nextFree(10));
+        occupancy.mark(80, 96);
+        assertEquals(Occupancy.SLOTS, occupancy.nextFree(10));
+        assertEquals(100, occupancy.nextFree(100));
+    }
+
+    @Test
+    void firstFit() {
+        // 10:00am-11:30am and 11:45am-1:00pm
+        occupancy.mark(40, 46);
+        occupancy.mark(47, 52);
+        assertEquals(32, occupancy.firstFit(32, 2));
+        assertEquals(52, occupancy.firstFit(40, 2));
+        assertEquals(46, occupancy.firstFit(40, 1));
+        assertEquals(Occupancy.SLOTS, occupancy.firstFit(Occupancy.SLOTS, 2));
+    }
+
+    @Test
+    void largestGap() {
+        assertEquals(Occupancy.SLOTS, occupancy.largestGap());
+        occupancy.mark(10, 90);
+        assertEquals(10, occupancy.largestGap());
+    }
+
+    @Test
+    void copy() {
+        occupancy.mark(4, 8);
+        Occupancy copy = occupancy.copy();
+        copy.mark(20, 24);
+        assertEquals(4, occupancy.busySlots());
+        assertEquals(8, copy.busySlots());
+        occupancy.merge(copy);
+        assertEquals(8, occupancy.busySlots());
+    }
+}
@@ -0,0 +1,87 @@
+package com.planner.scripter.tools;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all ScriptProfiler methods
+ *
+ * @author Andrew Roe
+ */
+class ScriptProfilerTest {
+
+    private ScriptProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        profiler = new ScriptProfiler();
+    }
+
+    @Test
+    void profile() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            int mark = profiler.getDepth();
+            profiler.enterScriptLine(3, "work()");
+            int call = profiler.enterFunction("work");
+            profiler.enterFunctionLine("work", 0, "sleep()");
+            Thread.sleep(5);
+            profiler.enterFunctionLine("work", 1, "return");
+            profiler.exit(call);
+            assertEquals(1, profiler.getDepth());
+            profiler.exit(mark);
+            assertEquals(0, profiler.getDepth());
+        }
+        // the next line closes the one before it
+        profiler.enterScriptLine(4, "int i : 0");
+        profiler.enterScriptLine(-1, "int j : 0");
+        assertEquals(1, profiler.getDepth());
+        profiler.exit(0);
+
+        String[] rows = profiler.toString().split("\n");
+        assertEquals(7, rows.length);
+        assertTrue(rows[0].contains("SELF(ms)"));
+        // sites are ranked by their own time, with the function line sleeping taking at least the time it slept
+        for (int i = 2; i < rows.length; i++) {
+            assertTrue(self(rows[i - 1]) >= self(rows[i]));
+        }
+        String sleep = findRow(rows, "work:1: sleep()");
+        assertTrue(self(sleep) >= 10);
+        assertEquals("2", sleep.trim().split("\\s+")[2]);
+        String caller = findRow(rows, "line 3: work()");
+        String function = findRow(rows, "function work()");
+        double callerSelf = self(caller);
+        double callerTotal = Double.parseDouble(caller.trim().split("\\s+")[1]);
+        double functionTotal = Double.parseDouble(function.trim().split("\\s+")[1]);
+        // the time in the function is taken out of the caller's own time
+        assertEquals(callerTotal - functionTotal, callerSelf, 0.01);
+        assertTrue(functionTotal >= 10);
+        assertNotNull(findRow(rows, "line 4: int i : 0"));
+        assertNotNull(findRow(rows, "injected 1: int j : 0"));
+    }
+
+    @Test
+    void recursion() {
+        int outer = profiler.enterFunction("fib");
+        int inner = profiler.enterFunction("fib");
+        profiler.exit(inner);
+        profiler.exit(outer);
+        String row = findRow(profiler.toString().split("\n"), "function fib()");
+        String[] columns = row.trim().split("\\s+");
+        // the inner call is already covered by the outer one
+        assertEquals(2, Integer.parseInt(columns[2]));
+        assertTrue(Double.parseDouble(columns[1]) >= Double.parseDouble(columns[0]));
+    }
+
+    private static double self(String row) {
+        return Double.parseDouble(row.trim().split("\\s+")[0]);
+    }
+
+    private static String findRow(String[] rows, String site) {
+        for (String row : rows) {
+            if (row.endsWith(site)) return row;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,306 @@
+package com.planner.util;
+
+import com.planner.io.JBinReader;
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the binary JBin encoding
+ *
+ * @author Andrew Roe
+ */
+class BinaryJBinTest {
+
+    private Queue<Task> tasks;
+    private List<Event> events;
+    private List<Card> cards;
+    private List<Day> schedule;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new PriorityQueue<>();
+        events = new ArrayList<>();
+        cards = new ArrayList<>();
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        schedule = new ArrayList<>();
+    }
+
+    @Test
+    void varint() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(out, 0);
+        BinaryJBin.writeVarint(out, 127);
+        BinaryJBin.writeVarint(out, 128);
+        BinaryJBin.writeVarint(out, Integer.MAX_VALUE);
+        BinaryJBin.writeVarlong(out, -1L);
+        BinaryJBin.writeHours(out, 2.75);
+        BinaryJBin.writeHours(out, 1.0 / 3);
+        assertEquals(1 + 1 + 2 + 5 + 10 + 1 + 9, out.size());
+
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(0, BinaryJBin.readVarint(in));
+        assertEquals(127, BinaryJBin.readVarint(in));
+        assertEquals(128, BinaryJBin.readVarint(in));
+        assertEquals(Integer.MAX_VALUE, BinaryJBin.readVarint(in));
+        assertEquals(-1L, BinaryJBin.readVarlong(in));
+        assertEquals(2.75, BinaryJBin.readHours(in));
+        assertEquals(1.0 / 3, BinaryJBin.readHours(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void deflate() {
+        // repetitive enough to compress, and long enough to span several blocks
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (int i = 0; payload.size() < BinaryJBin.BLOCK_SIZE * 2 + 100; i++) {
+            BinaryJBin.writeVarint(payload, i % 1000);
+        }
+        byte[] data = payload.toByteArray();
+        byte[] compressed = BinaryJBin.deflate(payload).toByteArray();
+        assertTrue(compressed.length < data.length / 2);
+
+        ByteBuffer inflated = BinaryJBin.inflate(ByteBuffer.wrap(compressed));
+        byte[] bytes = new byte[inflated.remaining()];
+        inflated.get(bytes);
+        assertArrayEquals(data, bytes);
+
+        compressed[40] ^= 0x55;
+        byte[] corrupt = compressed;
+        assertThrows(IllegalArgumentException.class, () -> BinaryJBin.inflate(ByteBuffer.wrap(corrupt)));
+    }
+
+    @Test
+    void processJBin() throws IOException {
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(strings, 3);
+        for (String s : new String[]{"Default", "RED", "HW"}) {
+            BinaryJBin.writeVarint(strings, s.length());
+            strings.write(s.getBytes(StandardCharsets.UTF_8), 0, s.length());
+        }
+        int today = (int) Time.getEpochDay(Time.getFormattedCalendarInstance(0));
+        ByteArrayOutputStream task = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(task, 1);
+        BinaryJBin.writeVarint(task, 2);
+        BinaryJBin.writeHours(task, 3.5);
+        BinaryJBin.writeInt(task, today + 2);
+        BinaryJBin.writeVarint(task, 0);
+        ByteArrayOutputStream card = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('J');
+        out.write('B');
+        out.write('I');
+        out.write('N');
+        out.write(BinaryJBin.VERSION);
+        out.write(0);
+        BinaryJBin.writeInt(out, today);
+        section(out, BinaryJBin.STRINGS, strings);
+        section(out, BinaryJBin.TASK, task);
+        // sections from newer versions are skipped
+        section(out, 42, strings);
+        section(out, BinaryJBin.CARD, card);
+        out.write(BinaryJBin.END);
+        byte[] data = out.toByteArray();
+
+        assertTrue(BinaryJBin.isBinary(data));
+        assertFalse(BinaryJBin.isBinary("18-10-2026\n".getBytes(StandardCharsets.UTF_8)));
+        JBin.processJBin(data, tasks, events, 0, cards, schedule, 0);
+        assertEquals(1, cards.size());
+        assertEquals(1, tasks.size());
+        Task hw = tasks.peek();
+        assertEquals("HW", hw.getName());
+        assertEquals(3.5, hw.getTotalHours());
+        assertEquals(today + 2, Time.getEpochDay(hw.getDueDate()));
+        assertEquals(Card.Colors.LIGHT_BLUE, hw.getColor());
+
+        // streamed a section at a time
+        List<Card> streamedCards = new ArrayList<>();
+        streamedCards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        Queue<Task> streamedTasks = new PriorityQueue<>();
+        JBin.processJBin(new JBinReader(Channels.newChannel(new ByteArrayInputStream(data))), streamedTasks, events,
+                0, streamedCards, schedule, 0);
+        assertEquals(1, streamedTasks.size());
+        assertEquals(1, streamedCards.get(0).getTask().size());
+
+        byte[] truncated = new byte[data.length - 4];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryJBin.processJBin(truncated, tasks, events, 0, cards, schedule, 0));
+    }
+
+    @Test
+    void processSchedule() {
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(strings, 3);
+        for (String s : new String[]{"Default", "RED", "HW"}) {
+            BinaryJBin.writeVarint(strings, s.length());
+            strings.write(s.getBytes(StandardCharsets.UTF_8), 0, s.length());
+        }
+        int today = (int) Time.getEpochDay(Time.getFormattedCalendarInstance(0));
+        ByteArrayOutputStream task = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(task, 1);
+        BinaryJBin.writeVarint(task, 2);
+        BinaryJBin.writeHours(task, 3.5);
+        BinaryJBin.writeInt(task, today + 2);
+        BinaryJBin.writeVarint(task, 0);
+        ByteArrayOutputStream card = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+        // 2 of the 3.5 hours scheduled on the first Day from 9:00 to 11:00, overflowing a capacity of 1
+        ByteArrayOutputStream day = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(day, 1);
+        BinaryJBin.writeVarint(day, 1);
+        BinaryJBin.writeVarint(day, 0);
+        BinaryJBin.writeHours(day, 2);
+        ByteArrayOutputStream scheduled = new ByteArrayOutputStream();
+        BinaryJBin.writeInt(scheduled, 1234);
+        BinaryJBin.writeVarint(scheduled, 1);
+        BinaryJBin.writeHours(scheduled, 1);
+        BinaryJBin.writeVarlong(scheduled, 540 << 1);
+        BinaryJBin.writeVarint(scheduled, 120 << 1 | 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('J');
+        out.write('B');
+        out.write('I');
+        out.write('N');
+        out.write(BinaryJBin.VERSION);
+        out.write(0);
+        BinaryJBin.writeInt(out, today);
+        section(out, BinaryJBin.STRINGS, strings);
+        section(out, BinaryJBin.TASK, task);
+        section(out, BinaryJBin.CARD, card);
+        int withoutSchedule = out.size();
+        section(out, BinaryJBin.SCHEDULE, scheduled);
+        section(out, BinaryJBin.DAY, day);
+        out.write(BinaryJBin.END);
+
+        SavedSchedule saved = JBin.processJBin(out.toByteArray(), tasks, events, 0, cards, schedule, 0);
+        assertNotNull(saved);
+        assertEquals(today, saved.getSavedDay());
+        assertEquals(1234, saved.getFingerprint());
+        assertEquals(1, saved.getErrorCount());
+        assertEquals(1, schedule.size());
+        Day restored = schedule.get(0);
+        assertEquals(1.0, restored.getCapacity());
+        assertEquals(2.0, restored.getSize());
+        Task.SubTask subTask = restored.getSubTask(0);
+        assertTrue(subTask.isOverflow());
+        assertEquals(restored.getDateMinute() + 540, subTask.getTimeStamp().getStartMinute());
+        assertEquals(restored.getDateMinute() + 660, subTask.getTimeStamp().getEndMinute());
+        // the hours of the Task aren't cut down to the hours that were scheduled
+        assertEquals(3.5, tasks.peek().getTotalHours());
+
+        // without the SCHEDULE section the Days only have their hours
+        byte[] data = out.toByteArray();
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        legacy.write(data, 0, withoutSchedule);
+        section(legacy, BinaryJBin.DAY, day);
+        legacy.write(BinaryJBin.END);
+        List<Card> legacyCards = new ArrayList<>();
+        legacyCards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        List<Day> legacySchedule = new ArrayList<>();
+        assertNull(JBin.processJBin(legacy.toByteArray(), new PriorityQueue<>(), events, 0, legacyCards,
+                legacySchedule, 0));
+        assertNull(legacySchedule.get(0).getSubTask(0).getTimeStamp());
+    }
+
+    @Test
+    void writeJBin(@TempDir Path dir) throws IOException {
+        // enough Tasks for the STRINGS, TASK and CARD sections to span several blocks
+        Card def = new Card(0, "Default", Card.Colors.LIGHT_BLUE);
+        Card school = new Card(1, "School", Card.Colors.RED);
+        for (int i = 0; i < 20000; i++) {
+            Task t = new Task(i, "Task " + i, 1 + i % 8, i % 14);
+            (i % 3 == 0 ? school : def).addTask(t);
+        }
+        CheckList checkList = def.getTask().get(0).addCheckList(0, "Steps");
+        checkList.addItem("Read");
+        checkList.markItemById(0, true);
+        List<Card> board = List.of(def, school);
+        long today = Time.getEpochDay(Time.getFormattedCalendarInstance(0)) * Time.MINUTES_PER_DAY;
+        List<Event> boardEvents = List.of(new Event(0, "Gym", Card.Colors.BLUE,
+                new Time.TimeStamp(today + 1020, today + 1140), new Event.DayOfWeek[]{Event.DayOfWeek.MON}),
+                new Event(1, "Exam", Card.Colors.RED, new Time.TimeStamp(today + 600, today + 780)));
+        Day day = new Day(0, 8, 0);
+        day.restoreSubTask(def.getTask().get(0), 2, false, new Time.TimeStamp(today + 540, today + 660));
+        List<Day> boardSchedule = List.of(day);
+        SavedSchedule saved = new SavedSchedule(today / Time.MINUTES_PER_DAY, 1234, 0);
+
+        byte[] created = BinaryJBin.createJBin(board, boardEvents, boardSchedule, saved);
+        Path plain = dir.resolve("plain.jbin");
+        Path deflated = dir.resolve("deflated.jbin");
+        for (Path path : new Path[]{plain, deflated}) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                BinaryJBin.writeJBin(board, boardEvents, boardSchedule, saved, channel, path == deflated);
+            }
+        }
+        assertArrayEquals(created, Files.readAllBytes(plain));
+        assertTrue(Files.size(deflated) < created.length / 2);
+
+        for (Path path : new Path[]{plain, deflated}) {
+            Queue<Task> readTasks = new PriorityQueue<>();
+            List<Event> readEvents = new ArrayList<>();
+            List<Card> readCards = new ArrayList<>();
+            readCards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+            List<Day> readSchedule = new ArrayList<>();
+            SavedSchedule readSaved = JBin.processJBin(Files.readAllBytes(path), readTasks, readEvents, 0, readCards,
+                    readSchedule, 0);
+            assertEquals(20000, readTasks.size());
+            assertEquals(2, readCards.size());
+            assertEquals(school.getTask().size(), readCards.get(1).getTask().size());
+            assertTrue(readCards.get(0).getTask().get(0).getCheckList().getItem(0).isComplete());
+            assertEquals(2, readEvents.size());
+            assertTrue(readEvents.get(0).isRecurring());
+            assertNotNull(readSaved);
+            assertEquals(1234, readSaved.getFingerprint());
+            assertEquals(1, readSchedule.size());
+            assertEquals(today + 540, readSchedule.get(0).getSubTask(0).getTimeStamp().getStartMinute());
+        }
+
+        // a schedule that isn't up to date is written without the SCHEDULE section
+        List<Day> unsaved = new ArrayList<>();
+        JBin.processJBin(BinaryJBin.createJBin(board, boardEvents, boardSchedule, null), new PriorityQueue<>(),
+                new ArrayList<>(), 0, new ArrayList<>(List.of(new Card(0, "Default", Card.Colors.LIGHT_BLUE))),
+                unsaved, 0);
+        assertNull(unsaved.get(0).getSubTask(0).getTimeStamp());
+    }
+
+    private static void section(ByteArrayOutputStream out, int tag, ByteArrayOutputStream payload) {
+        out.write(tag);
+        BinaryJBin.writeInt(out, payload.size());
+        byte[] bytes = payload.toByteArray();
+        out.write(bytes, 0, bytes.length);
+    }
+}
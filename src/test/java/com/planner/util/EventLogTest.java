@@ -0,0 +1,137 @@
+package com.planner.util;
+
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all EventLog methods
+ *
+ * @author Andrew Roe
+ */
+class EventLogTest {
+
+    @TempDir
+    Path dir;
+    private EventLog log;
+
+    @AfterEach
+    void tearDown() {
+        if (log != null) log.close();
+    }
+
+    @Test
+    void reportTaskAction() throws IOException {
+        Files.writeString(dir.resolve("system.log"), "previous session\n");
+        log = new EventLog(dir, 4, 1 << 20);
+        Task task = new Task(3, "HW", 2, 1);
+        // more actions than the ring holds
+        for (int i = 0; i < 10; i++) {
+            log.reportTaskAction(task, 0);
+        }
+        log.reportGoogleCalendarCleanSchedule(5);
+        log.reportException(new IllegalArgumentException("Invalid hours"));
+
+        String[] lines = log.toString().split("\n");
+        assertEquals(14, lines.length);
+        assertTrue(lines[0].endsWith(" Log of all activities from current session: "));
+        String dueDate = new SimpleDateFormat("MM-dd-yyyy").format(task.getDueDate().getTime());
+        assertTrue(lines[2].matches("\\[\\d\\d:\\d\\d:\\d\\d] \\[INFO] ADD\\(TASK\\): "
+                + " ID=3, NAME=HW, HOURS=2.0, DUE_DATE=" + dueDate));
+        assertTrue(lines[12].endsWith(" [INFO] 5 TASKS REMOVED FROM GOOGLE CALENDAR..."));
+        assertTrue(lines[13].endsWith(" [ERROR] Invalid hours"));
+
+        // the previous session was archived
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve("system-1.log.gz")))) {
+            assertEquals("previous session\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void rollLog() throws IOException {
+        log = new EventLog(dir, 16, 256);
+        for (int i = 0; i < 12; i++) {
+            log.reportProcessTasks("data/tasks-" + i + ".txt");
+            log.flush();
+        }
+        assertTrue(Files.exists(dir.resolve("system-1.log.gz")));
+        assertTrue(Files.size(dir.resolve("system.log")) < 256);
+
+        // the rolled logs are still part of the session
+        String[] lines = log.toString().split("\n");
+        assertEquals(14, lines.length);
+        assertTrue(lines[0].endsWith(" Log of all activities from current session: "));
+        for (int i = 0; i < 12; i++) {
+            assertTrue(lines[i + 2].endsWith(" Reading Tasks: FILE=data/tasks-" + i + ".txt"));
+        }
+    }
+
+    @Test
+    void close() throws IOException {
+        // the log of a previous session isn't part of this one
+        Files.writeString(dir.resolve("system.log"), "previous session\n");
+        log = new EventLog(dir, 16, 1 << 20);
+        log.reportProcessTasks("data/tasks.txt");
+        long writers = writerCount();
+        log.close();
+        assertEquals(writers - 1, writerCount());
+
+        String closed = log.toString();
+        assertTrue(closed.endsWith(" Reading Tasks: FILE=data/tasks.txt\n"));
+        assertFalse(closed.contains("previous session"));
+        log.reportProcessTasks("data/later.txt");
+        log.reportException(new IllegalArgumentException("Invalid hours"));
+        assertEquals(closed, log.toString());
+    }
+
+    private static long writerCount() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("event-log") && t.isAlive()).count();
+    }
+
+    @Test
+    void configure() {
+        log = new EventLog(dir, 16, 1 << 20);
+        UserConfig userConfig = new UserConfig();
+        userConfig.setLogLevel("debug");
+        userConfig.setLogCategories(new String[]{"scheduling"});
+        userConfig.setLogSampleRate(3);
+        log.configure(userConfig);
+        assertTrue(log.isEnabled(EventLog.Category.SCHEDULING, EventLog.Level.DEBUG));
+        assertFalse(log.isEnabled(EventLog.Category.SCHEDULING, EventLog.Level.TRACE));
+        assertFalse(log.isEnabled(EventLog.Category.IO, EventLog.Level.WARN));
+
+        Task task = new Task(3, "HW", 2, 1);
+        for (int i = 0; i < 6; i++) {
+            // archiving is a DEBUG action, so only one in three is kept
+            log.reportTaskAction(task, 3);
+        }
+        log.reportTaskAction(task, 0);
+        log.reportReadJBinFile("data/week.jbin");
+        log.reportException(new IllegalArgumentException("Invalid hours"));
+
+        String[] lines = log.toString().split("\n");
+        assertEquals(6, lines.length);
+        assertTrue(lines[2].contains(" [DEBUG] ARCHIVE(TASK): "));
+        assertTrue(lines[4].contains(" [INFO] ADD(TASK): "));
+        assertTrue(lines[5].endsWith(" [ERROR] Invalid hours"));
+
+        userConfig.setLogLevel("VERBOSE");
+        assertThrows(IllegalArgumentException.class, () -> log.configure(userConfig));
+        userConfig.setLogLevel("INFO");
+        userConfig.setLogSampleRate(0);
+        assertThrows(IllegalArgumentException.class, () -> log.configure(userConfig));
+    }
+}
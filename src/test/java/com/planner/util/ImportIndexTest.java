@@ -0,0 +1,114 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all ImportIndex methods
+ *
+ * @author Andrew Roe
+ */
+class ImportIndexTest {
+
+    private ImportIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ImportIndex();
+    }
+
+    @Test
+    void addTasks() {
+        Task hw = new Task(0, "HW", 3, 2);
+        hw.addCheckList(0, "Steps").addItem("Read");
+        Task hw2 = new Task(1, "HW", 3, 2);
+        Task exam = new Task(2, "Exam", 6, 4);
+        Map<Task, Task> resolved = index.addTasks(List.of(hw, hw2, exam));
+        // same content but a different CheckList
+        assertSame(hw2, resolved.get(hw2));
+        assertEquals(3, index.size());
+
+        // a second import of the same Tasks reuses them, while an extra copy is new
+        Task hwAgain = new Task(0, "HW", 3, 2);
+        hwAgain.addCheckList(0, "Steps").addItem("Read");
+        Task examAgain = new Task(1, "Exam", 6, 4);
+        Task examCopy = new Task(2, "Exam", 6, 4);
+        resolved = index.addTasks(List.of(hwAgain, examAgain, examCopy));
+        assertSame(hw, resolved.get(hwAgain));
+        assertSame(exam, resolved.get(examAgain));
+        assertSame(examCopy, resolved.get(examCopy));
+        assertEquals(4, index.size());
+
+        // a removed Task is brought back by the next import
+        index.removeTask(exam);
+        Task examLater = new Task(0, "Exam", 6, 4);
+        assertSame(examCopy, index.addTasks(List.of(examLater)).get(examLater));
+        Task examLast = new Task(0, "Exam", 6, 4);
+        resolved = index.addTasks(List.of(examLater, examLast));
+        assertSame(examLast, resolved.get(examLast));
+    }
+
+    @Test
+    void addTask() {
+        Task hw = new Task(0, "HW", 3, 2);
+        index.addTask(hw);
+        Task hwImported = new Task(5, "HW", 3, 2);
+        assertSame(hw, index.addTasks(List.of(hwImported)).get(hwImported));
+
+        // once its CheckList changes, a Task is matched by its new content
+        hw.addCheckList(0, "Steps").addItem("Read");
+        index.updateTask(hw);
+        Task hwPlain = new Task(5, "HW", 3, 2);
+        assertSame(hwPlain, index.addTasks(List.of(hwPlain)).get(hwPlain));
+        Task hwSteps = new Task(6, "HW", 3, 2);
+        hwSteps.addCheckList(0, "Steps").addItem("Read");
+        assertSame(hw, index.addTasks(List.of(hwSteps)).get(hwSteps));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void addEvents() {
+        Time.TimeStamp morning = new Time.TimeStamp(600, 660);
+        Event gym = new Event(0, "Gym", Card.Colors.BLUE, morning,
+                new Event.DayOfWeek[]{Event.DayOfWeek.MON, Event.DayOfWeek.WED});
+        Event exam = new Event(1, "Exam", Card.Colors.RED, morning);
+        Event exam2 = new Event(2, "Exam", Card.Colors.RED, morning);
+        assertEquals(List.of(gym, exam, exam2), index.addEvents(List.of(gym, exam, exam2)));
+
+        // a second import of the same Events adds nothing, while an extra copy or a different day is new
+        Event gymAgain = new Event(0, "Gym", Card.Colors.BLUE, morning,
+                new Event.DayOfWeek[]{Event.DayOfWeek.MON, Event.DayOfWeek.WED});
+        Event gymFriday = new Event(1, "Gym", Card.Colors.BLUE, morning,
+                new Event.DayOfWeek[]{Event.DayOfWeek.FRI});
+        Event examAgain = new Event(2, "Exam", Card.Colors.RED, morning);
+        Event examCopy = new Event(3, "Exam", Card.Colors.RED, morning);
+        Event examLater = new Event(4, "Exam", Card.Colors.RED, new Time.TimeStamp(600, 720));
+        assertEquals(List.of(gymFriday, examLater), index.addEvents(List.of(gymAgain, gymFriday, examAgain,
+                exam2, examLater)));
+        assertEquals(List.of(examCopy), index.addEvents(List.of(examAgain, exam2, examCopy)));
+
+        // an Event created in the system counts as already imported
+        Event lab = new Event(5, "Lab", Card.Colors.GREEN, morning);
+        index.addEvent(lab);
+        Event labImported = new Event(0, "Lab", Card.Colors.GREEN, morning);
+        Event labCopy = new Event(1, "Lab", Card.Colors.GREEN, morning);
+        assertEquals(List.of(labCopy), index.addEvents(List.of(labImported, labCopy)));
+    }
+
+    @Test
+    void addCard() {
+        Card school = new Card(1, "School", Card.Colors.RED);
+        index.addCard(school);
+        index.addCard(new Card(2, "School", Card.Colors.RED));
+        assertSame(school, index.getCard("School", Card.Colors.RED));
+        assertNull(index.getCard("School", Card.Colors.BLUE));
+    }
+}
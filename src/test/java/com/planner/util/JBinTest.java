@@ -0,0 +1,77 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.CheckList;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the text JBin format
+ *
+ * @author Andrew Roe
+ */
+class JBinTest {
+
+    private List<Card> cards;
+    private List<Day> schedule;
+
+    @BeforeEach
+    void setUp() {
+        Task hw = new Task(0, "HW", 3.5, 2);
+        CheckList checkList = hw.addCheckList(0, "Steps");
+        checkList.addItem("Read");
+        checkList.addItem("Write");
+        checkList.markItemById(1, true);
+        Task exam = new Task(1, "Exam", 6, 4);
+
+        Card def = new Card(0, "Default", Card.Colors.LIGHT_BLUE);
+        def.addTask(hw);
+        Card school = new Card(1, "School", Card.Colors.RED);
+        school.addTask(exam);
+        school.addTask(hw);
+        cards = new ArrayList<>();
+        cards.add(def);
+        cards.add(school);
+
+        Day today = new Day(0, 8, 0);
+        today.addSubTask(hw, 2, false);
+        today.addSubTask(exam, 3, false);
+        schedule = new ArrayList<>();
+        schedule.add(today);
+    }
+
+    @Test
+    void createJBin() {
+        String jbin = JBin.createJBin(cards, schedule);
+        assertTrue(jbin.contains("CHECKLIST {\n  Steps, Read, Write+\n}\n"));
+        assertTrue(jbin.contains("TASK {\n  HW, 3.5, 2, CL0\n  Exam, 6.0, 4\n}\n"));
+        // Tasks on several Cards are written once and referenced by their number
+        assertTrue(jbin.contains("CARD {\n  Default, LIGHT_BLUE, T0\n  School, RED, T1, T0\n}\n"));
+        assertTrue(jbin.contains("DAY {\n  T0 2.0, T1 3.0\n}\n"));
+
+        Queue<Task> tasks = new PriorityQueue<>();
+        List<Card> processed = new ArrayList<>();
+        processed.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        List<Day> days = new ArrayList<>();
+        JBin.processJBin(jbin, tasks, new ArrayList<>(), 0, processed, days, 0);
+        assertEquals(2, tasks.size());
+        assertEquals(1, days.size());
+        assertEquals(2, days.get(0).getNumSubTasks());
+        assertEquals(5.0, days.get(0).getSize());
+        assertEquals(2, processed.size());
+        assertSame(processed.get(0).getTask().get(0), processed.get(1).getTask().get(1));
+        CheckList checkList = processed.get(0).getTask().get(0).getCheckList();
+        assertFalse(checkList.getItem(0).isComplete());
+        assertTrue(checkList.getItem(1).isComplete());
+        assertEquals("Write", checkList.getItem(1).getDescription());
+    }
+}
@@ -0,0 +1,138 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all MappedJBin methods
+ *
+ * @author Andrew Roe
+ */
+class MappedJBinTest {
+
+    private int today;
+    private byte[] data;
+
+    @BeforeEach
+    void setUp() {
+        today = (int) Time.getEpochDay(Time.getFormattedCalendarInstance(0));
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        String[] table = {"Default", "RED", "HW", "Notes", "Read", "Lecture"};
+        BinaryJBin.writeVarint(strings, table.length);
+        for (String s : table) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            BinaryJBin.writeVarint(strings, bytes.length);
+            strings.write(bytes, 0, bytes.length);
+        }
+        ByteArrayOutputStream checkList = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(checkList, 1);
+        BinaryJBin.writeVarint(checkList, 3);
+        BinaryJBin.writeVarint(checkList, 1);
+        BinaryJBin.writeVarint(checkList, 4 << 1 | 1);
+        ByteArrayOutputStream task = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(task, 1);
+        BinaryJBin.writeVarint(task, 2);
+        BinaryJBin.writeHours(task, 2);
+        BinaryJBin.writeInt(task, today + 1);
+        BinaryJBin.writeVarint(task, 1);
+        ByteArrayOutputStream event = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(event, 1);
+        BinaryJBin.writeVarint(event, 5);
+        BinaryJBin.writeVarint(event, 1);
+        // recurring on Mondays, 9am-10am
+        BinaryJBin.writeVarint(event, 1 << Event.DayOfWeek.MON.ordinal());
+        BinaryJBin.writeVarlong(event, 9 * 60 << 1);
+        BinaryJBin.writeVarint(event, 60);
+        ByteArrayOutputStream card = new ByteArrayOutputStream();
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 1);
+        BinaryJBin.writeVarint(card, 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('J');
+        out.write('B');
+        out.write('I');
+        out.write('N');
+        out.write(BinaryJBin.VERSION);
+        out.write(0);
+        BinaryJBin.writeInt(out, today);
+        // sections are indexed, so their order in the file doesn't matter
+        section(out, BinaryJBin.CARD, card);
+        section(out, BinaryJBin.EVENT, event);
+        section(out, BinaryJBin.TASK, task);
+        section(out, BinaryJBin.CHECKLIST, checkList);
+        section(out, BinaryJBin.STRINGS, strings);
+        out.write(BinaryJBin.END);
+        data = out.toByteArray();
+    }
+
+    private static void section(ByteArrayOutputStream out, int tag, ByteArrayOutputStream payload) {
+        out.write(tag);
+        BinaryJBin.writeInt(out, payload.size());
+        byte[] bytes = payload.toByteArray();
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private MappedJBin map() {
+        // direct buffers behave like mapped files
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        return new MappedJBin(buffer);
+    }
+
+    @Test
+    void sections() {
+        MappedJBin jbin = map();
+        assertEquals(today, jbin.getSavedDay());
+        assertEquals(1, jbin.getTaskCount());
+        assertEquals(1, jbin.getEventCount());
+        assertNull(jbin.section(BinaryJBin.DAY));
+
+        List<Task> tasks = jbin.getTasks();
+        assertEquals("HW", tasks.get(0).getName());
+        assertEquals(2, tasks.get(0).getTotalHours());
+        assertNull(tasks.get(0).getCheckList());
+
+        List<Event> events = jbin.getEvents(7);
+        assertEquals(7, events.get(0).getId());
+        assertEquals("Lecture", events.get(0).getName());
+        assertArrayEquals(new Event.DayOfWeek[]{Event.DayOfWeek.MON}, events.get(0).getDays());
+        assertEquals(9, events.get(0).getTimeStamp().getStartHour());
+
+        assertEquals("Notes", jbin.getCheckLists().get(0).getName());
+        assertTrue(jbin.getCheckLists().get(0).getItem(0).isComplete());
+    }
+
+    @Test
+    void processJBin() {
+        Queue<Task> tasks = new PriorityQueue<>();
+        List<Event> events = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        map().processJBin(tasks, events, 0, cards, new ArrayList<>(), 0);
+        assertEquals(1, tasks.size());
+        assertEquals("Notes", tasks.peek().getCheckList().getName());
+        assertEquals(1, events.size());
+        assertEquals(1, cards.get(0).getTask().size());
+
+        // the first section (after the 10 byte header and its tag) claims to be longer than the file
+        data[11] = 0x7F;
+        assertThrows(IllegalArgumentException.class, this::map);
+    }
+}
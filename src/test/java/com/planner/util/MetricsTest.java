@@ -0,0 +1,81 @@
+package com.planner.util;
+
+import com.planner.io.MetricsExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests all Metrics methods
+ *
+ * @author Andrew Roe
+ */
+class MetricsTest {
+
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    void histogram() {
+        Metrics.Histogram histogram = metrics.histogram("build", "Build time");
+        assertSame(histogram, metrics.histogram("build", "Build time"));
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        // buckets are within about 3% of the values they hold
+        assertEquals(500_000, histogram.getPercentile(0.5), 500_000 * 0.035);
+        assertEquals(990_000, histogram.getPercentile(0.99), 990_000 * 0.035);
+        assertEquals(1_000_000, histogram.getPercentile(1));
+
+        for (long value : new long[]{0, 31, 32, 33, 1 << 20, Long.MAX_VALUE}) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertTrue(Metrics.Histogram.highestOf(bucket) >= value);
+            assertTrue(bucket == 0 || Metrics.Histogram.highestOf(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void writePrometheus() throws IOException {
+        metrics.counter("rebuilds", "Schedules built").add(3);
+        metrics.gauge("tasks", "Tasks in the system", () -> 42);
+        metrics.histogram("build", "Build time").record(2_000_000);
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("tasks", "Tasks"));
+
+        StringBuilder sb = new StringBuilder();
+        metrics.writePrometheus(sb);
+        String text = sb.toString();
+        assertTrue(text.contains("# TYPE planner_rebuilds_total counter\nplanner_rebuilds_total 3\n"));
+        assertTrue(text.contains("# TYPE planner_tasks gauge\nplanner_tasks 42\n"));
+        assertTrue(text.contains("# TYPE planner_build_seconds summary\n"));
+        assertTrue(text.contains("planner_build_seconds_count 1\n"));
+        assertTrue(text.contains("planner_build_seconds_sum 0.002000000\n"));
+    }
+
+    @Test
+    void exporter() throws JMException {
+        metrics.counter("rebuilds", "Schedules built").increment();
+        metrics.histogram("build", "Build time").record(1_000_000);
+        MetricsExporter exporter = new MetricsExporter(metrics, 0);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsExporter.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "rebuilds"));
+        assertEquals(1L, server.getAttribute(name, "build_count"));
+        assertEquals(5, server.getMBeanInfo(name).getAttributes().length);
+        exporter.close();
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,113 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parallel text JBin import
+ *
+ * @author Andrew Roe
+ */
+class ParallelJBinTest {
+
+    private String today;
+    private Queue<Task> tasks;
+    private List<Event> events;
+    private List<Card> cards;
+    private List<Day> schedule;
+
+    @BeforeEach
+    void setUp() {
+        today = new SimpleDateFormat("dd-MM-yyyy").format(Time.getFormattedCalendarInstance(0).getTime());
+        tasks = new PriorityQueue<>();
+        events = new ArrayList<>();
+        cards = new ArrayList<>();
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        schedule = new ArrayList<>();
+    }
+
+    @Test
+    void processJBin() {
+        // sections don't need to be in the order they depend on each other
+        String jbin = today + "\r\n"
+                + "CARD {\r\n  Default, LIGHT_BLUE, T1\r\n  School, RED, T0, T1\r\n}\r\n"
+                + "TASK {\r\n  HW, 3.0, 1, CL0\r\n  Exam, 2.0, 2\r\n}\r\n"
+                + "CHECKLIST {\r\n  Steps, Read+, Write\r\n}\r\n"
+                + "EVENT {\r\n  Lecture, RED, true, 9:00-10:00, MON WED\r\n}\r\n"
+                + "DAY {\r\n  T0 2.0, T1 1.0\r\n  N/A\r\n  T0 1.0\r\n}\r\n";
+        ParallelJBin.processJBin(jbin, tasks, events, 4, cards, schedule, 0, new ForkJoinPool(2));
+
+        assertEquals(2, cards.size());
+        assertEquals(1, cards.get(0).getTask().size());
+        assertEquals(2, cards.get(1).getTask().size());
+        assertEquals(2, tasks.size());
+        Task hw = cards.get(1).getTask().get(0);
+        assertEquals("Steps", hw.getCheckList().getName());
+        assertTrue(hw.getCheckList().getItem(0).isComplete());
+        assertEquals(Card.Colors.RED, hw.getColor());
+        // hours come from the Days they were scheduled on
+        assertEquals(3.0, hw.getTotalHours());
+        assertEquals(1, events.size());
+        assertEquals(4, events.get(0).getId());
+        assertEquals(3, schedule.size());
+        assertEquals(0, schedule.get(1).getNumSubTasks());
+    }
+
+    @Test
+    void matchesSequential() {
+        WorkloadGenerator generator = new WorkloadGenerator(7);
+        generator.setTasks(3000);
+        generator.setCheckLists(300);
+        generator.setRecurringEvents(5);
+        generator.setIndividualEvents(5);
+        String jbin = generator.createJBin();
+        JBin.processJBin(jbin, tasks, events, 0, cards, schedule, 0);
+
+        Queue<Task> parallelTasks = new PriorityQueue<>();
+        List<Event> parallelEvents = new ArrayList<>();
+        List<Card> parallelCards = new ArrayList<>();
+        parallelCards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        ParallelJBin.processJBin(jbin, parallelTasks, parallelEvents, 0, parallelCards, new ArrayList<>(), 0);
+
+        assertEquals(tasks.size(), parallelTasks.size());
+        assertEquals(events.size(), parallelEvents.size());
+        assertEquals(cards.size(), parallelCards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            assertEquals(cards.get(i).getTitle(), parallelCards.get(i).getTitle());
+            assertEquals(cards.get(i).getTask().size(), parallelCards.get(i).getTask().size());
+        }
+        while (!tasks.isEmpty()) {
+            Task task = tasks.remove();
+            Task parallelTask = parallelTasks.remove();
+            assertEquals(task.getName(), parallelTask.getName());
+            assertEquals(task.getDueDate(), parallelTask.getDueDate());
+            assertEquals(task.getCheckList() == null, parallelTask.getCheckList() == null);
+        }
+    }
+
+    @Test
+    void invalidJBin() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelJBin.processJBin(today + "\nTASK {\n  HW, 3.0, 1\n",
+                tasks, events, 0, cards, schedule, 0));
+        assertThrows(InputMismatchException.class, () -> ParallelJBin.processJBin(today + "\nTASKS {\n}\n",
+                tasks, events, 0, cards, schedule, 0));
+        assertThrows(InputMismatchException.class, () -> ParallelJBin.processJBin(today + "\nTASK {\n}\nTASK {\n}\n",
+                tasks, events, 0, cards, schedule, 0));
+        assertThrows(InputMismatchException.class, () -> ParallelJBin.processJBin(today + "\nTASK {\n  HW, 3.0\n}\n",
+                tasks, events, 0, cards, schedule, 0));
+    }
+}
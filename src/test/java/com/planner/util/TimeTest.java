@@ -0,0 +1,80 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the epoch minute operations of Time
+ *
+ * @author Andrew Roe
+ */
+class TimeTest {
+
+    private static Calendar getCalendar(int year, int month, int day, int hour, int min) {
+        Calendar date = Calendar.getInstance();
+        date.clear();
+        date.set(year, month, day, hour, min);
+        return date;
+    }
+
+    @Test
+    void toEpochMinute() {
+        Calendar date = getCalendar(2024, Calendar.JUNE, 13, 9, 45);
+        long minute = Time.toEpochMinute(date);
+        assertEquals(9, Time.getHourOfDay(minute));
+        assertEquals(45, Time.getMinuteOfHour(minute));
+        assertEquals(9 * 60 + 45, Time.getMinuteOfDay(minute));
+        assertEquals(minute - (9 * 60 + 45), Time.getStartOfDay(minute));
+    }
+
+    @Test
+    void toCalendar() {
+        Calendar date = getCalendar(2024, Calendar.JUNE, 13, 17, 30);
+        Calendar view = Time.toCalendar(Time.toEpochMinute(date));
+        assertEquals(date.getTimeInMillis(), view.getTimeInMillis());
+
+        // recurring events are stored with placeholder dates in year 1
+        Calendar placeholder = getCalendar(1, Calendar.FEBRUARY, 1, 12, 45);
+        view = Time.toCalendar(Time.toEpochMinute(placeholder));
+        assertEquals(1, view.get(Calendar.YEAR));
+        assertEquals(Calendar.FEBRUARY, view.get(Calendar.MONTH));
+        assertEquals(1, view.get(Calendar.DAY_OF_MONTH));
+        assertEquals(12, view.get(Calendar.HOUR_OF_DAY));
+        assertEquals(45, view.get(Calendar.MINUTE));
+    }
+
+    @Test
+    void getNearestQuarterOfHour() {
+        long start = Time.toEpochMinute(getCalendar(2024, Calendar.JUNE, 13, 10, 0));
+        assertEquals(start, Time.getNearestQuarterOfHour(start, true));
+        assertEquals(start + 15, Time.getNearestQuarterOfHour(start + 1, true));
+        assertEquals(start + 45, Time.getNearestQuarterOfHour(start + 31, true));
+        assertEquals(start + 60, Time.getNearestQuarterOfHour(start + 46, true));
+        assertEquals(start, Time.getNearestQuarterOfHour(start + 14, false));
+        assertEquals(start + 15, Time.getNearestQuarterOfHour(start + 29, false));
+        assertEquals(start + 45, Time.getNearestQuarterOfHour(start + 59, false));
+    }
+
+    @Test
+    void getTimeInterval() {
+        long start = Time.toEpochMinute(getCalendar(2024, Calendar.JUNE, 13, 10, 0));
+        assertEquals(1.0, Time.getTimeInterval(start, start + 87));
+        assertEquals(1.5, Time.getTimeInterval(start, start + 100));
+        assertEquals(0.0, Time.getTimeInterval(start + 29, start));
+    }
+
+    @Test
+    void timeStamp() {
+        long start = Time.toEpochMinute(getCalendar(2024, Calendar.JUNE, 13, 12, 30));
+        Time.TimeStamp ts = new Time.TimeStamp(start, start + 225);
+        assertEquals(12, ts.getStartHour());
+        assertEquals(30, ts.getStartMin());
+        assertEquals(16, ts.getEndHour());
+        assertEquals(15, ts.getEndMin());
+        assertEquals("12:30pm-04:15pm", ts.toString());
+        assertThrows(IllegalArgumentException.class, () -> new Time.TimeStamp(start, start));
+    }
+}
@@ -0,0 +1,71 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that generated boards are reproducible and can be processed
+ *
+ * @author Andrew Roe
+ */
+class WorkloadGeneratorTest {
+
+    private WorkloadGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new WorkloadGenerator(7);
+        generator.setCards(3);
+        generator.setTasks(50);
+        generator.setCheckLists(5);
+        generator.setRecurringEvents(2);
+        generator.setIndividualEvents(4);
+        generator.setDueDates(WorkloadGenerator.DueDates.CLUSTERED);
+    }
+
+    @Test
+    void createJBin() {
+        String jbin = generator.createJBin();
+        WorkloadGenerator other = new WorkloadGenerator(7);
+        other.setCards(3);
+        other.setTasks(50);
+        other.setCheckLists(5);
+        other.setRecurringEvents(2);
+        other.setIndividualEvents(4);
+        other.setDueDates(WorkloadGenerator.DueDates.CLUSTERED);
+        assertEquals(jbin, other.createJBin());
+
+        Queue<Task> tasks = new PriorityQueue<>();
+        List<Event> events = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+        cards.add(new Card(0, "Default", Card.Colors.LIGHT_BLUE));
+        List<Day> schedule = new ArrayList<>();
+        JBin.processJBin(jbin, tasks, events, 0, cards, schedule, 0);
+        assertEquals(50, tasks.size());
+        assertEquals(6, events.size());
+        assertEquals(3, cards.size());
+        assertEquals("Default", cards.get(0).getTitle());
+        assertEquals(17, cards.get(0).getTask().size());
+    }
+
+    @Test
+    void createScript() {
+        String script = generator.createScript();
+        assertTrue(script.startsWith("include: __CURR_CONFIG__"));
+        assertTrue(script.contains("c2: card(\"Card 2\", \"YELLOW\")"));
+        assertTrue(script.contains("add_task_card(t49, c1)"));
+        assertTrue(script.endsWith("build()\n"));
+        assertThrows(IllegalArgumentException.class, () -> generator.setCards(0));
+    }
+}